@@ -22,6 +22,9 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,6 +45,26 @@ public class DataUtils {
     }
     
     
+    /**
+     * Converts a local date time of the system time zone to epoch milliseconds, the format dates are stored with
+     *
+     * @param dateTime the local date time
+     * @return the epoch milliseconds of the date time
+     */
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Converts stored epoch milliseconds to a local date time of the system time zone
+     *
+     * @param epochMillis the epoch milliseconds
+     * @return the local date time
+     */
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
     /**
      * Deserialize a byte array into an object of the specified class type.
      *
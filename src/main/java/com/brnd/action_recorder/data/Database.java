@@ -25,7 +25,11 @@ import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashSet;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -38,73 +42,189 @@ public class Database {
 
     private static final String SQLITE_JDBC_CLASS = "org.sqlite.JDBC";
 
-    private static final String APP_FOLDER
-            = System.getenv("LOCALAPPDATA")
-            + File.separator + "Brnd08"
-            + File.separator + "ActionRecorder";
-
-    private static final String DATA_FOLDER
-            = APP_FOLDER
-            + File.separator + "data";
+    public static final Logger logger = LogManager.getLogger(Database.class);
 
-    private static final String DB_FILE_PATH
-            = DATA_FOLDER
-            + File.separator + "action_recorder.db";
+    private static DatabaseLocation location;
+    private static boolean initialized;
 
-    private static final String DB_URL = "jdbc:sqlite:" + File.separator + DB_FILE_PATH;
+    private Database() { // To prevent class instantiation in utility classes
+        throw new UnsupportedOperationException("Utility class can not be instantiated");
+    }
 
-    public static final Logger logger = LogManager.getLogger(Database.class);
+    private static Connection sqliteConnection;
+    private static Connection sqliteReadConnection;
 
-    static {
-        try {
-            logger.log(Level.TRACE, "Database Initialization.");
-            Database.initializeDatabase();
-        } catch (SQLException ex) {
-            logger.log(Level.FATAL, "Could not initialize the database", ex);
-            System.exit(1);
+    /**
+     * Obtains the location of the database, read from the configuration the first time it is needed
+     *
+     * @return the database location
+     * @see DatabaseLocation#fromConfiguration()
+     */
+    public static synchronized DatabaseLocation getLocation() {
+        if (location == null) {
+            location = DatabaseLocation.fromConfiguration();
+            logger.log(Level.INFO, "Using database {}", location);
         }
+        return location;
+    }
 
+    /**
+     * Closes the open connections and makes the database at the given location the one used from now on, it is
+     * initialized when a connection is requested. Intended for tests and benchmarks that need an isolated database,
+     * e.g. {@code Database.useLocation(DatabaseLocation.temporary())}. It must be called while no database operation
+     * is running, and repositories created before must not be used afterwards.
+     *
+     * @param newLocation the location of the database to use
+     */
+    public static synchronized void useLocation(DatabaseLocation newLocation) {
+        logger.log(Level.INFO, "Changing database location to {}", newLocation);
+        closeConnection(sqliteReadConnection);
+        closeConnection(sqliteConnection);
+        sqliteReadConnection = null;
+        sqliteConnection = null;
+        initialized = false;
+        location = newLocation;
     }
 
-    private Database() { // To prevent class instantiation in utility classes
-        throw new UnsupportedOperationException("Utility class can not be instantiated");
+    private static void closeConnection(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not close database connection. Exception msg: {}", e.getMessage());
+        }
     }
 
-    private static Connection sqliteConnection;
+    /**
+     * Initializes the database the first time a connection is requested, a failed initialization is attempted again
+     * on the next request
+     *
+     * @throws SQLException if the database could not be initialized
+     */
+    private static void ensureInitialized() throws SQLException {
+        if (!initialized) {
+            logger.log(Level.TRACE, "Database Initialization.");
+            initializeDatabase();
+        }
+    }
 
     /**
      * Method to return a singleton {@link Connection} instance for the SQLite
-     * database
+     * database. This is the write connection, it must only be used from the
+     * {@link DatabaseExecutor} thread once the database is initialized.
      *
      * @return {@link Connection}
      * @throws java.sql.SQLException if an Exception occurs during
      * databaseInitialization
      */
     public static synchronized Connection getSqliteConnection() throws SQLException {
-        initializeConnection();
+        ensureInitialized();
         return sqliteConnection;
     }
 
     /**
-     * This method initializes the SQLite database by creating the tables
-     * specified in the {@link DatabaseTable} enumeration class
+     * Method to return a singleton read only {@link Connection} instance for
+     * the SQLite database. In WAL mode reads made through this connection do
+     * not wait for the transactions of the write connection.
+     *
+     * @return {@link Connection}
+     * @throws java.sql.SQLException if the connection could not be created
+     */
+    public static synchronized Connection getSqliteReadConnection() throws SQLException {
+        ensureInitialized();
+        if (sqliteReadConnection == null || sqliteReadConnection.isClosed()) {
+            sqliteReadConnection = openReadOnlyConnection();
+        }
+        return sqliteReadConnection;
+    }
+
+    /**
+     * Opens a new read only {@link Connection} owned by the caller, intended for
+     * long reads that need a consistent snapshot of the database without
+     * holding a transaction open on the shared read connection
+     *
+     * @return the opened connection, it must be closed by the caller
+     * @throws SQLException if the connection could not be opened
+     */
+    public static synchronized Connection openReadOnlyConnection() throws SQLException {
+        ensureInitialized();
+        Connection connection = openConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA query_only = ON;");
+            if (getLocation().getMode() == DatabaseLocation.Mode.MEMORY) {
+                // shared cache connections lock whole tables, reads don't wait for the write transactions this way
+                statement.execute("PRAGMA read_uncommitted = ON;");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * This method initializes the SQLite database by applying the
+     * {@link SchemaMigration} steps the database is missing
      *
      * @throws SQLException either if Could not get the database
-     * {@link Connection} instance or if an error occurs during a table creation
-     * process
+     * {@link Connection} instance or if an error occurs during a migration
      */
-    public static void initializeDatabase() throws SQLException {
+    public static synchronized void initializeDatabase() throws SQLException {
         createAppDirs();
         initializeConnection();
 
-        for (DatabaseTable table : DatabaseTable.values()) {
-            logger.log(Level.TRACE, "Creating {} table ", table.name());
-            createTable(table);
-            logger.log(Level.TRACE, "Table {} created successfully ", table.name());
-        }
+        migrateSchema();
 
         insertDefaultSettingsValues();
 
+        initialized = true;
+    }
+
+    /**
+     * Applies in order the {@link SchemaMigration} steps newer than the
+     * database schema version, each one in its own transaction so a failed
+     * step leaves the database at the previous version
+     *
+     * @throws SQLException if the schema version could not be read or a step
+     * failed
+     */
+    private static void migrateSchema() throws SQLException {
+        int schemaVersion;
+        try (
+                Statement statement = sqliteConnection.createStatement();
+                ResultSet resultSet = statement.executeQuery("PRAGMA user_version;")
+        ) {
+            schemaVersion = resultSet.getInt(1);
+        }
+        logger.log(Level.TRACE, "Database schema version {}, latest version {}", schemaVersion, SchemaMigration.latestVersion());
+        if (schemaVersion > SchemaMigration.latestVersion()) {
+            logger.log(Level.WARN, "Database schema version {} is newer than the supported version {}",
+                    schemaVersion, SchemaMigration.latestVersion());
+            return;
+        }
+
+        for (SchemaMigration migration : SchemaMigration.values()) {
+            if (migration.getVersion() <= schemaVersion) {
+                continue;
+            }
+            logger.log(Level.INFO, "Applying schema migration {} (version {})", migration.name(), migration.getVersion());
+            try {
+                sqliteConnection.setAutoCommit(false);
+                migration.apply(sqliteConnection);
+                try (Statement statement = sqliteConnection.createStatement()) {
+                    statement.executeUpdate("PRAGMA user_version = " + migration.getVersion() + ";");
+                }
+                sqliteConnection.commit();
+            } catch (SQLException e) {
+                logger.log(Level.ERROR, "Could not apply schema migration {}", migration.name());
+                sqliteConnection.rollback();
+                throw e;
+            } finally {
+                sqliteConnection.setAutoCommit(true);
+            }
+        }
     }
 
     /**
@@ -122,6 +242,7 @@ public class Database {
             preparedStatement.setInt(1, 1);
             preparedStatement.setBoolean(2, defaultSettings.isShowAlwaysOnTopEnabled());
             preparedStatement.setString(3, defaultSettings.getInitialViewLocation().name());
+            preparedStatement.setNull(4, Types.VARCHAR); // the user home is used until an export directory is chosen
             int modifiedRows = preparedStatement.executeUpdate();
             if (modifiedRows == 0) {
                 logger.log(Level.ALL, "Already configured settings were found. No need to add default values.");
@@ -155,7 +276,7 @@ public class Database {
         try {
             if (sqliteConnection == null || sqliteConnection.isClosed()) {
                 Class.forName(SQLITE_JDBC_CLASS);
-                sqliteConnection = DriverManager.getConnection(DB_URL);
+                sqliteConnection = openConnection();
             }
         } catch (ClassNotFoundException e) {
             logger.log(Level.FATAL, "Could not load the JDBC driver class: {}", SQLITE_JDBC_CLASS);
@@ -169,24 +290,43 @@ public class Database {
     }
 
     /**
-     * Creates the app related directories
+     * Opens a new connection to the database and applies the configured
+     * {@link SqlitePragma} values to it
+     *
+     * @return the opened connection
+     * @throws SQLException if the connection could not be opened or a pragma
+     * could not be applied
      */
-    private static void createAppDirs() {
+    private static Connection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(getLocation().getUrl());
+        try (Statement statement = connection.createStatement()) {
+            for (SqlitePragma pragma : SqlitePragma.values()) {
+                logger.log(Level.TRACE, "Applying pragma {}", pragma.getPragmaSentence());
+                statement.execute(pragma.getPragmaSentence());
+            }
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not apply pragmas to the sqlite database Connection");
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
 
-        File programRootDir = new File(APP_FOLDER);
-        if (!programRootDir.exists()) {
-            logger.log(Level.INFO, "The program root directory '{}' {}.",
-                     APP_FOLDER, (programRootDir.mkdirs() ? "was created" : "couldn't be created"));
-        } else {
-            logger.log(Level.INFO, "The program root directory '{}' alreadyExists.", APP_FOLDER);
+    /**
+     * Creates the directory of the database file, in-memory databases have none
+     */
+    private static void createAppDirs() {
+        Path databaseFile = getLocation().getDatabaseFile();
+        if (databaseFile == null) {
+            return;
         }
 
-        File programDataDir = new File(DATA_FOLDER);
+        File programDataDir = databaseFile.getParent().toFile();
         if (!programDataDir.exists()) {
             logger.log(Level.INFO, "The program data directory '{}' {}.",
-                     DATA_FOLDER, (programDataDir.mkdirs() ? "was created" : "couldn't be created"));
+                     programDataDir, (programDataDir.mkdirs() ? "was created" : "couldn't be created"));
         } else {
-            logger.log(Level.INFO, "The program data directory '{}' alreadyExists.", DATA_FOLDER);
+            logger.log(Level.INFO, "The program data directory '{}' alreadyExists.", programDataDir);
         }
 
     }
@@ -194,14 +334,16 @@ public class Database {
     /**
      * This method creates the specified table in the app database
      *
+     * @param connection the connection to the database
      * @param table The table to be created
      * @throws SQLException Either If an exception occurs during table creation
      *
      */
-    private static void createTable(DatabaseTable table) throws SQLException {
+    static void createTable(Connection connection, DatabaseTable table) throws SQLException {
+        logger.log(Level.TRACE, "Creating {} table ", table.name());
         PreparedStatement pStatement = null;
         try {
-            pStatement = getSqliteConnection().prepareStatement(table.getCreateTableSentence());
+            pStatement = connection.prepareStatement(table.getCreateTableSentence());
             pStatement.executeUpdate();
         } catch (SQLException e) {
             logger.log(Level.ERROR, "Could not create {} table", table.name());
@@ -217,11 +359,55 @@ public class Database {
         }
     }
 
+    /**
+     * Adds to the given table the columns declared on its {@link DatabaseTable} constant that are missing on the
+     * database, intended for databases created by previous versions of the program
+     *
+     * @param connection the connection to the database
+     * @param table The table to be updated
+     * @throws SQLException If the table columns could not be retrieved or a column could not be added
+     */
+    static void addMissingColumns(Connection connection, DatabaseTable table) throws SQLException {
+        var existingColumns = new HashSet<String>();
+        try (
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("PRAGMA table_info(" + table.name() + ");")
+        ) {
+            while (resultSet.next()) {
+                existingColumns.add(resultSet.getString("name"));
+            }
+        }
+
+        for (var column : table.getFieldsMap().entrySet()) {
+            if (existingColumns.contains(column.getKey())) {
+                continue;
+            }
+            String alterSentence = String.format("ALTER TABLE %s ADD COLUMN %s %s;", table.name(), column.getKey(), column.getValue());
+            logger.log(Level.INFO, "Adding missing column {} to {} table", column.getKey(), table.name());
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(alterSentence);
+            } catch (SQLException e) {
+                logger.log(Level.ERROR, "Could not add column {} to {} table with script {}", column.getKey(), table.name(), alterSentence);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Deletes the database file, in-memory databases are discarded when their connections are closed
+     */
     public static void deleteDatabase() {
+        Path databaseFile = getLocation().getDatabaseFile();
+        if (databaseFile == null) {
+            return;
+        }
         try {
-            Files.delete(new File(DB_FILE_PATH).toPath());
+            Files.delete(databaseFile);
+            // WAL mode files, only present if a connection is still open or was not closed cleanly
+            Files.deleteIfExists(Path.of(databaseFile + "-wal"));
+            Files.deleteIfExists(Path.of(databaseFile + "-shm"));
         } catch ( IOException e) {
-            logger.log(Level.ERROR, "Could not delete database. File path: {}. Cause msg: {}", DB_URL, e.getMessage());
+            logger.log(Level.ERROR, "Could not delete database. File path: {}. Cause msg: {}", databaseFile, e.getMessage());
         }
 
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single threaded executor where every database write is executed. Writes are serialized on the
+ * {@link Database#getSqliteConnection() write connection} so callers on other threads never share it, and a long
+ * write never blocks a read made through the {@link Database#getSqliteReadConnection() read connection}.
+ * <p>
+ * Reads requested asynchronously are executed on a separate reader thread, so they are not queued behind the
+ * pending writes.
+ */
+public class DatabaseExecutor {
+
+    private static final Logger logger = LogManager.getLogger(DatabaseExecutor.class);
+    private static final String THREAD_NAME = "database-writer";
+    private static final String READER_THREAD_NAME = "database-reader";
+
+    private static volatile Thread databaseThread;
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true); // pending writes must not keep the program alive after the JavaFX application exits
+        databaseThread = thread;
+        return thread;
+    });
+
+    private static final ExecutorService readerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, READER_THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DatabaseExecutor() { // To prevent class instantiation in utility classes
+        throw new UnsupportedOperationException("Utility class can not be instantiated");
+    }
+
+    /**
+     * Indicates if the current thread is the database executor thread
+     *
+     * @return true if called from a write being executed by the database executor
+     */
+    public static boolean isDatabaseThread() {
+        return Thread.currentThread() == databaseThread;
+    }
+
+    /**
+     * Submits the given write to the database executor without waiting for it
+     *
+     * @param write the write to execute
+     * @param <T>   the type of the write result
+     * @return the future result of the write
+     */
+    public static <T> Future<T> submitWrite(Supplier<T> write) {
+        return executor.submit(write::get);
+    }
+
+    /**
+     * Executes the given write on the database executor without waiting for it
+     *
+     * @param write the write to execute
+     * @param <T>   the type of the write result
+     * @return a future completed with the result of the write, or exceptionally if the write threw an exception
+     */
+    public static <T> CompletableFuture<T> supplyWrite(Supplier<T> write) {
+        return CompletableFuture.supplyAsync(write, executor);
+    }
+
+    /**
+     * Executes the given read on the reader thread without waiting for it
+     *
+     * @param read the read to execute, it must only use the read connection
+     * @param <T>  the type of the read result
+     * @return a future completed with the result of the read, or exceptionally if the read threw an exception
+     */
+    public static <T> CompletableFuture<T> supplyRead(Supplier<T> read) {
+        return CompletableFuture.supplyAsync(read, readerExecutor);
+    }
+
+    /**
+     * Executes the given write on the database executor and waits for its result. If called from the database executor
+     * thread the write is executed directly, so writes can be composed without deadlocking the executor.
+     *
+     * @param write the write to execute
+     * @param <T>   the type of the write result
+     * @return the result of the write
+     */
+    public static <T> T callWrite(Supplier<T> write) {
+        if (isDatabaseThread()) {
+            return write.get();
+        }
+        Future<T> result = submitWrite(write);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return result.get();
+                } catch (InterruptedException e) {
+                    // the write can not be cancelled once submitted, wait for it and restore the interrupt status later
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Database write failed", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Executes the given write on the database executor and waits for it to finish
+     *
+     * @param write the write to execute
+     * @see #callWrite(Supplier)
+     */
+    public static void runWrite(Runnable write) {
+        callWrite(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops accepting writes and waits for the already submitted writes to finish. Since the executor thread is a
+     * daemon thread, pending writes are lost if the program exits without calling this method.
+     *
+     * @param timeoutMillis the maximum time to wait for the pending writes
+     * @return true if all the pending writes finished
+     */
+    public static boolean shutdown(long timeoutMillis) {
+        logger.log(Level.TRACE, "Shutting down database executor");
+        readerExecutor.shutdownNow(); // pending reads have no effect on the database
+        executor.shutdown();
+        try {
+            boolean terminated = executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (!terminated) {
+                logger.log(Level.WARN, "Database executor did not finish its pending writes after {} ms", timeoutMillis);
+            }
+            return terminated;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
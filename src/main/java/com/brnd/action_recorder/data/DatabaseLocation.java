@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where the database is stored. The location used by {@link Database} is read from the system properties, or from
+ * the environment variables when the properties are not set:
+ * <ul>
+ *     <li>{@code action_recorder.database.mode} ({@code ACTION_RECORDER_DATABASE_MODE}): one of the {@link Mode}
+ *     names, {@link Mode#FILE} by default.</li>
+ *     <li>{@code action_recorder.data_dir} ({@code ACTION_RECORDER_DATA_DIR}): directory of the database file in
+ *     {@link Mode#FILE} mode. By default the data directory of the program in {@code LOCALAPPDATA}, or in
+ *     {@code XDG_DATA_HOME} (~/.local/share) when that variable is not set.</li>
+ * </ul>
+ * e.g. {@code -Daction_recorder.database.mode=memory} to run a benchmark without touching the stored Recordings.
+ */
+public final class DatabaseLocation {
+
+    public static final String MODE_PROPERTY = "action_recorder.database.mode";
+    public static final String DATA_DIRECTORY_PROPERTY = "action_recorder.data_dir";
+    private static final String DATABASE_FILE_NAME = "action_recorder.db";
+    private static final String TEMPORARY_DIRECTORY_PREFIX = "action_recorder-";
+    private static final AtomicInteger memoryDatabasesCount = new AtomicInteger();
+
+    /**
+     * Kinds of database locations
+     */
+    public enum Mode {
+        /*
+         * A database file kept between executions
+         */
+        FILE,
+        /*
+         * A database file in a new temporary directory, deleted when the program exits
+         */
+        TEMPORARY,
+        /*
+         * A database held in memory, lost when the program exits
+         */
+        MEMORY
+    }
+
+    private final Mode mode;
+    private final Path databaseFile;
+    private final String url;
+
+    private DatabaseLocation(Mode mode, Path databaseFile, String url) {
+        this.mode = mode;
+        this.databaseFile = databaseFile;
+        this.url = url;
+    }
+
+    /**
+     * Obtains the location configured by the system properties or the environment variables
+     *
+     * @return the configured location
+     * @throws IllegalArgumentException if the configured mode is unknown
+     */
+    public static DatabaseLocation fromConfiguration() {
+        String configuredMode = readConfiguration(MODE_PROPERTY);
+        var configuredLocationMode = configuredMode == null ? Mode.FILE : Mode.valueOf(configuredMode.toUpperCase(Locale.ROOT));
+        return switch (configuredLocationMode) {
+            case FILE -> {
+                String configuredDirectory = readConfiguration(DATA_DIRECTORY_PROPERTY);
+                yield file(configuredDirectory == null ? defaultDataDirectory() : Path.of(configuredDirectory));
+            }
+            case TEMPORARY -> temporary();
+            case MEMORY -> memory();
+        };
+    }
+
+    /**
+     * Obtains a location for a database file in the given directory
+     *
+     * @param dataDirectory the directory of the database file, it is created if it doesn't exist
+     * @return the location
+     */
+    public static DatabaseLocation file(Path dataDirectory) {
+        Path databaseFile = dataDirectory.resolve(DATABASE_FILE_NAME).toAbsolutePath();
+        return new DatabaseLocation(Mode.FILE, databaseFile, "jdbc:sqlite:" + databaseFile);
+    }
+
+    /**
+     * Obtains a location for a database file in a new temporary directory, each call returns a different empty
+     * database. The files are deleted when the program exits.
+     *
+     * @return the location
+     * @throws UncheckedIOException if the temporary directory could not be created
+     */
+    public static DatabaseLocation temporary() {
+        try {
+            Path directory = Files.createTempDirectory(TEMPORARY_DIRECTORY_PREFIX);
+            Path databaseFile = directory.resolve(DATABASE_FILE_NAME);
+            // deleted in reverse registration order, so the directory is deleted once it is empty
+            directory.toFile().deleteOnExit();
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                new File(databaseFile + suffix).deleteOnExit();
+            }
+            return new DatabaseLocation(Mode.TEMPORARY, databaseFile, "jdbc:sqlite:" + databaseFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a temporary database directory", e);
+        }
+    }
+
+    /**
+     * Obtains a location for a new database held in memory, each call returns a different empty database. The
+     * in-memory database is named and shared-cached so the write and read connections see the same data: unlike in
+     * WAL mode, reads of a table wait for the write transactions on it.
+     *
+     * @return the location
+     */
+    public static DatabaseLocation memory() {
+        String name = "action_recorder_" + memoryDatabasesCount.incrementAndGet();
+        return new DatabaseLocation(Mode.MEMORY, null, "jdbc:sqlite:file:" + name + "?mode=memory&cache=shared");
+    }
+
+    private static String readConfiguration(String propertyName) {
+        String value = System.getProperty(propertyName);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(propertyName.toUpperCase(Locale.ROOT).replace('.', '_'));
+        }
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static Path defaultDataDirectory() {
+        String baseDirectory = System.getenv("LOCALAPPDATA");
+        if (baseDirectory == null) {
+            baseDirectory = System.getenv("XDG_DATA_HOME");
+        }
+        Path base = baseDirectory != null
+                ? Path.of(baseDirectory)
+                : Path.of(System.getProperty("user.home"), ".local", "share");
+        return base.resolve("Brnd08").resolve("ActionRecorder").resolve("data");
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Obtains the database file
+     *
+     * @return the database file path, null for in-memory databases
+     */
+    public Path getDatabaseFile() {
+        return databaseFile;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseLocation{mode=" + mode + ", url=" + url + '}';
+    }
+}
@@ -17,7 +17,9 @@
 package com.brnd.action_recorder.data;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -30,19 +32,56 @@ public enum DatabaseTable {
     SETTINGS( //table used to store the app settings
             new String[]{"settings_id", "INTEGER PRIMARY KEY  UNIQUE"},
             new String[]{"always_on_top", "BOOLEAN NOT NULL DEFAULT FALSE"},
-            new String[]{"initial_stage_location", "VARCHAR(30) NOT NULL DEFAULT 'CENTER'"}
+            new String[]{"initial_stage_location", "VARCHAR(30) NOT NULL DEFAULT 'CENTER'"},
+            new String[]{"export_directory_path", "VARCHAR(260)"}// directory where the recordings archives are saved
     ),
     RECORDINGS(//table used to store recordings
             new String[]{"recording_id", "INTEGER PRIMARY KEY AUTOINCREMENT UNIQUE"},
             new String[]{"recording_title", "VARCHAR(30)"},
             new String[]{"recording_description", "VARCHAR(30)"},
-            new String[]{"recording_timestamp", "VARCHAR(20)"},
+            new String[]{"recording_timestamp", "VARCHAR(20)"}, // formatted date of Recordings saved by previous versions
+            new String[]{"recording_date_millis", "INTEGER"}, // epoch milliseconds of the Recording local date time
             new String[]{"recording_duration", "FLOAT"},
             new String[]{"recording_input_events", "BLOB"},
             new String[]{"recording_mouse_events", "BOOLEAN DEFAULT FALSE"},
             new String[]{"recording_keyboard_events", "BOOLEAN DEFAULT FALSE"},
             new String[]{"recording_scroll_events", "BOOLEAN DEFAULT FALSE"},
-            new String[]{"recording_click_events", "BOOLEAN DEFAULT FALSE"}
+            new String[]{"recording_click_events", "BOOLEAN DEFAULT FALSE"},
+            // hashes of the input events grouped by type (see EventPartition) stored in EVENT_PAYLOADS
+            new String[]{"recording_motion_hash", "VARCHAR(64)"},
+            new String[]{"recording_button_hash", "VARCHAR(64)"},
+            new String[]{"recording_wheel_hash", "VARCHAR(64)"},
+            new String[]{"recording_key_hash", "VARCHAR(64)"},
+            new String[]{"recording_events_count", "INTEGER"},// stored apart so Recordings can be listed without their events
+            new String[]{"recording_events_checksum", "INTEGER"},// CRC32C of the encoded partitions, to verify them without decoding
+            // input events statistics, see RecordingStatistics
+            new String[]{"recording_motion_count", "INTEGER"},
+            new String[]{"recording_button_count", "INTEGER"},
+            new String[]{"recording_wheel_count", "INTEGER"},
+            new String[]{"recording_key_count", "INTEGER"},
+            new String[]{"recording_first_event_time", "INTEGER"},
+            new String[]{"recording_last_event_time", "INTEGER"},
+            new String[]{"recording_mouse_min_x", "INTEGER"},
+            new String[]{"recording_mouse_min_y", "INTEGER"},
+            new String[]{"recording_mouse_max_x", "INTEGER"},
+            new String[]{"recording_mouse_max_y", "INTEGER"},
+            new String[]{"recording_peak_events_per_second", "INTEGER"},
+            new String[]{"recording_payload_size", "INTEGER"}
+    ),
+    EVENT_PAYLOADS(//table used to store encoded input events by content, shared by the recordings containing them
+            new String[]{"payload_hash", "VARCHAR(64) PRIMARY KEY UNIQUE"},// SHA-256 of the uncompressed payload
+            new String[]{"payload_codec", "INTEGER NOT NULL DEFAULT 0"},
+            new String[]{"payload", "BLOB NOT NULL"},
+            new String[]{"payload_checksum", "INTEGER"},// CRC32C of the stored payload, to verify it without decompressing
+            new String[]{"reference_count", "INTEGER NOT NULL DEFAULT 0"}
+    ),
+    RECORDING_EVENT_CHUNKS(//table used to store the input events of a recording as consecutive chunks
+            new String[]{"chunk_id", "INTEGER PRIMARY KEY AUTOINCREMENT UNIQUE"},
+            new String[]{"recording_id", "INTEGER NOT NULL REFERENCES RECORDINGS(recording_id) ON DELETE CASCADE"},
+            new String[]{"chunk_sequence", "INTEGER NOT NULL"},
+            new String[]{"chunk_start_time", "INTEGER NOT NULL"},// relative execution time of the first chunk event
+            new String[]{"chunk_end_time", "INTEGER NOT NULL"},// relative execution time of the last chunk event
+            new String[]{"chunk_events", "BLOB NOT NULL"}
     );
 	
     private final LinkedHashMap<String, String> fieldsMap = new LinkedHashMap<>();
@@ -54,6 +93,15 @@ public enum DatabaseTable {
     private final String selectCountSentence;  
     private final String insertDefaultSentence;
 
+    /**
+     * The table columns
+     *
+     * @return a map containing the column names as keys and their type and constraints as values, in declaration order
+     */
+    public Map<String, String> getFieldsMap() {
+        return Collections.unmodifiableMap(fieldsMap);
+    }
+
     public String getSelectCountSentence() {
         return selectCountSentence;
     }
@@ -109,6 +157,9 @@ public enum DatabaseTable {
         String[] idColumn = columns[0];
         String idColumnTypeAndConstraints = idColumn[1];
         String idColumnName = columns[0][0];
+        for (String[] column : columns) {
+            fieldsMap.put(column[0], column[1]);
+        }
         selectAllSentence = "SELECT * FROM " + this.name() + ";";
         selectByIdSentence = "SELECT * FROM " + this.name() + " WHERE " + idColumnName + " = ?;";
         selectCountSentence = "SELECT COUNT(*) FROM " + this.name() + ";";
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data;
+
+import com.brnd.action_recorder.data.events.EventPayloadStore;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Ordered steps that bring the database schema from a version to the next one. The schema version of a database is
+ * stored in its {@code user_version} pragma, each step is applied in its own transaction together with the update of
+ * that version.
+ * <p>
+ * New columns, tables and indexes are added by appending a new constant with the next version, existing constants
+ * must not be modified since they were already applied to existing databases. Storage changes that require
+ * rewriting the Recordings input events are done in the background by the input events rewriter instead of a step.
+ */
+public enum SchemaMigration {
+    /*
+     * Tables of the DatabaseTable constants, including the columns added to them before migrations existed
+     */
+    CREATE_TABLES(1, connection -> {
+        for (DatabaseTable table : DatabaseTable.values()) {
+            Database.createTable(connection, table);
+            Database.addMissingColumns(connection, table);
+        }
+    }),
+    /*
+     * Keeps chunks lookups by recording ordered by sequence and prevents duplicated sequences
+     */
+    CREATE_EVENT_CHUNKS_SEQUENCE_INDEX(2, connection -> executeUpdate(connection,
+            "CREATE UNIQUE INDEX IF NOT EXISTS RECORDING_EVENT_CHUNKS_SEQUENCE_INDEX "
+                    + "ON RECORDING_EVENT_CHUNKS(recording_id, chunk_sequence);"
+    )),
+    /*
+     * Recording dates were stored formatted, which can neither be sorted nor filtered in SQL
+     */
+    STORE_RECORDING_DATES_AS_EPOCH_MILLIS(3, connection -> {
+        Database.addMissingColumns(connection, DatabaseTable.RECORDINGS);
+        convertFormattedRecordingDates(connection);
+        executeUpdate(connection,
+                "CREATE INDEX IF NOT EXISTS RECORDINGS_DATE_INDEX ON RECORDINGS(recording_date_millis, recording_id);"
+        );
+    }),
+    /*
+     * Full text index of the Recordings titles and descriptions. It is an external content table, the indexed text
+     * is read from RECORDINGS and the triggers keep the index in sync with it.
+     */
+    CREATE_RECORDINGS_SEARCH_INDEX(4, connection -> executeUpdate(connection,
+            "CREATE VIRTUAL TABLE IF NOT EXISTS RECORDINGS_SEARCH USING fts5("
+                    + "recording_title, recording_description, content='RECORDINGS', content_rowid='recording_id', "
+                    + "tokenize='unicode61 remove_diacritics 2');",
+            "CREATE TRIGGER IF NOT EXISTS RECORDINGS_SEARCH_AFTER_INSERT AFTER INSERT ON RECORDINGS BEGIN "
+                    + "INSERT INTO RECORDINGS_SEARCH(rowid, recording_title, recording_description) "
+                    + "VALUES (new.recording_id, new.recording_title, new.recording_description); "
+                    + "END;",
+            "CREATE TRIGGER IF NOT EXISTS RECORDINGS_SEARCH_AFTER_DELETE AFTER DELETE ON RECORDINGS BEGIN "
+                    + "INSERT INTO RECORDINGS_SEARCH(RECORDINGS_SEARCH, rowid, recording_title, recording_description) "
+                    + "VALUES ('delete', old.recording_id, old.recording_title, old.recording_description); "
+                    + "END;",
+            "CREATE TRIGGER IF NOT EXISTS RECORDINGS_SEARCH_AFTER_UPDATE AFTER UPDATE OF recording_title, recording_description "
+                    + "ON RECORDINGS BEGIN "
+                    + "INSERT INTO RECORDINGS_SEARCH(RECORDINGS_SEARCH, rowid, recording_title, recording_description) "
+                    + "VALUES ('delete', old.recording_id, old.recording_title, old.recording_description); "
+                    + "INSERT INTO RECORDINGS_SEARCH(rowid, recording_title, recording_description) "
+                    + "VALUES (new.recording_id, new.recording_title, new.recording_description); "
+                    + "END;",
+            "INSERT INTO RECORDINGS_SEARCH(RECORDINGS_SEARCH) VALUES ('rebuild');"
+    )),
+    /*
+     * Checksums used to verify the stored input events without decoding them. Recordings saved before keep a null
+     * checksum, the payloads checksums are computed from their stored bytes.
+     */
+    STORE_EVENTS_CHECKSUMS(5, connection -> {
+        Database.addMissingColumns(connection, DatabaseTable.RECORDINGS);
+        Database.addMissingColumns(connection, DatabaseTable.EVENT_PAYLOADS);
+        computePayloadsChecksums(connection);
+    }),
+    /*
+     * Directory where the recordings archives are exported
+     */
+    ADD_EXPORT_DIRECTORY_SETTING(6, connection -> Database.addMissingColumns(connection, DatabaseTable.SETTINGS));
+
+    /*
+     * Format of the recording_timestamp field, a copy since the migration must keep working if the displayed format
+     * changes. Dates were formatted with the default locale, so they are parsed with it.
+     */
+    private static final String LEGACY_DATE_TIME_PATTERN = "yyyy-MM-dd hh:mma";
+
+    private static final Logger logger = LogManager.getLogger(SchemaMigration.class);
+
+    private final int version;
+    private final MigrationStep step;
+
+    SchemaMigration(int version, MigrationStep step) {
+        this.version = version;
+        this.step = step;
+    }
+
+    /**
+     * Obtains the schema version of the database after the migration is applied
+     *
+     * @return the schema version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Applies the migration, the caller is in charge of the transaction
+     *
+     * @param connection the connection to the database to migrate
+     * @throws SQLException if the migration failed
+     */
+    public void apply(Connection connection) throws SQLException {
+        step.apply(connection);
+    }
+
+    /**
+     * Obtains the schema version of the database with every migration applied
+     *
+     * @return the latest schema version
+     */
+    public static int latestVersion() {
+        SchemaMigration[] migrations = values();
+        return migrations[migrations.length - 1].version;
+    }
+
+    /**
+     * Fills the epoch milliseconds date of the Recordings with a formatted date. Dates that can not be parsed are set
+     * to the epoch so the Recordings are still listed.
+     *
+     * @param connection the connection to the database
+     * @throws SQLException if the dates could not be read or updated
+     */
+    private static void convertFormattedRecordingDates(Connection connection) throws SQLException {
+        var formatter = DateTimeFormatter.ofPattern(LEGACY_DATE_TIME_PATTERN);
+        try (
+                Statement selectStatement = connection.createStatement();
+                ResultSet resultSet = selectStatement.executeQuery("SELECT recording_id, recording_timestamp FROM RECORDINGS "
+                        + "WHERE recording_date_millis IS NULL;");
+                PreparedStatement updateStatement = connection.prepareStatement("UPDATE RECORDINGS SET recording_date_millis = (?) "
+                        + "WHERE recording_id = (?);")
+        ) {
+            while (resultSet.next()) {
+                String formattedDate = resultSet.getString(2);
+                long epochMillis = 0;
+                try {
+                    epochMillis = DataUtils.toEpochMillis(LocalDateTime.parse(formattedDate, formatter));
+                } catch (DateTimeParseException | NullPointerException e) {
+                    logger.log(Level.WARN, "Could not parse date '{}' of Recording {}", formattedDate, resultSet.getInt(1));
+                }
+                updateStatement.setLong(1, epochMillis);
+                updateStatement.setInt(2, resultSet.getInt(1));
+                updateStatement.addBatch();
+            }
+            updateStatement.executeBatch();
+        }
+    }
+
+    /**
+     * Fills the checksum of the stored payloads without one
+     *
+     * @param connection the connection to the database
+     * @throws SQLException if the payloads could not be read or updated
+     */
+    private static void computePayloadsChecksums(Connection connection) throws SQLException {
+        try (
+                Statement selectStatement = connection.createStatement();
+                ResultSet resultSet = selectStatement.executeQuery("SELECT payload_hash, payload FROM EVENT_PAYLOADS "
+                        + "WHERE payload_checksum IS NULL;");
+                PreparedStatement updateStatement = connection.prepareStatement("UPDATE EVENT_PAYLOADS SET payload_checksum = (?) "
+                        + "WHERE payload_hash = (?);")
+        ) {
+            while (resultSet.next()) {
+                updateStatement.setLong(1, EventPayloadStore.checksum(resultSet.getBytes(2)));
+                updateStatement.setString(2, resultSet.getString(1));
+                updateStatement.addBatch();
+            }
+            updateStatement.executeBatch();
+        }
+    }
+
+    private static void executeUpdate(Connection connection, String... sentences) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sentence : sentences) {
+                statement.executeUpdate(sentence);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+}
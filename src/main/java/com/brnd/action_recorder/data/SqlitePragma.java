@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data;
+
+/**
+ * SQLite pragmas applied to each database connection when it is opened. The value of each pragma can be overridden
+ * with the system property named by {@link #getPropertyName()}, e.g.
+ * {@code -Daction_recorder.sqlite.synchronous=FULL}.
+ */
+public enum SqlitePragma {
+    /*
+     * Write ahead logging lets the read connection query the database while a write transaction is in progress
+     */
+    JOURNAL_MODE("journal_mode", "WAL"),
+    /*
+     * In WAL mode NORMAL only syncs at checkpoints, a power loss may roll back the last commits but never corrupts
+     * the database
+     */
+    SYNCHRONOUS("synchronous", "NORMAL"),
+    /*
+     * Negative values are KiB instead of pages
+     */
+    CACHE_SIZE("cache_size", "-16000"),
+    MMAP_SIZE("mmap_size", "268435456"),
+    TEMP_STORE("temp_store", "MEMORY"),
+    /*
+     * Milliseconds a connection waits for a lock held by the other connection before failing with SQLITE_BUSY
+     */
+    BUSY_TIMEOUT("busy_timeout", "5000");
+
+    private static final String PROPERTY_PREFIX = "action_recorder.sqlite.";
+
+    private final String pragmaName;
+    private final String defaultValue;
+
+    SqlitePragma(String pragmaName, String defaultValue) {
+        this.pragmaName = pragmaName;
+        this.defaultValue = defaultValue;
+    }
+
+    public String getPragmaName() {
+        return pragmaName;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Obtains the name of the system property that overrides the pragma value
+     *
+     * @return the system property name
+     */
+    public String getPropertyName() {
+        return PROPERTY_PREFIX + pragmaName;
+    }
+
+    /**
+     * Obtains the configured value of the pragma, only letters, digits and signs are accepted so the value can be
+     * safely concatenated to the pragma sentence
+     *
+     * @return the system property value if it is set and valid, the default value otherwise
+     */
+    public String getValue() {
+        String configuredValue = System.getProperty(this.getPropertyName());
+        if (configuredValue == null || !configuredValue.matches("[A-Za-z0-9+-]+")) {
+            return defaultValue;
+        }
+        return configuredValue;
+    }
+
+    /**
+     * Builds the sentence that sets the configured value of the pragma
+     *
+     * @return the pragma sentence
+     */
+    public String getPragmaSentence() {
+        return String.format("PRAGMA %s = %s;", pragmaName, this.getValue());
+    }
+}
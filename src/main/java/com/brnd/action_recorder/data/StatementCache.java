@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Least recently used cache of the {@link PreparedStatement} instances of a {@link Connection}, keyed by their SQL
+ * sentence, so the constant sentences of the repositories are parsed by SQLite only once.
+ * <p>
+ * The statements returned by {@link #prepareStatement(String)} are used as regular statements, closing them returns
+ * the underlying statement to the cache instead of closing it. A statement is never shared while in use, if the same
+ * sentence is prepared again before the first statement is closed a new statement is created, and only one of them
+ * is kept in the cache when both are closed.
+ */
+public final class StatementCache {
+
+    private static final Logger logger = LogManager.getLogger(StatementCache.class);
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final Map<Connection, StatementCache> connectionsCaches = new WeakHashMap<>();
+
+    private final Connection connection;
+    /*
+     * Statements are removed while in use and inserted again when closed, so the insertion order is the usage order
+     */
+    private final LinkedHashMap<String, PreparedStatement> idleStatements = new LinkedHashMap<>();
+    private int capacity = DEFAULT_CAPACITY;
+    private long hitCount;
+    private long missCount;
+
+    private StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Obtains the statement cache of the given connection, creating it on the first call
+     *
+     * @param connection the connection whose statements are cached
+     * @return the statement cache of the connection
+     */
+    public static StatementCache of(Connection connection) {
+        synchronized (connectionsCaches) {
+            return connectionsCaches.computeIfAbsent(connection, StatementCache::new);
+        }
+    }
+
+    /**
+     * Obtains a statement for the given SQL sentence, reusing a cached statement if there is an idle one
+     *
+     * @param sql the SQL sentence
+     * @return a statement whose close method returns it to the cache
+     * @throws SQLException if a new statement could not be prepared
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = idleStatements.remove(sql);
+            if (statement != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatementHandler(sql, statement)
+        );
+    }
+
+    /**
+     * Returns a statement no longer in use to the cache, closing it if there is already an idle statement for its
+     * sentence or the cache is disabled. The least recently used statement is closed if the cache exceeds its
+     * capacity.
+     *
+     * @param sql       the SQL sentence of the statement
+     * @param statement the statement
+     * @throws SQLException if the statement could not be reset or closed
+     */
+    private void release(String sql, PreparedStatement statement) throws SQLException {
+        if (statement.isClosed()) {
+            return;
+        }
+        statement.clearParameters();
+        boolean cached = false;
+        PreparedStatement evictedStatement = null;
+        synchronized (this) {
+            if (capacity > 0 && !idleStatements.containsKey(sql)) {
+                idleStatements.put(sql, statement);
+                cached = true;
+                if (idleStatements.size() > capacity) {
+                    evictedStatement = this.removeEldest();
+                }
+            }
+        }
+        if (!cached) {
+            statement.close();
+        }
+        if (evictedStatement != null) {
+            evictedStatement.close();
+        }
+    }
+
+    private PreparedStatement removeEldest() {
+        Iterator<PreparedStatement> iterator = idleStatements.values().iterator();
+        PreparedStatement eldestStatement = iterator.next();
+        iterator.remove();
+        return eldestStatement;
+    }
+
+    /**
+     * Changes the maximum number of idle statements kept by the cache, closing the least recently used statements
+     * that exceed it. A capacity of 0 disables the cache.
+     *
+     * @param capacity the new capacity
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Statement cache capacity can not be negative: " + capacity);
+        }
+        var evictedStatements = new ArrayList<PreparedStatement>();
+        synchronized (this) {
+            this.capacity = capacity;
+            while (idleStatements.size() > capacity) {
+                evictedStatements.add(this.removeEldest());
+            }
+        }
+        for (PreparedStatement evictedStatement : evictedStatements) {
+            try {
+                evictedStatement.close();
+            } catch (SQLException e) {
+                logger.log(Level.ERROR, "Could not close evicted statement. Exception message: {}", e.getMessage());
+            }
+        }
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return idleStatements.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Delegates the calls of a statement returned by the cache to the underlying statement, except for close which
+     * closes the last result set and releases the statement to the cache
+     */
+    private final class CachedStatementHandler implements InvocationHandler {
+
+        private final String sql;
+        private final PreparedStatement statement;
+        private ResultSet lastResultSet;
+        private boolean closed;
+
+        private CachedStatementHandler(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (lastResultSet != null && !lastResultSet.isClosed()) {
+                            lastResultSet.close(); // an open result set keeps the statement read transaction open
+                        }
+                        release(sql, statement);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "CachedStatement{" + sql + "}";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("The statement was already returned to the cache");
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet resultSet) {
+                    lastResultSet = resultSet;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.KeyboardAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseButtonAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ScrollAction;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The groups in which the input events of a Recording are stored, each group contains a single event type so it
+ * can be read and decoded without touching the other ones.
+ *
+ * @see #MOTION
+ * @see #BUTTONS
+ * @see #WHEEL
+ * @see #KEYS
+ */
+public enum EventPartition {
+    /**
+     * Mouse movements
+     */
+    MOTION(MouseMotionAction.class),
+    /**
+     * Mouse button presses and releases
+     */
+    BUTTONS(MouseButtonAction.class),
+    /**
+     * Mouse wheel scrolls
+     */
+    WHEEL(ScrollAction.class),
+    /**
+     * Keyboard key presses and releases
+     */
+    KEYS(KeyboardAction.class);
+
+    private final Class<? extends ReplayableAction> actionClass;
+
+    EventPartition(Class<? extends ReplayableAction> actionClass) {
+        this.actionClass = actionClass;
+    }
+
+    /**
+     * Obtains the partition where the given action is stored
+     *
+     * @param action the action
+     * @return the EventPartition of the action
+     * @throws IllegalArgumentException if the action type does not belong to any partition
+     */
+    public static EventPartition of(ReplayableAction action) throws IllegalArgumentException {
+        for (EventPartition partition : values()) {
+            if (partition.actionClass.isInstance(action)) {
+                return partition;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported ReplayableAction type: " + action);
+    }
+
+    /**
+     * Splits the given events by partition keeping their order
+     *
+     * @param inputEvents the events to split, ordered by execution time
+     * @return a map containing a (possibly empty) list of events for every partition
+     */
+    public static Map<EventPartition, LinkedList<ReplayableAction>> split(Collection<? extends ReplayableAction> inputEvents) {
+        var partitions = new EnumMap<EventPartition, LinkedList<ReplayableAction>>(EventPartition.class);
+        for (EventPartition partition : values()) {
+            partitions.put(partition, new LinkedList<>());
+        }
+        for (ReplayableAction inputEvent : inputEvents) {
+            partitions.get(of(inputEvent)).add(inputEvent);
+        }
+        return partitions;
+    }
+
+    /**
+     * Merges the events of the given partitions in a single list ordered by execution time (k-way merge). Events
+     * with the same execution time are ordered by partition declaration order, so a mouse movement is replayed before
+     * a click happening at the same time.
+     *
+     * @param partitions the events of each partition, every partition ordered by execution time
+     * @return a list containing all the events ordered by execution time
+     */
+    public static LinkedList<ReplayableAction> merge(Map<EventPartition, ? extends Collection<ReplayableAction>> partitions) {
+        var mergedEvents = new LinkedList<ReplayableAction>();
+        var heads = new PriorityQueue<PartitionHead>(Math.max(1, partitions.size()));
+        partitions.forEach((partition, events) -> {
+            var iterator = events.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new PartitionHead(partition, iterator.next(), iterator));
+            }
+        });
+        while (!heads.isEmpty()) {
+            var head = heads.poll();
+            mergedEvents.add(head.action);
+            if (head.remaining.hasNext()) {
+                heads.add(new PartitionHead(head.partition, head.remaining.next(), head.remaining));
+            }
+        }
+        return mergedEvents;
+    }
+
+    /**
+     * Next pending event of a partition during a merge
+     */
+    private record PartitionHead(EventPartition partition, ReplayableAction action,
+                                 Iterator<ReplayableAction> remaining) implements Comparable<PartitionHead> {
+        @Override
+        public int compareTo(PartitionHead other) {
+            int timeComparison = Long.compare(action.getRelativeExecutionTime(), other.action.getRelativeExecutionTime());
+            return timeComparison != 0 ? timeComparison : partition.compareTo(other.partition);
+        }
+    }
+}
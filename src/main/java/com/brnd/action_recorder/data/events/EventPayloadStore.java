@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import com.brnd.action_recorder.data.DatabaseTable;
+import com.brnd.action_recorder.data.StatementCache;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.zip.CRC32C;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Stores encoded input events payloads by content. Each payload is keyed by the SHA-256 hash of its uncompressed
+ * bytes, so identical payloads are stored once and shared by every recording containing them. Payloads keep a count
+ * of the references to them and are deleted when the last one is released.
+ * <p>
+ * Methods throw {@link SQLException} so callers can run them inside their own transactions.
+ */
+public class EventPayloadStore {
+    private static final Logger logger = LogManager.getLogger(EventPayloadStore.class);
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String PAYLOAD_HASH_FIELD = "payload_hash";
+    private static final String PAYLOAD_CODEC_FIELD = "payload_codec";
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final String PAYLOAD_CHECKSUM_FIELD = "payload_checksum";
+    private static final String REFERENCE_COUNT_FIELD = "reference_count";
+
+    private static final String ADD_REFERENCE_SENTENCE
+            = String.format("UPDATE %s SET %s = %s + 1 WHERE %s = (?) RETURNING length(%s), %s;",
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            REFERENCE_COUNT_FIELD,
+            REFERENCE_COUNT_FIELD,
+            PAYLOAD_HASH_FIELD,
+            PAYLOAD_FIELD,
+            PAYLOAD_CHECKSUM_FIELD
+    );
+    private static final String INSERT_PAYLOAD_SENTENCE
+            = String.format("INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (?, ?, ?, ?, 1);",
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            PAYLOAD_HASH_FIELD,
+            PAYLOAD_CODEC_FIELD,
+            PAYLOAD_FIELD,
+            PAYLOAD_CHECKSUM_FIELD,
+            REFERENCE_COUNT_FIELD
+    );
+    private static final String SELECT_PAYLOAD_SENTENCE
+            = String.format("SELECT %s, %s FROM %s WHERE %s = (?);",
+            PAYLOAD_CODEC_FIELD,
+            PAYLOAD_FIELD,
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            PAYLOAD_HASH_FIELD
+    );
+    /*
+     * The payload itself is not read, only its length
+     */
+    private static final String SELECT_STORED_PAYLOAD_SENTENCE
+            = String.format("SELECT length(%s), %s FROM %s WHERE %s = (?);",
+            PAYLOAD_FIELD,
+            PAYLOAD_CHECKSUM_FIELD,
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            PAYLOAD_HASH_FIELD
+    );
+    private static final String RELEASE_REFERENCE_SENTENCE
+            = String.format("UPDATE %s SET %s = %s - 1 WHERE %s = (?);",
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            REFERENCE_COUNT_FIELD,
+            REFERENCE_COUNT_FIELD,
+            PAYLOAD_HASH_FIELD
+    );
+    private static final String DELETE_UNREFERENCED_SENTENCE
+            = String.format("DELETE FROM %s WHERE %s = (?) AND %s <= 0;",
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            PAYLOAD_HASH_FIELD,
+            REFERENCE_COUNT_FIELD
+    );
+
+    private final StatementCache statements;
+
+    /**
+     * What is stored for a payload, used to verify it without reading it
+     *
+     * @param size     the stored size in bytes of the payload
+     * @param checksum the CRC32C of the stored payload, see {@link #checksum(byte[])}
+     */
+    public record StoredPayload(long size, long checksum) {
+    }
+
+    public EventPayloadStore(Connection connection) {
+        this.statements = StatementCache.of(connection);
+    }
+
+    /**
+     * Computes the key of the given payload
+     *
+     * @param encodedPayload the uncompressed encoded input events
+     * @return the hex encoded SHA-256 hash of the payload
+     */
+    public static String hash(byte[] encodedPayload) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(HASH_ALGORITHM).digest(encodedPayload));
+        } catch (NoSuchAlgorithmException e) { // every Java platform is required to support SHA-256
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Computes the checksum of the given bytes, much cheaper than {@link #hash(byte[])} so it can be verified on each
+     * save
+     *
+     * @param bytes the bytes to check
+     * @return the CRC32C of the bytes
+     */
+    public static long checksum(byte[] bytes) {
+        var crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /**
+     * Adds a reference to the given payload, storing it compressed with the given codec if it isn't stored yet. The
+     * payload is only compressed when it isn't already stored.
+     *
+     * @param hash           the payload hash, see {@link #hash(byte[])}
+     * @param encodedPayload the uncompressed encoded input events
+     * @param codec          the codec used to compress the payload if it needs to be stored
+     * @return the stored size and checksum of the payload
+     * @throws SQLException if the payload could not be stored
+     */
+    public StoredPayload acquire(String hash, byte[] encodedPayload, PayloadCodec codec) throws SQLException {
+        try (PreparedStatement preparedStatement = statements.prepareStatement(ADD_REFERENCE_SENTENCE)) {
+            preparedStatement.setString(1, hash);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    logger.log(Level.ALL, "Payload {} already stored, reference added", hash);
+                    return new StoredPayload(resultSet.getLong(1), resultSet.getLong(2));
+                }
+            }
+        }
+
+        byte[] compressedPayload = codec.compress(encodedPayload);
+        long compressedChecksum = checksum(compressedPayload);
+        try (PreparedStatement preparedStatement = statements.prepareStatement(INSERT_PAYLOAD_SENTENCE)) {
+            preparedStatement.setString(1, hash);
+            preparedStatement.setInt(2, codec.getId());
+            preparedStatement.setBytes(3, compressedPayload);
+            preparedStatement.setLong(4, compressedChecksum);
+            preparedStatement.executeUpdate();
+        }
+        logger.log(Level.ALL, "Payload {} stored with {} codec: {} bytes", hash, codec, compressedPayload.length);
+        return new StoredPayload(compressedPayload.length, compressedChecksum);
+    }
+
+    /**
+     * Loads the given payload, verifying its content matches its hash
+     *
+     * @param hash the payload hash
+     * @return the uncompressed encoded input events
+     * @throws SQLException if the payload could not be retrieved
+     * @throws IOException  if the payload is missing, could not be decompressed or doesn't match its hash
+     */
+    public byte[] load(String hash) throws SQLException, IOException {
+        try (PreparedStatement preparedStatement = statements.prepareStatement(SELECT_PAYLOAD_SENTENCE)) {
+            preparedStatement.setString(1, hash);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new StreamCorruptedException("Missing input events payload " + hash);
+                }
+                var codec = StandardPayloadCodec.fromId(resultSet.getInt(PAYLOAD_CODEC_FIELD));
+                byte[] encodedPayload = codec.decompress(resultSet.getBytes(PAYLOAD_FIELD));
+                if (!hash.equals(hash(encodedPayload))) {
+                    throw new StreamCorruptedException("Input events payload " + hash + " doesn't match its hash");
+                }
+                return encodedPayload;
+            }
+        }
+    }
+
+    /**
+     * Obtains the stored size and checksum of the given payload without reading it. Comparing them with the ones
+     * returned by {@link #acquire(String, byte[], PayloadCodec)} detects missing, truncated or replaced payloads; the
+     * payload bytes are only verified against its hash when it is loaded.
+     *
+     * @param hash the payload hash
+     * @return the stored size and checksum of the payload
+     * @throws SQLException if the payload could not be retrieved
+     * @throws IOException  if the payload is missing
+     */
+    public StoredPayload obtainStoredPayload(String hash) throws SQLException, IOException {
+        try (PreparedStatement preparedStatement = statements.prepareStatement(SELECT_STORED_PAYLOAD_SENTENCE)) {
+            preparedStatement.setString(1, hash);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new StreamCorruptedException("Missing input events payload " + hash);
+                }
+                return new StoredPayload(resultSet.getLong(1), resultSet.getLong(2));
+            }
+        }
+    }
+
+    /**
+     * Removes a reference to the given payload, deleting the payload if it was the last one
+     *
+     * @param hash the payload hash
+     * @throws SQLException if the reference could not be removed
+     */
+    public void release(String hash) throws SQLException {
+        try (PreparedStatement preparedStatement = statements.prepareStatement(RELEASE_REFERENCE_SENTENCE)) {
+            preparedStatement.setString(1, hash);
+            preparedStatement.executeUpdate();
+        }
+        try (PreparedStatement preparedStatement = statements.prepareStatement(DELETE_UNREFERENCED_SENTENCE)) {
+            preparedStatement.setString(1, hash);
+            if (preparedStatement.executeUpdate() > 0) {
+                logger.log(Level.ALL, "Payload {} deleted, it has no references left", hash);
+            }
+        }
+    }
+}
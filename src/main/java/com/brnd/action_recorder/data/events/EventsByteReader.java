@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import java.io.EOFException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Reads values written by an {@link EventsByteWriter} from a byte array
+ */
+public final class EventsByteReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public EventsByteReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public EventsByteReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() throws EOFException {
+        if (position >= limit) {
+            throw new EOFException("Unexpected end of encoded events at position " + position);
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Reads an unsigned varint
+     *
+     * @return the read value
+     * @throws EOFException              if the buffer ends before the varint does
+     * @throws StreamCorruptedException if the varint is longer than 10 bytes
+     */
+    public long readVarLong() throws EOFException, StreamCorruptedException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int currentByte = readByte();
+            value |= (long) (currentByte & 0x7F) << shift;
+            if ((currentByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint at position " + position);
+    }
+
+    /**
+     * Reads a zig-zag mapped varint
+     *
+     * @return the read signed value
+     * @throws EOFException              if the buffer ends before the varint does
+     * @throws StreamCorruptedException if the varint is malformed
+     */
+    public long readSignedVarLong() throws EOFException, StreamCorruptedException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readVarInt() throws EOFException, StreamCorruptedException {
+        return (int) readVarLong();
+    }
+
+    public int readSignedVarInt() throws EOFException, StreamCorruptedException {
+        return (int) readSignedVarLong();
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public int position() {
+        return position;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer used to write encoded input events. Numbers are written as unsigned LEB128 variable length
+ * integers (varints), signed numbers are zig-zag mapped first so that small negative values also take few bytes.
+ */
+public final class EventsByteWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public EventsByteWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Ensures the buffer is able to hold the given number of extra bytes
+     *
+     * @param extraBytes the number of bytes about to be written
+     */
+    private void ensureCapacity(int extraBytes) {
+        int requiredCapacity = size + extraBytes;
+        if (requiredCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(requiredCapacity, buffer.length << 1));
+        }
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    /**
+     * Writes the given value as an unsigned varint, the value is interpreted as an unsigned 64 bits number
+     *
+     * @param value the value to write
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10); // a 64 bits varint takes at most 10 bytes
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes the given signed value zig-zag mapped as varint
+     *
+     * @param value the value to write
+     */
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Appends the written bytes to the given writer
+     *
+     * @param target the writer where the bytes will be appended
+     */
+    public void writeTo(EventsByteWriter target) {
+        target.ensureCapacity(size);
+        System.arraycopy(buffer, 0, target.buffer, target.size, size);
+        target.size += size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the written bytes into a new array
+     *
+     * @return an array containing exactly the written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
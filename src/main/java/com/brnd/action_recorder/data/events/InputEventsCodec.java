@@ -0,0 +1,797 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import com.brnd.action_recorder.data.DataUtils;
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.KeyboardAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseButtonAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ScrollAction;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Binary codec used to store Recordings input events.
+ * <p>
+ * Encoded payloads start with the {@link #MAGIC} bytes followed by the {@link Encoding} version. The rest of the
+ * payload depends on the encoding:
+ * <ul>
+ * <li>{@link Encoding#PLAIN}: the events count, then each event written as a one byte type tag, the varint delta
+ * between its execution time and the previous event one, and the event values packed as varints (coordinates, key
+ * codes, button ids, etc).</li>
+ * <li>{@link Encoding#DELTA_OF_DELTA}: the time quantum in nanoseconds and the events count. Event times are
+ * quantized and stored as the difference between consecutive time deltas, mouse coordinates are stored as zig-zag
+ * deltas from the previous mouse event and consecutive mouse motions are grouped in runs sharing a single tag.</li>
+ * <li>{@link Encoding#COLUMNAR}: same values as {@link Encoding#DELTA_OF_DELTA} but stored column by column (run
+ * length encoded tags, times, x coordinates, y coordinates and remaining values), each column prefixed by its length.
+ * Intended for the {@link EventPartition}s where all the events share the same type.</li>
+ * </ul>
+ * Payloads written with java serialization by previous versions of the program are still accepted by
+ * {@link #decode(byte[])}.
+ */
+public final class InputEventsCodec {
+
+    private static final Logger logger = LogManager.getLogger(InputEventsCodec.class);
+
+    /**
+     * Bytes identifying a payload written by this codec. Legacy payloads start with the java serialization stream
+     * magic number (0xACED) instead.
+     */
+    static final byte[] MAGIC = {'A', 'R', 'E', 'V'};
+    /**
+     * Encoding used when no other is specified
+     */
+    public static final Encoding DEFAULT_ENCODING = Encoding.DELTA_OF_DELTA;
+    /**
+     * Precision of the event times stored with the {@link Encoding#DELTA_OF_DELTA} encoding (1 microsecond), way
+     * finer than the scheduling precision achieved when replaying.
+     */
+    static final long DELTA_TIME_QUANTUM_NANOS = 1_000L;
+
+    static final int MOTION_TAG = 1;
+    static final int BUTTON_PRESS_TAG = 2;
+    static final int BUTTON_RELEASE_TAG = 3;
+    static final int SCROLL_TAG = 4;
+    static final int KEY_PRESS_TAG = 5;
+    static final int KEY_RELEASE_TAG = 6;
+
+    private static final int LEGACY_MAGIC_FIRST_BYTE = 0xAC;
+    private static final int LEGACY_MAGIC_SECOND_BYTE = 0xED;
+    private static final ScrollAction.ScrollDirection[] SCROLL_DIRECTIONS = ScrollAction.ScrollDirection.values();
+
+    private InputEventsCodec() { // To prevent class instantiation in utility classes
+        throw new UnsupportedOperationException("Utility class can not be instantiated");
+    }
+
+    /**
+     * Encodes the given input events using the {@link #DEFAULT_ENCODING}
+     *
+     * @param inputEvents the events to encode, ordered by execution time
+     * @return a byte array containing the encoded events
+     */
+    public static byte[] encode(Collection<? extends ReplayableAction> inputEvents) {
+        return encode(inputEvents, DEFAULT_ENCODING);
+    }
+
+    /**
+     * Encodes the given input events
+     *
+     * @param inputEvents the events to encode, ordered by execution time
+     * @param encoding    the encoding to use
+     * @return a byte array containing the encoded events
+     */
+    public static byte[] encode(Collection<? extends ReplayableAction> inputEvents, Encoding encoding) {
+        logger.log(Level.TRACE, "Encoding {} input events with {} encoding", inputEvents.size(), encoding);
+        // most of the events are mouse motions which take around 6 bytes plain encoded
+        var writer = new EventsByteWriter(MAGIC.length + 16 + inputEvents.size() * 6);
+        writer.writeBytes(MAGIC);
+        writer.writeByte(encoding.getVersion());
+        switch (encoding) {
+            case PLAIN -> writePlainEvents(writer, inputEvents);
+            case DELTA_OF_DELTA -> writeDeltaEvents(writer, inputEvents);
+            case COLUMNAR -> writeColumnarEvents(writer, inputEvents);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes the given events with the {@link Encoding#PLAIN} encoding
+     */
+    private static void writePlainEvents(EventsByteWriter writer, Collection<? extends ReplayableAction> inputEvents) {
+        writer.writeVarLong(inputEvents.size());
+        long previousTime = 0L;
+        for (ReplayableAction inputEvent : inputEvents) {
+            long eventTime = inputEvent.getRelativeExecutionTime();
+            writeAction(writer, inputEvent, eventTime - previousTime);
+            previousTime = eventTime;
+        }
+    }
+
+    /**
+     * Writes the given action tag, time delta and values with the {@link Encoding#PLAIN} encoding
+     *
+     * @param writer    the writer where the action will be written
+     * @param action    the action to write
+     * @param timeDelta the difference between the action execution time and the previous action one
+     */
+    private static void writeAction(EventsByteWriter writer, ReplayableAction action, long timeDelta) {
+        if (action instanceof MouseMotionAction motionAction) {
+            writer.writeByte(MOTION_TAG);
+            writer.writeSignedVarLong(timeDelta);
+            writer.writeSignedVarLong(motionAction.getMouseX());
+            writer.writeSignedVarLong(motionAction.getMouseY());
+        } else if (action instanceof MouseButtonAction buttonAction) {
+            writer.writeByte(buttonAction.isButtonPress() ? BUTTON_PRESS_TAG : BUTTON_RELEASE_TAG);
+            writer.writeSignedVarLong(timeDelta);
+            writer.writeSignedVarLong(buttonAction.getMouseX());
+            writer.writeSignedVarLong(buttonAction.getMouseY());
+            writer.writeSignedVarLong(buttonAction.getButtonId());
+        } else if (action instanceof ScrollAction scrollAction) {
+            writer.writeByte(SCROLL_TAG);
+            writer.writeSignedVarLong(timeDelta);
+            writer.writeSignedVarLong(scrollAction.getMouseX());
+            writer.writeSignedVarLong(scrollAction.getMouseY());
+            writer.writeByte(scrollAction.getScrollDirection().ordinal());
+            writer.writeSignedVarLong(scrollAction.getWheelScroll());
+        } else if (action instanceof KeyboardAction keyboardAction) {
+            writer.writeByte(keyboardAction.isKeyPress() ? KEY_PRESS_TAG : KEY_RELEASE_TAG);
+            writer.writeSignedVarLong(timeDelta);
+            writer.writeVarLong(keyboardAction.getNativeKeyCode());
+        } else {
+            throw new IllegalArgumentException("Unsupported ReplayableAction type: " + action);
+        }
+    }
+
+    /**
+     * Writes the given events with the {@link Encoding#DELTA_OF_DELTA} encoding
+     */
+    private static void writeDeltaEvents(EventsByteWriter writer, Collection<? extends ReplayableAction> inputEvents) {
+        writer.writeVarLong(DELTA_TIME_QUANTUM_NANOS);
+        writer.writeVarLong(inputEvents.size());
+        var state = new DeltaState();
+        var motionsRun = new ArrayList<MouseMotionAction>();
+        Iterator<? extends ReplayableAction> iterator = inputEvents.iterator();
+        ReplayableAction pendingAction = iterator.hasNext() ? iterator.next() : null;
+
+        while (pendingAction != null) {
+            if (pendingAction instanceof MouseMotionAction) {
+                // groups consecutive motions in a single run to avoid writing a tag for each one of them
+                motionsRun.clear();
+                while (pendingAction instanceof MouseMotionAction motionAction) {
+                    motionsRun.add(motionAction);
+                    pendingAction = iterator.hasNext() ? iterator.next() : null;
+                }
+                writer.writeByte(MOTION_TAG);
+                writer.writeVarLong(motionsRun.size());
+                for (MouseMotionAction motionAction : motionsRun) {
+                    state.writeTime(writer, motionAction.getRelativeExecutionTime());
+                    state.writePosition(writer, motionAction);
+                }
+                continue;
+            }
+
+            if (pendingAction instanceof MouseButtonAction buttonAction) {
+                writer.writeByte(buttonAction.isButtonPress() ? BUTTON_PRESS_TAG : BUTTON_RELEASE_TAG);
+                state.writeTime(writer, buttonAction.getRelativeExecutionTime());
+                state.writePosition(writer, buttonAction);
+                writer.writeSignedVarLong(buttonAction.getButtonId());
+            } else if (pendingAction instanceof ScrollAction scrollAction) {
+                writer.writeByte(SCROLL_TAG);
+                state.writeTime(writer, scrollAction.getRelativeExecutionTime());
+                state.writePosition(writer, scrollAction);
+                writer.writeByte(scrollAction.getScrollDirection().ordinal());
+                writer.writeSignedVarLong(scrollAction.getWheelScroll());
+            } else if (pendingAction instanceof KeyboardAction keyboardAction) {
+                writer.writeByte(keyboardAction.isKeyPress() ? KEY_PRESS_TAG : KEY_RELEASE_TAG);
+                state.writeTime(writer, keyboardAction.getRelativeExecutionTime());
+                writer.writeVarLong(keyboardAction.getNativeKeyCode());
+            } else {
+                throw new IllegalArgumentException("Unsupported ReplayableAction type: " + pendingAction);
+            }
+            pendingAction = iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+    /**
+     * Writes the given events with the {@link Encoding#COLUMNAR} encoding
+     */
+    private static void writeColumnarEvents(EventsByteWriter writer, Collection<? extends ReplayableAction> inputEvents) {
+        int eventsCount = inputEvents.size();
+        var tagsColumn = new EventsByteWriter(16);
+        var timesColumn = new EventsByteWriter(eventsCount * 2);
+        var xColumn = new EventsByteWriter(eventsCount);
+        var yColumn = new EventsByteWriter(eventsCount);
+        var valuesColumn = new EventsByteWriter(16);
+        var state = new DeltaState();
+        int runTag = -1;
+        long runLength = 0;
+
+        for (ReplayableAction inputEvent : inputEvents) {
+            int tag = tagOf(inputEvent);
+            if (tag != runTag) { // closes the current tags run
+                if (runLength > 0) {
+                    tagsColumn.writeByte(runTag);
+                    tagsColumn.writeVarLong(runLength);
+                }
+                runTag = tag;
+                runLength = 0;
+            }
+            runLength++;
+            state.writeTime(timesColumn, inputEvent.getRelativeExecutionTime());
+            if (inputEvent instanceof MouseAction mouseAction) {
+                state.writePosition(xColumn, yColumn, mouseAction);
+            }
+            if (inputEvent instanceof MouseButtonAction buttonAction) {
+                valuesColumn.writeSignedVarLong(buttonAction.getButtonId());
+            } else if (inputEvent instanceof ScrollAction scrollAction) {
+                valuesColumn.writeByte(scrollAction.getScrollDirection().ordinal());
+                valuesColumn.writeSignedVarLong(scrollAction.getWheelScroll());
+            } else if (inputEvent instanceof KeyboardAction keyboardAction) {
+                valuesColumn.writeVarLong(keyboardAction.getNativeKeyCode());
+            }
+        }
+        if (runLength > 0) {
+            tagsColumn.writeByte(runTag);
+            tagsColumn.writeVarLong(runLength);
+        }
+
+        writer.writeVarLong(DELTA_TIME_QUANTUM_NANOS);
+        writer.writeVarLong(eventsCount);
+        EventsByteWriter[] columns = {tagsColumn, timesColumn, xColumn, yColumn, valuesColumn};
+        for (EventsByteWriter column : columns) {
+            writer.writeVarLong(column.size());
+        }
+        for (EventsByteWriter column : columns) {
+            column.writeTo(writer);
+        }
+    }
+
+    /**
+     * Obtains the tag identifying the type of the given action
+     *
+     * @param action the action
+     * @return the action tag
+     * @throws IllegalArgumentException if the action type is not supported
+     */
+    private static int tagOf(ReplayableAction action) throws IllegalArgumentException {
+        if (action instanceof MouseMotionAction) {
+            return MOTION_TAG;
+        } else if (action instanceof MouseButtonAction buttonAction) {
+            return buttonAction.isButtonPress() ? BUTTON_PRESS_TAG : BUTTON_RELEASE_TAG;
+        } else if (action instanceof ScrollAction) {
+            return SCROLL_TAG;
+        } else if (action instanceof KeyboardAction keyboardAction) {
+            return keyboardAction.isKeyPress() ? KEY_PRESS_TAG : KEY_RELEASE_TAG;
+        }
+        throw new IllegalArgumentException("Unsupported ReplayableAction type: " + action);
+    }
+
+    /**
+     * Decodes the given payload into a list of input events. The payload can be either encoded by this codec or
+     * a legacy java serialized {@link LinkedList}.
+     *
+     * @param payload the stored input events
+     * @return a LinkedList containing the decoded input events, an empty list if the payload is null
+     * @throws IOException            if the payload is corrupted or uses an unsupported format version
+     * @throws ClassNotFoundException if a class of a legacy payload could not be found
+     */
+    @SuppressWarnings("unchecked")
+    public static LinkedList<ReplayableAction> decode(byte[] payload) throws IOException, ClassNotFoundException {
+        if (payload == null) {
+            return new LinkedList<>();
+        }
+        if (isLegacyPayload(payload)) {
+            logger.log(Level.TRACE, "Decoding legacy serialized input events");
+            return DataUtils.objectFromBytes(payload, LinkedList.class);
+        }
+
+        var reader = new EventsByteReader(payload);
+        var encoding = readEncoding(reader);
+        logger.log(Level.TRACE, "Decoding input events with {} encoding", encoding);
+        return switch (encoding) {
+            case PLAIN -> readPlainEvents(reader);
+            case DELTA_OF_DELTA -> readDeltaEvents(reader);
+            case COLUMNAR -> readColumnarEvents(reader, payload);
+        };
+    }
+
+    /**
+     * Decodes the given payload passing the fields of each event to the consumer, without creating its
+     * {@link ReplayableAction}
+     *
+     * @param payload  the input events encoded by this codec
+     * @param consumer the consumer of the events fields, called in execution time order
+     * @throws IOException if the payload is corrupted, uses an unsupported format version or is a legacy serialized
+     *                     payload
+     */
+    public static void decode(byte[] payload, DecodedEventConsumer consumer) throws IOException {
+        if (isLegacyPayload(payload)) {
+            throw new StreamCorruptedException("Legacy serialized input events can only be decoded into actions");
+        }
+        var reader = new EventsByteReader(payload);
+        var encoding = readEncoding(reader);
+        logger.log(Level.TRACE, "Decoding input events fields with {} encoding", encoding);
+        switch (encoding) {
+            case PLAIN -> visitPlainEvents(reader, consumer);
+            case DELTA_OF_DELTA -> visitDeltaEvents(reader, consumer);
+            case COLUMNAR -> visitColumnarEvents(reader, payload, consumer);
+        }
+    }
+
+    /**
+     * Reads the {@link #MAGIC} bytes and the format version of a payload
+     *
+     * @param reader the reader positioned at the start of the payload
+     * @return the payload Encoding
+     * @throws IOException if the payload is not encoded by this codec or uses an unsupported format version
+     */
+    private static Encoding readEncoding(EventsByteReader reader) throws IOException {
+        for (byte magicByte : MAGIC) {
+            if (reader.readByte() != (magicByte & 0xFF)) {
+                throw new StreamCorruptedException("Payload is not an encoded input events payload");
+            }
+        }
+        return Encoding.fromVersion(reader.readByte());
+    }
+
+    /**
+     * Reads events written with the {@link Encoding#PLAIN} encoding
+     */
+    private static LinkedList<ReplayableAction> readPlainEvents(EventsByteReader reader) throws IOException {
+        long eventsCount = reader.readVarLong();
+        var inputEvents = new LinkedList<ReplayableAction>();
+        long eventTime = 0L;
+        for (long i = 0; i < eventsCount; i++) {
+            int tag = reader.readByte();
+            eventTime += reader.readSignedVarLong();
+            inputEvents.add(readAction(reader, tag, eventTime));
+        }
+        return inputEvents;
+    }
+
+    /**
+     * Reads the values of an action with the given tag written with the {@link Encoding#PLAIN} encoding
+     *
+     * @param reader    the reader positioned after the action time delta
+     * @param tag       the tag of the action to read
+     * @param eventTime the already decoded execution time of the action
+     * @return the read action
+     * @throws IOException if the action could not be read
+     */
+    private static ReplayableAction readAction(EventsByteReader reader, int tag, long eventTime) throws IOException {
+        return switch (tag) {
+            case MOTION_TAG -> new MouseMotionAction(reader.readSignedVarInt(), reader.readSignedVarInt(), eventTime);
+            case BUTTON_PRESS_TAG, BUTTON_RELEASE_TAG -> {
+                int mouseX = reader.readSignedVarInt();
+                int mouseY = reader.readSignedVarInt();
+                yield new MouseButtonAction(reader.readSignedVarInt(), tag == BUTTON_PRESS_TAG, mouseX, mouseY, eventTime);
+            }
+            case SCROLL_TAG -> {
+                int mouseX = reader.readSignedVarInt();
+                int mouseY = reader.readSignedVarInt();
+                yield new ScrollAction(readScrollDirection(reader), reader.readSignedVarInt(), mouseX, mouseY, eventTime);
+            }
+            case KEY_PRESS_TAG, KEY_RELEASE_TAG -> new KeyboardAction(reader.readVarInt(), tag == KEY_PRESS_TAG, eventTime);
+            default -> throw new StreamCorruptedException("Unknown input event tag " + tag + " at position " + reader.position());
+        };
+    }
+
+    /**
+     * Reads events written with the {@link Encoding#DELTA_OF_DELTA} encoding
+     */
+    private static LinkedList<ReplayableAction> readDeltaEvents(EventsByteReader reader) throws IOException {
+        long timeQuantum = reader.readVarLong();
+        if (timeQuantum <= 0) {
+            throw new StreamCorruptedException("Invalid input events time quantum: " + timeQuantum);
+        }
+        var state = new DeltaState(timeQuantum);
+        long eventsCount = reader.readVarLong();
+        var inputEvents = new LinkedList<ReplayableAction>();
+
+        while (inputEvents.size() < eventsCount) {
+            int tag = reader.readByte();
+            switch (tag) {
+                case MOTION_TAG -> {
+                    long runLength = reader.readVarLong();
+                    for (long i = 0; i < runLength; i++) {
+                        long eventTime = state.readTime(reader);
+                        state.readPosition(reader);
+                        inputEvents.add(new MouseMotionAction(state.mouseX, state.mouseY, eventTime));
+                    }
+                }
+                case BUTTON_PRESS_TAG, BUTTON_RELEASE_TAG -> {
+                    long eventTime = state.readTime(reader);
+                    state.readPosition(reader);
+                    int buttonId = reader.readSignedVarInt();
+                    inputEvents.add(new MouseButtonAction(buttonId, tag == BUTTON_PRESS_TAG, state.mouseX, state.mouseY, eventTime));
+                }
+                case SCROLL_TAG -> {
+                    long eventTime = state.readTime(reader);
+                    state.readPosition(reader);
+                    var scrollDirection = readScrollDirection(reader);
+                    int wheelScroll = reader.readSignedVarInt();
+                    inputEvents.add(new ScrollAction(scrollDirection, wheelScroll, state.mouseX, state.mouseY, eventTime));
+                }
+                case KEY_PRESS_TAG, KEY_RELEASE_TAG -> {
+                    long eventTime = state.readTime(reader);
+                    inputEvents.add(new KeyboardAction(reader.readVarInt(), tag == KEY_PRESS_TAG, eventTime));
+                }
+                default -> throw new StreamCorruptedException("Unknown input event tag " + tag + " at position " + reader.position());
+            }
+        }
+        return inputEvents;
+    }
+
+    /**
+     * Reads events written with the {@link Encoding#COLUMNAR} encoding
+     *
+     * @param reader  the reader positioned after the format version
+     * @param payload the whole payload, used to read each column independently
+     */
+    private static LinkedList<ReplayableAction> readColumnarEvents(EventsByteReader reader, byte[] payload) throws IOException {
+        long timeQuantum = reader.readVarLong();
+        if (timeQuantum <= 0) {
+            throw new StreamCorruptedException("Invalid input events time quantum: " + timeQuantum);
+        }
+        var state = new DeltaState(timeQuantum);
+        long eventsCount = reader.readVarLong();
+
+        var columns = new EventsByteReader[5];
+        var columnLengths = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnLengths[i] = reader.readVarInt();
+        }
+        int columnOffset = reader.position();
+        for (int i = 0; i < columns.length; i++) {
+            if (columnLengths[i] < 0 || columnLengths[i] > payload.length - columnOffset) {
+                throw new StreamCorruptedException("Input events column " + i + " exceeds the payload length");
+            }
+            columns[i] = new EventsByteReader(payload, columnOffset, columnLengths[i]);
+            columnOffset += columnLengths[i];
+        }
+        var tagsColumn = columns[0];
+        var timesColumn = columns[1];
+        var xColumn = columns[2];
+        var yColumn = columns[3];
+        var valuesColumn = columns[4];
+
+        var inputEvents = new LinkedList<ReplayableAction>();
+        while (inputEvents.size() < eventsCount) {
+            int tag = tagsColumn.readByte();
+            long runLength = tagsColumn.readVarLong();
+            for (long i = 0; i < runLength; i++) {
+                long eventTime = state.readTime(timesColumn);
+                inputEvents.add(switch (tag) {
+                    case MOTION_TAG -> {
+                        state.readPosition(xColumn, yColumn);
+                        yield new MouseMotionAction(state.mouseX, state.mouseY, eventTime);
+                    }
+                    case BUTTON_PRESS_TAG, BUTTON_RELEASE_TAG -> {
+                        state.readPosition(xColumn, yColumn);
+                        yield new MouseButtonAction(valuesColumn.readSignedVarInt(), tag == BUTTON_PRESS_TAG, state.mouseX, state.mouseY, eventTime);
+                    }
+                    case SCROLL_TAG -> {
+                        state.readPosition(xColumn, yColumn);
+                        var scrollDirection = readScrollDirection(valuesColumn);
+                        yield new ScrollAction(scrollDirection, valuesColumn.readSignedVarInt(), state.mouseX, state.mouseY, eventTime);
+                    }
+                    case KEY_PRESS_TAG, KEY_RELEASE_TAG -> new KeyboardAction(valuesColumn.readVarInt(), tag == KEY_PRESS_TAG, eventTime);
+                    default -> throw new StreamCorruptedException("Unknown input event tag " + tag);
+                });
+            }
+        }
+        return inputEvents;
+    }
+
+    /**
+     * Visits events written with the {@link Encoding#PLAIN} encoding
+     */
+    private static void visitPlainEvents(EventsByteReader reader, DecodedEventConsumer consumer) throws IOException {
+        long eventsCount = reader.readVarLong();
+        long eventTime = 0L;
+        for (long i = 0; i < eventsCount; i++) {
+            int tag = reader.readByte();
+            var type = typeOf(tag);
+            eventTime += reader.readSignedVarLong();
+            int mouseX = 0;
+            int mouseY = 0;
+            if (tag != KEY_PRESS_TAG && tag != KEY_RELEASE_TAG) {
+                mouseX = reader.readSignedVarInt();
+                mouseY = reader.readSignedVarInt();
+            }
+            skipValues(reader, tag);
+            consumer.accept(type, eventTime, mouseX, mouseY);
+        }
+    }
+
+    /**
+     * Visits events written with the {@link Encoding#DELTA_OF_DELTA} encoding
+     */
+    private static void visitDeltaEvents(EventsByteReader reader, DecodedEventConsumer consumer) throws IOException {
+        long timeQuantum = reader.readVarLong();
+        if (timeQuantum <= 0) {
+            throw new StreamCorruptedException("Invalid input events time quantum: " + timeQuantum);
+        }
+        var state = new DeltaState(timeQuantum);
+        long eventsCount = reader.readVarLong();
+        long visitedEvents = 0;
+
+        while (visitedEvents < eventsCount) {
+            int tag = reader.readByte();
+            var type = typeOf(tag);
+            long runLength = (tag == MOTION_TAG) ? reader.readVarLong() : 1;
+            for (long i = 0; i < runLength; i++) {
+                long eventTime = state.readTime(reader);
+                if (tag == KEY_PRESS_TAG || tag == KEY_RELEASE_TAG) {
+                    skipValues(reader, tag);
+                    consumer.accept(type, eventTime, 0, 0);
+                    continue;
+                }
+                state.readPosition(reader);
+                skipValues(reader, tag);
+                consumer.accept(type, eventTime, state.mouseX, state.mouseY);
+            }
+            visitedEvents += runLength;
+        }
+    }
+
+    /**
+     * Visits events written with the {@link Encoding#COLUMNAR} encoding
+     *
+     * @param reader   the reader positioned after the format version
+     * @param payload  the whole payload, used to read each column independently
+     * @param consumer the consumer of the events fields
+     */
+    private static void visitColumnarEvents(EventsByteReader reader, byte[] payload, DecodedEventConsumer consumer) throws IOException {
+        long timeQuantum = reader.readVarLong();
+        if (timeQuantum <= 0) {
+            throw new StreamCorruptedException("Invalid input events time quantum: " + timeQuantum);
+        }
+        var state = new DeltaState(timeQuantum);
+        long eventsCount = reader.readVarLong();
+
+        var columns = new EventsByteReader[5];
+        var columnLengths = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnLengths[i] = reader.readVarInt();
+        }
+        int columnOffset = reader.position();
+        for (int i = 0; i < columns.length; i++) {
+            if (columnLengths[i] < 0 || columnLengths[i] > payload.length - columnOffset) {
+                throw new StreamCorruptedException("Input events column " + i + " exceeds the payload length");
+            }
+            columns[i] = new EventsByteReader(payload, columnOffset, columnLengths[i]);
+            columnOffset += columnLengths[i];
+        }
+        var tagsColumn = columns[0];
+        var timesColumn = columns[1];
+        var xColumn = columns[2];
+        var yColumn = columns[3];
+        var valuesColumn = columns[4];
+
+        long visitedEvents = 0;
+        while (visitedEvents < eventsCount) {
+            int tag = tagsColumn.readByte();
+            long runLength = tagsColumn.readVarLong();
+            var type = typeOf(tag);
+            boolean mouseEvent = tag != KEY_PRESS_TAG && tag != KEY_RELEASE_TAG;
+            for (long i = 0; i < runLength; i++) {
+                long eventTime = state.readTime(timesColumn);
+                if (mouseEvent) {
+                    state.readPosition(xColumn, yColumn);
+                }
+                skipValues(valuesColumn, tag);
+                consumer.accept(type, eventTime, mouseEvent ? state.mouseX : 0, mouseEvent ? state.mouseY : 0);
+            }
+            visitedEvents += runLength;
+        }
+    }
+
+    /**
+     * Skips the values written after the coordinates of an action with the given tag
+     *
+     * @param reader the reader positioned at the action values
+     * @param tag    the tag of the action
+     * @throws IOException if the values could not be read
+     */
+    private static void skipValues(EventsByteReader reader, int tag) throws IOException {
+        switch (tag) {
+            case MOTION_TAG -> {
+            }
+            case BUTTON_PRESS_TAG, BUTTON_RELEASE_TAG -> reader.readSignedVarInt();
+            case SCROLL_TAG -> {
+                readScrollDirection(reader);
+                reader.readSignedVarInt();
+            }
+            case KEY_PRESS_TAG, KEY_RELEASE_TAG -> reader.readVarInt();
+            default -> throw new StreamCorruptedException("Unknown input event tag " + tag + " at position " + reader.position());
+        }
+    }
+
+    /**
+     * Obtains the CapturedEventType of the events with the given tag
+     *
+     * @param tag the tag of an event
+     * @return the event type
+     * @throws StreamCorruptedException if the tag is unknown
+     */
+    private static CapturedEventType typeOf(int tag) throws StreamCorruptedException {
+        return switch (tag) {
+            case MOTION_TAG -> CapturedEventType.MOUSE_MOTION;
+            case BUTTON_PRESS_TAG -> CapturedEventType.MOUSE_PRESS;
+            case BUTTON_RELEASE_TAG -> CapturedEventType.MOUSE_RELEASE;
+            case SCROLL_TAG -> CapturedEventType.SCROLL;
+            case KEY_PRESS_TAG -> CapturedEventType.KEY_PRESS;
+            case KEY_RELEASE_TAG -> CapturedEventType.KEY_RELEASE;
+            default -> throw new StreamCorruptedException("Unknown input event tag " + tag);
+        };
+    }
+
+    private static ScrollAction.ScrollDirection readScrollDirection(EventsByteReader reader) throws IOException {
+        int directionOrdinal = reader.readByte();
+        if (directionOrdinal >= SCROLL_DIRECTIONS.length) {
+            throw new StreamCorruptedException("Unknown scroll direction " + directionOrdinal);
+        }
+        return SCROLL_DIRECTIONS[directionOrdinal];
+    }
+
+    /**
+     * Whether the given payload was written with java serialization by previous versions of the program
+     *
+     * @param payload the stored input events
+     * @return true if the payload is a legacy serialized object
+     */
+    public static boolean isLegacyPayload(byte[] payload) {
+        return payload.length >= 2
+                && (payload[0] & 0xFF) == LEGACY_MAGIC_FIRST_BYTE
+                && (payload[1] & 0xFF) == LEGACY_MAGIC_SECOND_BYTE;
+    }
+
+    /**
+     * Receives the fields of each event decoded by {@link #decode(byte[], DecodedEventConsumer)}
+     */
+    @FunctionalInterface
+    public interface DecodedEventConsumer {
+        /**
+         * @param type the event type
+         * @param time the event execution time relative to the recording start
+         * @param x    the x coordinate of the event, 0 for keyboard events
+         * @param y    the y coordinate of the event, 0 for keyboard events
+         */
+        void accept(CapturedEventType type, long time, int x, int y);
+    }
+
+    /**
+     * Values of the previously written or read event, needed to compute the deltas of the
+     * {@link Encoding#DELTA_OF_DELTA} encoding
+     */
+    private static final class DeltaState {
+        private final long timeQuantum;
+        private long previousTime = 0L;
+        private long previousTimeDelta = 0L;
+        private int mouseX = 0;
+        private int mouseY = 0;
+
+        private DeltaState() {
+            this(DELTA_TIME_QUANTUM_NANOS);
+        }
+
+        private DeltaState(long timeQuantum) {
+            this.timeQuantum = timeQuantum;
+        }
+
+        /**
+         * Writes the given time as the difference between its delta and the previous delta
+         */
+        private void writeTime(EventsByteWriter writer, long eventTime) {
+            long quantizedTime = Math.floorDiv(eventTime, timeQuantum);
+            long timeDelta = quantizedTime - previousTime;
+            writer.writeSignedVarLong(timeDelta - previousTimeDelta);
+            previousTimeDelta = timeDelta;
+            previousTime = quantizedTime;
+        }
+
+        private long readTime(EventsByteReader reader) throws IOException {
+            previousTimeDelta += reader.readSignedVarLong();
+            previousTime += previousTimeDelta;
+            return previousTime * timeQuantum;
+        }
+
+        /**
+         * Writes the given action coordinates as the difference from the previous mouse event ones
+         */
+        private void writePosition(EventsByteWriter writer, MouseAction mouseAction) {
+            writePosition(writer, writer, mouseAction);
+        }
+
+        private void writePosition(EventsByteWriter xWriter, EventsByteWriter yWriter, MouseAction mouseAction) {
+            xWriter.writeSignedVarLong(mouseAction.getMouseX() - mouseX);
+            yWriter.writeSignedVarLong(mouseAction.getMouseY() - mouseY);
+            mouseX = mouseAction.getMouseX();
+            mouseY = mouseAction.getMouseY();
+        }
+
+        private void readPosition(EventsByteReader reader) throws IOException {
+            readPosition(reader, reader);
+        }
+
+        private void readPosition(EventsByteReader xReader, EventsByteReader yReader) throws IOException {
+            mouseX += xReader.readSignedVarInt();
+            mouseY += yReader.readSignedVarInt();
+        }
+    }
+
+    /**
+     * Available encodings of the input events payload, identified by the format version written after the
+     * {@link #MAGIC} bytes.
+     *
+     * @see #PLAIN
+     * @see #DELTA_OF_DELTA
+     * @see #COLUMNAR
+     */
+    public enum Encoding {
+        /**
+         * Time deltas and absolute values for each event
+         */
+        PLAIN(1),
+        /**
+         * Delta-of-delta quantized times, coordinates relative to the previous mouse event and run-length grouped
+         * mouse motions. Intended for mouse motion heavy recordings
+         */
+        DELTA_OF_DELTA(2),
+        /**
+         * {@link #DELTA_OF_DELTA} values stored column by column. Intended for payloads containing a single event type
+         */
+        COLUMNAR(3);
+
+        private final int version;
+
+        Encoding(int version) {
+            this.version = version;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Obtains the Encoding identified by the given format version
+         *
+         * @param version the format version read from a payload
+         * @return the corresponding Encoding
+         * @throws StreamCorruptedException if no Encoding has the given version
+         */
+        public static Encoding fromVersion(int version) throws StreamCorruptedException {
+            for (Encoding encoding : values()) {
+                if (encoding.version == version) {
+                    return encoding;
+                }
+            }
+            throw new StreamCorruptedException("Unsupported input events format version: " + version);
+        }
+    }
+}
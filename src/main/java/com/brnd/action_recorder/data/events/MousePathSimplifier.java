@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.recording.InputEventsBuffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Simplifies mouse trails with the Ramer–Douglas–Peucker algorithm measured in space and time. The trail between two
+ * non-motion events (clicks, scrolls and key strokes) is a segment whose first and last motions are always kept, so
+ * the mouse reaches the same position before every action. An interior motion is removed when the simplified path,
+ * moving at constant speed between the kept motions, is at that motion time within the position tolerance of it, and
+ * passes closest to it within the time tolerance of that time.
+ * <p>
+ * Motions are received in execution time order, one by one or decoded straight from an encoded payload with
+ * {@link #simplify(byte[], long[])}, and only the current segment is held. Segments longer than
+ * {@link #MAX_SEGMENT_EVENTS} are simplified in parts, so the working memory of the simplification doesn't grow with
+ * the trail length. The kept motions are appended to the output buffer, which does grow with them.
+ */
+public final class MousePathSimplifier {
+    /**
+     * The maximum number of motions simplified at once
+     */
+    public static final int MAX_SEGMENT_EVENTS = 4096;
+
+    private final InputEventsBuffer output;
+    private final double positionTolerance;
+    private final long timeTolerance;
+    private final long[] times = new long[MAX_SEGMENT_EVENTS];
+    private final int[] xs = new int[MAX_SEGMENT_EVENTS];
+    private final int[] ys = new int[MAX_SEGMENT_EVENTS];
+    private final boolean[] kept = new boolean[MAX_SEGMENT_EVENTS];
+    private final int[] pendingRanges = new int[2 * MAX_SEGMENT_EVENTS];
+    private int segmentSize;
+    private boolean firstMotionStored; // whether the first motion of the segment was already written to the output
+    private int motionEvents;
+    private int removedEvents;
+    private double maxPositionError;
+
+    /**
+     * Creates a new simplifier that appends the kept motions to the given buffer
+     *
+     * @param output             the buffer where the kept motions are appended, between the non-motion events
+     *                           appended by the caller after calling {@link #endSegment()}
+     * @param positionTolerance  the maximum distance in pixels between a removed motion and the simplified path
+     * @param timeToleranceNanos the maximum time difference in nanoseconds between a removed motion and the instant
+     *                           the simplified path passes closest to it
+     */
+    public MousePathSimplifier(InputEventsBuffer output, double positionTolerance, long timeToleranceNanos) {
+        if (positionTolerance < 0 || timeToleranceNanos < 0) {
+            throw new IllegalArgumentException("Tolerances must not be negative");
+        }
+        this.output = output;
+        this.positionTolerance = positionTolerance;
+        this.timeTolerance = timeToleranceNanos;
+    }
+
+    /**
+     * Adds a motion to the current segment
+     *
+     * @param time the motion time relative to the recording start
+     * @param x    the x coordinate of the motion
+     * @param y    the y coordinate of the motion
+     */
+    public void acceptMotion(long time, int x, int y) {
+        motionEvents++;
+        if (segmentSize == MAX_SEGMENT_EVENTS) {
+            // simplifies the full part and continues from its last motion, which is kept
+            simplifySegment();
+            times[0] = times[segmentSize - 1];
+            xs[0] = xs[segmentSize - 1];
+            ys[0] = ys[segmentSize - 1];
+            segmentSize = 1;
+            firstMotionStored = true;
+        }
+        times[segmentSize] = time;
+        xs[segmentSize] = x;
+        ys[segmentSize] = y;
+        segmentSize++;
+    }
+
+    /**
+     * Simplifies the current segment and appends its kept motions to the output, meant to be called before each
+     * non-motion event is appended to the output and after the last motion
+     */
+    public void endSegment() {
+        if (segmentSize > 0) {
+            simplifySegment();
+        }
+        segmentSize = 0;
+        firstMotionStored = false;
+    }
+
+    /**
+     * Simplifies the motions of the given payload, ending the current segment at each of its non-motion events and
+     * before the first motion that follows each of the given times. Ends the last segment.
+     *
+     * @param encodedEvents   the events encoded by {@link InputEventsCodec}
+     * @param segmentEndTimes the execution times in ascending order of the non-motion events stored apart, a motion at
+     *                        the same time as one of them belongs to the segment it ends
+     * @throws IOException if the payload could not be decoded
+     */
+    public void simplify(byte[] encodedEvents, long[] segmentEndTimes) throws IOException {
+        InputEventsCodec.decode(encodedEvents, new InputEventsCodec.DecodedEventConsumer() {
+            private int nextEndTime;
+
+            @Override
+            public void accept(CapturedEventType type, long time, int x, int y) {
+                if (type != CapturedEventType.MOUSE_MOTION) {
+                    endSegment();
+                    return;
+                }
+                if (nextEndTime < segmentEndTimes.length && segmentEndTimes[nextEndTime] < time) {
+                    endSegment();
+                    while (nextEndTime < segmentEndTimes.length && segmentEndTimes[nextEndTime] < time) {
+                        nextEndTime++;
+                    }
+                }
+                acceptMotion(time, x, y);
+            }
+        });
+        endSegment();
+    }
+
+    /**
+     * Marks the motions of the current segment to keep, appends them to the output and counts the removed ones
+     */
+    private void simplifySegment() {
+        int last = segmentSize - 1;
+        Arrays.fill(kept, 0, segmentSize, false);
+        kept[0] = true;
+        kept[last] = true;
+        int pending = 0;
+        pendingRanges[pending++] = 0;
+        pendingRanges[pending++] = last;
+        while (pending > 0) {
+            int end = pendingRanges[--pending];
+            int start = pendingRanges[--pending];
+            if (end - start < 2) {
+                continue;
+            }
+            int farthest = -1;
+            double farthestError = 1.0;
+            double rangePositionError = 0;
+            for (int i = start + 1; i < end; i++) {
+                double positionError = synchronizedDistance(start, end, i);
+                double error = Math.max(
+                        normalize(positionError, positionTolerance), normalize(timeError(start, end, i), timeTolerance));
+                if (error > farthestError) {
+                    farthestError = error;
+                    farthest = i;
+                }
+                rangePositionError = Math.max(rangePositionError, positionError);
+            }
+            if (farthest < 0) { // every interior motion is within the tolerances
+                maxPositionError = Math.max(maxPositionError, rangePositionError);
+                removedEvents += end - start - 1;
+            } else {
+                kept[farthest] = true;
+                pendingRanges[pending++] = start;
+                pendingRanges[pending++] = farthest;
+                pendingRanges[pending++] = farthest;
+                pendingRanges[pending++] = end;
+            }
+        }
+        for (int i = firstMotionStored ? 1 : 0; i < segmentSize; i++) {
+            if (kept[i]) {
+                output.append(CapturedEventType.MOUSE_MOTION, times[i], xs[i], ys[i], 0, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the distance between the given motion and the position at its time of a cursor moving at constant
+     * speed from the start motion to the end motion
+     */
+    private double synchronizedDistance(int start, int end, int motion) {
+        long duration = times[end] - times[start];
+        double fraction = (duration == 0) ? 0 : (times[motion] - times[start]) / (double) duration;
+        double expectedX = xs[start] + fraction * (xs[end] - xs[start]);
+        double expectedY = ys[start] + fraction * (ys[end] - ys[start]);
+        return Math.hypot(xs[motion] - expectedX, ys[motion] - expectedY);
+    }
+
+    /**
+     * Returns the difference between the given motion time and the time at which the cursor moving at constant speed
+     * from the start motion to the end motion passes closest to the motion position
+     */
+    private double timeError(int start, int end, int motion) {
+        double deltaX = xs[end] - (double) xs[start];
+        double deltaY = ys[end] - (double) ys[start];
+        double squaredLength = deltaX * deltaX + deltaY * deltaY;
+        if (squaredLength == 0) { // the cursor stays still, every instant is as close
+            return 0;
+        }
+        double projection = ((xs[motion] - xs[start]) * deltaX + (ys[motion] - ys[start]) * deltaY) / squaredLength;
+        double closestTime = times[start] + Math.max(0, Math.min(1, projection)) * (times[end] - times[start]);
+        return Math.abs(closestTime - times[motion]);
+    }
+
+    /**
+     * Returns the given error as a fraction of the tolerance, so errors above the tolerance are greater than 1
+     */
+    private static double normalize(double error, double tolerance) {
+        if (tolerance == 0) {
+            return (error == 0) ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return error / tolerance;
+    }
+
+    /**
+     * Returns the number of motions received
+     *
+     * @return the motion events count
+     */
+    public int getMotionEvents() {
+        return motionEvents;
+    }
+
+    /**
+     * Returns the number of motions removed from the simplified segments
+     *
+     * @return the removed events count
+     */
+    public int getRemovedEvents() {
+        return removedEvents;
+    }
+
+    /**
+     * Returns the largest distance between a removed motion and the simplified path at the motion time
+     *
+     * @return the maximum positional error in pixels
+     */
+    public double getMaxPositionError() {
+        return maxPositionError;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses encoded input events payloads. The id of the codec used for a payload is stored next
+ * to it, so the payload can be decompressed even if a different codec is used for new payloads.
+ *
+ * @see StandardPayloadCodec
+ */
+public interface PayloadCodec {
+
+    /**
+     * The identifier stored with the payloads compressed by this codec
+     *
+     * @return the codec id
+     */
+    int getId();
+
+    /**
+     * Compresses the given payload
+     *
+     * @param payload the encoded input events
+     * @return the compressed payload
+     */
+    byte[] compress(byte[] payload);
+
+    /**
+     * Restores a payload compressed by this codec
+     *
+     * @param compressedPayload the compressed payload
+     * @return the encoded input events
+     * @throws IOException if the compressed payload is corrupted
+     */
+    byte[] decompress(byte[] compressedPayload) throws IOException;
+}
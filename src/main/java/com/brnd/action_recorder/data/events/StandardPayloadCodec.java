@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The available {@link PayloadCodec}s. Ids are stored in the database, so they must never change
+ *
+ * @see #NONE
+ * @see #DEFLATE_FAST
+ * @see #DEFLATE_DEFAULT
+ * @see #DEFLATE_BEST
+ */
+public enum StandardPayloadCodec implements PayloadCodec {
+    /**
+     * Stores payloads as they are
+     */
+    NONE(0, Deflater.NO_COMPRESSION),
+    /**
+     * Deflate at the fastest level
+     */
+    DEFLATE_FAST(1, Deflater.BEST_SPEED),
+    /**
+     * Deflate at the zlib default level
+     */
+    DEFLATE_DEFAULT(2, Deflater.DEFAULT_COMPRESSION),
+    /**
+     * Deflate at the smallest output level
+     */
+    DEFLATE_BEST(3, Deflater.BEST_COMPRESSION);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private final int id;
+    private final int deflaterLevel;
+
+    StandardPayloadCodec(int id, int deflaterLevel) {
+        this.id = id;
+        this.deflaterLevel = deflaterLevel;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Obtains the codec identified by the given id
+     *
+     * @param id the codec id stored with a payload
+     * @return the corresponding codec
+     * @throws StreamCorruptedException if no codec has the given id
+     */
+    public static StandardPayloadCodec fromId(int id) throws StreamCorruptedException {
+        for (StandardPayloadCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new StreamCorruptedException("Unsupported payload codec id: " + id);
+    }
+
+    /**
+     * Compresses the given payload, the compressed payload starts with the original length so decompression can
+     * allocate the output at once
+     *
+     * @param payload the encoded input events
+     * @return the compressed payload
+     */
+    @Override
+    public byte[] compress(byte[] payload) {
+        if (this == NONE) {
+            return payload;
+        }
+        var writer = new EventsByteWriter(payload.length / 2 + 16);
+        writer.writeVarLong(payload.length);
+        var deflater = new Deflater(deflaterLevel);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            var buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int compressedLength = deflater.deflate(buffer);
+                writer.writeBytes(buffer, 0, compressedLength);
+            }
+        } finally {
+            deflater.end();
+        }
+        return writer.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressedPayload) throws IOException {
+        if (this == NONE) {
+            return compressedPayload;
+        }
+        var reader = new EventsByteReader(compressedPayload);
+        long payloadLength = reader.readVarLong();
+        if (payloadLength < 0 || payloadLength > Integer.MAX_VALUE - 8) {
+            throw new StreamCorruptedException("Invalid compressed payload length: " + payloadLength);
+        }
+        var payload = new byte[(int) payloadLength];
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(compressedPayload, reader.position(), compressedPayload.length - reader.position());
+            int inflatedLength = 0;
+            while (inflatedLength < payload.length && !inflater.finished()) {
+                int length = inflater.inflate(payload, inflatedLength, payload.length - inflatedLength);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflatedLength += length;
+            }
+            if (inflatedLength != payload.length) {
+                throw new StreamCorruptedException(
+                        "Compressed payload inflated to " + inflatedLength + " bytes, expected " + payload.length);
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("Malformed compressed payload: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.record.capturing;
+
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.recording.recording_start_view.CapturedEventsRingBuffer;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.github.kwhat.jnativehook.mouse.NativeMouseEvent;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class serves a quick way to compare the time spent on the hook callback thread when each mouse motion event is
+ * stored directly in the Recording events against publishing its fields in a {@link CapturedEventsRingBuffer} drained
+ * by a consumer thread
+ */
+public class CaptureCallbackBenchmark {
+    private static final Logger logger = LogManager.getLogger(CaptureCallbackBenchmark.class);
+    private static final int EVENTS = 200_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final int BUFFER_CAPACITY = 1 << 15;
+
+    public static void main(String[] args) throws InterruptedException {
+        var nativeEvents = new NativeMouseEvent[1024];
+        for (int i = 0; i < nativeEvents.length; i++) {
+            nativeEvents[i] = new NativeMouseEvent(NativeMouseEvent.NATIVE_MOUSE_MOVED, 0, i % 1920, i % 1080, 0);
+        }
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            directStore(nativeEvents);
+            ringBufferStore(nativeEvents);
+        }
+        long directTime = 0;
+        long ringBufferTime = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            directTime += directStore(nativeEvents);
+            ringBufferTime += ringBufferStore(nativeEvents);
+        }
+        logger.log(Level.INFO, String.format("%n%-14s %18s%n%-14s %18.1f%n%-14s %18.1f",
+                "store", "ns per callback",
+                "direct", directTime / (double) MEASURED_ITERATIONS / EVENTS,
+                "ring buffer", ringBufferTime / (double) MEASURED_ITERATIONS / EVENTS));
+        System.exit(0);
+    }
+
+    /**
+     * Stores the events the way the recorder did before using the capture buffer
+     *
+     * @param nativeEvents the events to store cyclically
+     * @return the nanoseconds spent by the callbacks
+     */
+    private static long directStore(NativeMouseEvent[] nativeEvents) {
+        Queue<ReplayableAction> inputEvents = new LinkedList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            var nativeEvent = nativeEvents[i & (nativeEvents.length - 1)];
+            inputEvents.add(new MouseMotionAction(nativeEvent, System.nanoTime() - start));
+            logger.log(Level.INFO, "Recorded : {}", nativeEvent);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Publishes the events fields in a ring buffer while a consumer thread stores them
+     *
+     * @param nativeEvents the events to publish cyclically
+     * @return the nanoseconds spent by the callbacks
+     */
+    private static long ringBufferStore(NativeMouseEvent[] nativeEvents) throws InterruptedException {
+        var ringBuffer = new CapturedEventsRingBuffer(BUFFER_CAPACITY);
+        Queue<ReplayableAction> inputEvents = new LinkedList<>();
+        var consumer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (ringBuffer.drain((type, time, x, y, code, flags) ->
+                        inputEvents.add(new MouseMotionAction(x, y, time))) == 0) {
+                    LockSupport.parkNanos(1_000_000L);
+                }
+            }
+        });
+        consumer.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            var nativeEvent = nativeEvents[i & (nativeEvents.length - 1)];
+            ringBuffer.offer(CapturedEventType.MOUSE_MOTION, System.nanoTime() - start, nativeEvent.getX(),
+                    nativeEvent.getY(), nativeEvent.getButton(), (byte) 0);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        consumer.interrupt();
+        consumer.join();
+        logger.log(Level.INFO, "Ring buffer: {} published, {} dropped, peak occupancy {}/{}",
+                ringBuffer.getPublishedEvents(), ringBuffer.getDroppedEvents(), ringBuffer.getPeakOccupancy(),
+                ringBuffer.getCapacity());
+        return elapsed;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.record.capturing;
+
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.recording.recording_start_view.CapturedEventsRingBuffer;
+import com.brnd.action_recorder.views.recording.recording_start_view.EventDispatcherType;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.SwingUtilities;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class serves a quick way to compare the hook-to-store latency of each {@link EventDispatcherType}: a simulated
+ * hook thread posts mouse motion events at ~1000 Hz to the dispatcher, and the dispatched callback measures the time
+ * elapsed since the event was posted when it publishes the event in a {@link CapturedEventsRingBuffer}. The consumer
+ * thread only collects the measured latencies, so its polling interval is not part of them.
+ * Meanwhile, the AWT event dispatch thread executes short tasks, like the tray icon and other AWT work does
+ */
+public class DispatcherLatencyBenchmark {
+    private static final Logger logger = LogManager.getLogger(DispatcherLatencyBenchmark.class);
+    private static final int EVENTS = 5_000;
+    private static final int WARMUP_EVENTS = 1_000;
+    private static final long EVENTS_INTERVAL_NANOS = 1_000_000L;
+    private static final long AWT_TASKS_INTERVAL_MILLIS = 5L;
+    private static final long AWT_TASKS_DURATION_NANOS = 2_000_000L;
+
+    public static void main(String[] args) throws InterruptedException {
+        ScheduledExecutorService awtLoad = Executors.newSingleThreadScheduledExecutor();
+        awtLoad.scheduleAtFixedRate(() -> SwingUtilities.invokeLater(() -> {
+            long end = System.nanoTime() + AWT_TASKS_DURATION_NANOS;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }), 0, AWT_TASKS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        var results = new StringBuilder(String.format("%n%-18s %12s %12s %12s %12s%n",
+                "dispatcher", "p50 us", "p99 us", "p99.9 us", "max us"));
+        for (EventDispatcherType dispatcherType : EventDispatcherType.values()) {
+            measure(dispatcherType, WARMUP_EVENTS);
+            long[] latencies = measure(dispatcherType, EVENTS);
+            Arrays.sort(latencies);
+            results.append(String.format("%-18s %12.1f %12.1f %12.1f %12.1f%n", dispatcherType,
+                    percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                    latencies[latencies.length - 1] / 1e3));
+        }
+        logger.log(Level.INFO, "{}", results);
+        awtLoad.shutdownNow();
+        System.exit(0);
+    }
+
+    /**
+     * Posts the given number of events through a new dispatcher of the given type
+     *
+     * @param dispatcherType the dispatcher to measure
+     * @param events         the number of events to post
+     * @return the hook-to-store latency of each event in nanoseconds
+     */
+    private static long[] measure(EventDispatcherType dispatcherType, int events) throws InterruptedException {
+        ExecutorService dispatcher = dispatcherType.createExecutorService();
+        var ringBuffer = new CapturedEventsRingBuffer(1 << 15);
+        long[] latencies = new long[events];
+        int[] stored = {0};
+        var consumer = new Thread(() -> {
+            while (stored[0] < events) {
+                if (ringBuffer.drain((type, latency, x, y, code, flags) -> latencies[stored[0]++] = latency) == 0) {
+                    LockSupport.parkNanos(EVENTS_INTERVAL_NANOS / 10);
+                }
+            }
+        });
+        consumer.start();
+
+        for (int i = 0; i < events; i++) {
+            long postTime = System.nanoTime();
+            int x = i % 1920;
+            // the event time carries the latency, measured on the dispatcher thread when the event is stored
+            dispatcher.execute(() -> ringBuffer.offer(CapturedEventType.MOUSE_MOTION,
+                    System.nanoTime() - postTime, x, 0, 0, (byte) 0));
+            LockSupport.parkNanos(EVENTS_INTERVAL_NANOS);
+        }
+        consumer.join();
+        dispatcher.shutdown();
+        return latencies;
+    }
+
+    /**
+     * Returns the given percentile of the sorted latencies in microseconds
+     *
+     * @param sortedLatencies the latencies in nanoseconds, sorted ascending
+     * @param percentile      the percentile between 0 and 1
+     * @return the latency at the percentile in microseconds
+     */
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.min(sortedLatencies.length - 1L, Math.round(percentile * (sortedLatencies.length - 1)));
+        return sortedLatencies[index] / 1e3;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.record.capturing;
+
+import com.brnd.action_recorder.data.Database;
+import com.brnd.action_recorder.data.DatabaseExecutor;
+import com.brnd.action_recorder.data.events.MousePathSimplifier;
+import com.brnd.action_recorder.views.recording.RecordingSummary;
+import com.brnd.action_recorder.views.recording.recording_saving_view.RecordingsRepository;
+import java.sql.SQLException;
+import java.util.List;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class serves a quick way to simplify the mouse trails of every stored Recording with the
+ * {@link MousePathSimplifier}, one Recording at a time, reporting the removed events and the maximum positional error.
+ * The tolerances can be given as arguments: the position tolerance in pixels and the time tolerance in milliseconds.
+ */
+public class MousePathSimplificationRunner {
+    private static final Logger logger = LogManager.getLogger(MousePathSimplificationRunner.class);
+    private static final double DEFAULT_POSITION_TOLERANCE = 2.0;
+    private static final long DEFAULT_TIME_TOLERANCE_MILLIS = 20;
+    private static final int PAGE_SIZE = 50;
+    private static final long DATABASE_SHUTDOWN_TIMEOUT_MILLIS = 60_000;
+
+    public static void main(String[] args) throws SQLException {
+        double positionTolerance = (args.length > 0) ? Double.parseDouble(args[0]) : DEFAULT_POSITION_TOLERANCE;
+        long timeToleranceMillis = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_TIME_TOLERANCE_MILLIS;
+
+        Database.initializeDatabase();
+        var recordingsRepository = new RecordingsRepository();
+        int recordings = 0;
+        long motionEvents = 0;
+        long removedEvents = 0;
+        double maxPositionError = 0;
+        long start = System.nanoTime();
+        RecordingSummary lastSummary = null;
+        List<RecordingSummary> page;
+        do {
+            page = recordingsRepository.getRecordingSummariesPage(
+                    RecordingsRepository.SummariesOrder.OLDEST_FIRST, lastSummary, PAGE_SIZE);
+            for (RecordingSummary summary : page) {
+                var simplification = recordingsRepository.simplifyMousePaths(
+                        summary.getId(), positionTolerance, timeToleranceMillis * 1_000_000L);
+                if (simplification != null) {
+                    recordings++;
+                    motionEvents += simplification.motionEvents();
+                    removedEvents += simplification.removedEvents();
+                    maxPositionError = Math.max(maxPositionError, simplification.maxPositionError());
+                }
+                lastSummary = summary;
+            }
+        } while (!page.isEmpty());
+        DatabaseExecutor.shutdown(DATABASE_SHUTDOWN_TIMEOUT_MILLIS); // waits for the pending updates
+
+        logger.log(Level.INFO, String.format(
+                "%nMouse trails simplified with %.1f px and %d ms tolerances in %.2f s%n"
+                        + "%-24s %12d%n%-24s %12d%n%-24s %12d (%.1f%%)%n%-24s %12.2f px",
+                positionTolerance, timeToleranceMillis, (System.nanoTime() - start) / 1e9,
+                "recordings", recordings,
+                "motion events", motionEvents,
+                "removed events", removedEvents, motionEvents == 0 ? 0.0 : 100.0 * removedEvents / motionEvents,
+                "max position error", maxPositionError
+        ));
+        System.exit(0);
+    }
+}
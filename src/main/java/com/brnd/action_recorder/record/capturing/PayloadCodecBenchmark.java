@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.record.capturing;
+
+import com.brnd.action_recorder.data.Database;
+import com.brnd.action_recorder.data.events.EventPartition;
+import com.brnd.action_recorder.data.events.InputEventsCodec;
+import com.brnd.action_recorder.data.events.StandardPayloadCodec;
+import com.brnd.action_recorder.views.recording.RecordingSummary;
+import com.brnd.action_recorder.views.recording.recording_saving_view.RecordingsRepository;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.KeyboardAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseButtonAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ScrollAction;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class serves a quick way to compare the stored size against the compression and decompression time of each
+ * {@link StandardPayloadCodec}, using synthetic events and the Recordings stored in the database
+ */
+public class PayloadCodecBenchmark {
+    private static final Logger logger = LogManager.getLogger(PayloadCodecBenchmark.class);
+    private static final int SYNTHETIC_EVENTS = 200_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    public static void main(String[] args) throws SQLException, IOException {
+        var synthetic = new ArrayList<byte[]>();
+        for (var partitionEvents : EventPartition.split(syntheticEvents()).values()) {
+            if (!partitionEvents.isEmpty()) {
+                synthetic.add(InputEventsCodec.encode(partitionEvents, InputEventsCodec.Encoding.COLUMNAR));
+            }
+        }
+        benchmark("synthetic " + SYNTHETIC_EVENTS + " events", synthetic);
+
+        Database.initializeDatabase();
+        var recordingsRepository = new RecordingsRepository();
+        var stored = new ArrayList<byte[]>();
+        for (RecordingSummary summary : recordingsRepository.getRecordingSummaries()) {
+            var inputEvents = recordingsRepository.obtainInputEvents(summary.getId());
+            if (inputEvents == null) {
+                continue;
+            }
+            for (var partitionEvents : EventPartition.split(inputEvents).values()) {
+                if (!partitionEvents.isEmpty()) {
+                    stored.add(InputEventsCodec.encode(partitionEvents, InputEventsCodec.Encoding.COLUMNAR));
+                }
+            }
+        }
+        if (stored.isEmpty()) {
+            logger.log(Level.INFO, "No stored Recordings to benchmark");
+        } else {
+            benchmark("stored Recordings", stored);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Compresses and decompresses the given payloads with every codec, logging the sizes and average times
+     *
+     * @param description the description of the payloads
+     * @param payloads    the encoded partitions
+     * @throws IOException if a payload could not be decompressed
+     */
+    private static void benchmark(String description, List<byte[]> payloads) throws IOException {
+        long originalSize = payloads.stream().mapToLong(payload -> payload.length).sum();
+        var results = new StringBuilder(String.format("%n%s, %d encoded bytes%n", description, originalSize));
+        results.append(String.format("%-16s %12s %8s %14s %14s%n", "codec", "bytes", "ratio", "compress ms", "decompress ms"));
+
+        for (StandardPayloadCodec codec : StandardPayloadCodec.values()) {
+            var compressed = new ArrayList<byte[]>();
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                compressed.clear();
+                for (byte[] payload : payloads) {
+                    compressed.add(codec.compress(payload));
+                }
+                for (byte[] compressedPayload : compressed) {
+                    codec.decompress(compressedPayload);
+                }
+            }
+
+            long compressTime = 0;
+            long decompressTime = 0;
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                compressed.clear();
+                long start = System.nanoTime();
+                for (byte[] payload : payloads) {
+                    compressed.add(codec.compress(payload));
+                }
+                compressTime += System.nanoTime() - start;
+                start = System.nanoTime();
+                for (byte[] compressedPayload : compressed) {
+                    codec.decompress(compressedPayload);
+                }
+                decompressTime += System.nanoTime() - start;
+            }
+
+            long compressedSize = compressed.stream().mapToLong(payload -> payload.length).sum();
+            results.append(String.format("%-16s %12d %8.2f %14.3f %14.3f%n",
+                    codec, compressedSize, originalSize / (double) compressedSize,
+                    compressTime / 1e6 / MEASURED_ITERATIONS, decompressTime / 1e6 / MEASURED_ITERATIONS));
+        }
+        logger.log(Level.INFO, "{}", results);
+    }
+
+    /**
+     * Creates mouse motion heavy events with occasional clicks, scrolls and key strokes
+     *
+     * @return the events ordered by execution time
+     */
+    private static Queue<ReplayableAction> syntheticEvents() {
+        var random = new Random(8);
+        var events = new LinkedList<ReplayableAction>();
+        long time = 0;
+        int x = 960;
+        int y = 540;
+        for (int i = 0; i < SYNTHETIC_EVENTS; i++) {
+            time += 8_000_000 + random.nextInt(2_000_000); // ~120 Hz mouse polling
+            x = Math.max(0, Math.min(1919, x + random.nextInt(9) - 4));
+            y = Math.max(0, Math.min(1079, y + random.nextInt(7) - 3));
+            switch (i % 400) {
+                case 0 -> {
+                    events.add(new MouseButtonAction(1024, true, x, y, time));
+                    events.add(new MouseButtonAction(1024, false, x, y, time + 90_000_000));
+                }
+                case 200 -> events.add(new ScrollAction(ScrollAction.ScrollDirection.values()[0], 3, x, y, time));
+                case 300 -> {
+                    events.add(new KeyboardAction(30 + random.nextInt(20), true, time));
+                    events.add(new KeyboardAction(30 + random.nextInt(20), false, time + 70_000_000));
+                }
+                default -> events.add(new MouseMotionAction(x, y, time));
+            }
+        }
+        return events;
+    }
+}
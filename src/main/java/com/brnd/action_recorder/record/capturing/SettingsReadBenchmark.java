@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.record.capturing;
+
+import com.brnd.action_recorder.data.Database;
+import com.brnd.action_recorder.data.DatabaseLocation;
+import com.brnd.action_recorder.data.StatementCache;
+import com.brnd.action_recorder.views.settings_view.SettingsRepository;
+import java.sql.SQLException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class serves a quick way to measure the per call overhead of the settings reads made each time a view is
+ * opened, with the {@link StatementCache} disabled and enabled. A temporary database is used, so the results don't
+ * depend on the stored data.
+ */
+public class SettingsReadBenchmark {
+    private static final Logger logger = LogManager.getLogger(SettingsReadBenchmark.class);
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    public static void main(String[] args) throws SQLException {
+        Database.useLocation(DatabaseLocation.temporary());
+        Database.initializeDatabase();
+        var settingsRepository = new SettingsRepository();
+        var readStatements = StatementCache.of(Database.getSqliteReadConnection());
+
+        readStatements.setCapacity(0);
+        double uncachedNanos = measure(settingsRepository);
+        readStatements.setCapacity(StatementCache.DEFAULT_CAPACITY);
+        double cachedNanos = measure(settingsRepository);
+
+        logger.log(Level.INFO, String.format(
+                "%nSettings reads (initial stage location + show on top), %d calls%n"
+                        + "%-24s %10.2f us/call%n%-24s %10.2f us/call%n%-24s %10.2fx%n"
+                        + "statement cache hits: %d, misses: %d",
+                MEASURED_ITERATIONS,
+                "without statement cache", uncachedNanos / 1_000,
+                "with statement cache", cachedNanos / 1_000,
+                "speedup", uncachedNanos / cachedNanos,
+                readStatements.getHitCount(), readStatements.getMissCount()
+        ));
+        System.exit(0);
+    }
+
+    /**
+     * Measures the average time of reading the settings obtained on each view opening
+     *
+     * @param settingsRepository the repository used to read the settings
+     * @return the average nanoseconds per pair of reads
+     */
+    private static double measure(SettingsRepository settingsRepository) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            settingsRepository.obtainInitialStageLocation();
+            settingsRepository.obtainShowOnTopValue();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            settingsRepository.obtainInitialStageLocation();
+            settingsRepository.obtainShowOnTopValue();
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+    }
+}
@@ -16,6 +16,9 @@
  */
 package com.brnd.action_recorder.views.main_view;
 
+import com.brnd.action_recorder.data.DatabaseExecutor;
+import com.brnd.action_recorder.views.recording.recording_saving_view.InputEventsRewriter;
+import com.brnd.action_recorder.views.recording.recording_saving_view.RecordingsRepository;
 import com.brnd.action_recorder.views.settings_view.SettingsRepository;
 import com.brnd.action_recorder.views.utils.StageLocation;
 import com.brnd.action_recorder.views.utils.StagePositioner;
@@ -37,6 +40,8 @@ public class Main extends Application {
     
     public static final Logger logger = LogManager.getLogger(Main.class);
     public static final SettingsRepository settingsRepository = new SettingsRepository();
+    private static final InputEventsRewriter inputEventsRewriter = new InputEventsRewriter(new RecordingsRepository());
+    private static final long DATABASE_SHUTDOWN_TIMEOUT_MILLIS = 10_000;
 
     public static void main(String[] args) {
         launch();
@@ -62,5 +67,18 @@ public class Main extends Application {
         StageLocation initialStageLocation = settingsRepository.obtainInitialStageLocation();
         logger.log(Level.TRACE, "Setting view location to {}.", initialStageLocation);
         StagePositioner.setStageLocation( stage , initialStageLocation);
+
+        // moves the Recordings stored by previous versions to the current storage format
+        inputEventsRewriter.start();
+    }
+
+    /**
+     * Waits for the pending database writes before the application exits
+     */
+    @Override
+    public void stop() {
+        logger.log(Level.TRACE, "App finalization.");
+        inputEventsRewriter.stop();
+        DatabaseExecutor.shutdown(DATABASE_SHUTDOWN_TIMEOUT_MILLIS);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording;
+
+/**
+ * This enum contains the kinds of input events the recorder captures, each one is stored in the capture buffers as its
+ * byte id so the hook callbacks don't need to keep references to the NativeInputEvent objects
+ */
+public enum CapturedEventType {
+    MOUSE_MOTION,
+    MOUSE_PRESS,
+    MOUSE_RELEASE,
+    KEY_PRESS,
+    KEY_RELEASE,
+    SCROLL;
+
+    private static final CapturedEventType[] VALUES = values();
+
+    /**
+     * Returns the id used to store this type in the capture buffers
+     *
+     * @return the byte id of this type
+     */
+    public byte getId() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Returns the CapturedEventType with the given id
+     *
+     * @param id the byte id of the type
+     * @return the corresponding CapturedEventType
+     * @throws IllegalArgumentException if there is no type with the given id
+     */
+    public static CapturedEventType fromId(byte id) {
+        if (id < 0 || id >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown captured event type id: " + id);
+        }
+        return VALUES[id];
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording;
+
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.KeyboardAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseButtonAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ScrollAction;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Growable queue of input events stored as parallel primitive arrays, so each event takes 22 bytes and appending
+ * doesn't allocate objects besides the occasional arrays growth. The {@link ReplayableAction} of an event is only
+ * created when it is read, and it isn't retained by the buffer.
+ * <p>
+ * The meaning of the code of an event depends on its type: the Robot button mask for mouse presses and releases,
+ * the native key code for key presses and releases, and the wheel scroll amount for scrolls, whose flags contain the
+ * scroll direction ordinal
+ */
+public final class InputEventsBuffer extends AbstractQueue<ReplayableAction> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -1436291751418866123L;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final ScrollAction.ScrollDirection[] SCROLL_DIRECTIONS = ScrollAction.ScrollDirection.values();
+    private long[] times;
+    private int[] xs;
+    private int[] ys;
+    private int[] codes;
+    private byte[] types;
+    private byte[] flags;
+    private int head;
+    private int tail;
+    private transient int modificationsCount;
+
+    public InputEventsBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InputEventsBuffer(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.times = new long[capacity];
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.codes = new int[capacity];
+        this.types = new byte[capacity];
+        this.flags = new byte[capacity];
+    }
+
+    /**
+     * Ensures there is room for one more event at the tail, discarding the space of the polled events first
+     */
+    private void ensureCapacity() {
+        if (tail < times.length) {
+            return;
+        }
+        int size = size();
+        int capacity = Math.max(16, (size < times.length / 2) ? times.length : times.length << 1);
+        times = moveToStart(times, new long[capacity], size);
+        xs = moveToStart(xs, new int[capacity], size);
+        ys = moveToStart(ys, new int[capacity], size);
+        codes = moveToStart(codes, new int[capacity], size);
+        types = moveToStart(types, new byte[capacity], size);
+        flags = moveToStart(flags, new byte[capacity], size);
+        head = 0;
+        tail = size;
+    }
+
+    private <T> T moveToStart(T source, T target, int size) {
+        System.arraycopy(source, head, target, 0, size);
+        return target;
+    }
+
+    /**
+     * Appends an event to the tail of the buffer
+     *
+     * @param type       the type of the event
+     * @param time       the event time relative to the recording start in nanoseconds
+     * @param x          the x coordinate of the event, 0 for keyboard events
+     * @param y          the y coordinate of the event, 0 for keyboard events
+     * @param code       the button mask, native key code or scroll amount of the event
+     * @param eventFlags the scroll direction ordinal for scroll events, 0 otherwise
+     */
+    public void append(CapturedEventType type, long time, int x, int y, int code, byte eventFlags) {
+        ensureCapacity();
+        times[tail] = time;
+        xs[tail] = x;
+        ys[tail] = y;
+        codes[tail] = code;
+        types[tail] = type.getId();
+        flags[tail] = eventFlags;
+        tail++;
+        modificationsCount++;
+    }
+
+    /**
+     * Appends the fields of the given action to the tail of the buffer
+     *
+     * @param action the action to append
+     * @return always true
+     * @throws IllegalArgumentException if the action type can not be stored in the buffer
+     */
+    @Override
+    public boolean offer(ReplayableAction action) {
+        long time = action.getRelativeExecutionTime();
+        if (action instanceof MouseMotionAction motionAction) {
+            append(CapturedEventType.MOUSE_MOTION, time, motionAction.getMouseX(), motionAction.getMouseY(), 0, (byte) 0);
+        } else if (action instanceof MouseButtonAction buttonAction) {
+            append(buttonAction.isButtonPress() ? CapturedEventType.MOUSE_PRESS : CapturedEventType.MOUSE_RELEASE, time,
+                    buttonAction.getMouseX(), buttonAction.getMouseY(), buttonAction.getButtonId(), (byte) 0);
+        } else if (action instanceof ScrollAction scrollAction) {
+            append(CapturedEventType.SCROLL, time, scrollAction.getMouseX(), scrollAction.getMouseY(),
+                    scrollAction.getWheelScroll(), (byte) scrollAction.getScrollDirection().ordinal());
+        } else if (action instanceof KeyboardAction keyboardAction) {
+            append(keyboardAction.isKeyPress() ? CapturedEventType.KEY_PRESS : CapturedEventType.KEY_RELEASE, time,
+                    0, 0, keyboardAction.getNativeKeyCode(), (byte) 0);
+        } else {
+            throw new IllegalArgumentException("Unsupported action type: " + action.getClass());
+        }
+        return true;
+    }
+
+    /**
+     * Creates the ReplayableAction of the event at the given buffer position
+     *
+     * @param position the array position of the event
+     * @return a new ReplayableAction with the event fields
+     */
+    private ReplayableAction createAction(int position) {
+        long time = times[position];
+        int x = xs[position];
+        int y = ys[position];
+        int code = codes[position];
+        return switch (CapturedEventType.fromId(types[position])) {
+            case MOUSE_MOTION -> new MouseMotionAction(x, y, time);
+            case MOUSE_PRESS -> new MouseButtonAction(code, true, x, y, time);
+            case MOUSE_RELEASE -> new MouseButtonAction(code, false, x, y, time);
+            case KEY_PRESS -> new KeyboardAction(code, true, time);
+            case KEY_RELEASE -> new KeyboardAction(code, false, time);
+            case SCROLL -> new ScrollAction(SCROLL_DIRECTIONS[flags[position]], code, x, y, time);
+        };
+    }
+
+    private int position(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        return head + index;
+    }
+
+    /**
+     * Creates the ReplayableAction of the event at the given index
+     *
+     * @param index the index of the event, starting at the head of the buffer
+     * @return a new ReplayableAction with the event fields
+     */
+    public ReplayableAction get(int index) {
+        return createAction(position(index));
+    }
+
+    public CapturedEventType getType(int index) {
+        return CapturedEventType.fromId(types[position(index)]);
+    }
+
+    public long getTime(int index) {
+        return times[position(index)];
+    }
+
+    public int getX(int index) {
+        return xs[position(index)];
+    }
+
+    public int getY(int index) {
+        return ys[position(index)];
+    }
+
+    public int getCode(int index) {
+        return codes[position(index)];
+    }
+
+    public byte getFlags(int index) {
+        return flags[position(index)];
+    }
+
+    @Override
+    public ReplayableAction poll() {
+        if (head == tail) {
+            return null;
+        }
+        var action = createAction(head++);
+        modificationsCount++;
+        return action;
+    }
+
+    @Override
+    public ReplayableAction peek() {
+        return (head == tail) ? null : createAction(head);
+    }
+
+    @Override
+    public int size() {
+        return tail - head;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        tail = 0;
+        modificationsCount++;
+    }
+
+    /**
+     * Returns an iterator that creates the ReplayableAction of each event as it is reached
+     *
+     * @return an iterator over the buffer events from head to tail
+     */
+    @Override
+    public Iterator<ReplayableAction> iterator() {
+        return new Iterator<>() {
+            private final int expectedModificationsCount = modificationsCount;
+            private int position = head;
+
+            @Override
+            public boolean hasNext() {
+                return position < tail;
+            }
+
+            @Override
+            public ReplayableAction next() {
+                if (expectedModificationsCount != modificationsCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (position >= tail) {
+                    throw new NoSuchElementException();
+                }
+                return createAction(position++);
+            }
+        };
+    }
+
+    /**
+     * Releases the unused capacity of the arrays
+     */
+    public void trimToSize() {
+        int size = size();
+        times = Arrays.copyOfRange(times, head, tail);
+        xs = Arrays.copyOfRange(xs, head, tail);
+        ys = Arrays.copyOfRange(ys, head, tail);
+        codes = Arrays.copyOfRange(codes, head, tail);
+        types = Arrays.copyOfRange(types, head, tail);
+        flags = Arrays.copyOfRange(flags, head, tail);
+        head = 0;
+        tail = size;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording;
+
+import com.brnd.action_recorder.views.recording.recording_saving_view.RecordingsRepository;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+
+import java.io.Serial;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A Recording retrieved from the database whose input events are only fetched and decoded when they are accessed for
+ * the first time. The metadata of the Recording is available without loading its events, and the loaded events are
+ * kept so later accesses don't fetch them again.
+ */
+public class LazyRecording extends Recording {
+    private static final Logger logger = LogManager.getLogger(LazyRecording.class);
+    @Serial
+    private static final long serialVersionUID = -2916504857371402766L;
+    private final transient RecordingsRepository recordingsRepository;
+    private final int inputEventsCount;
+    private final RecordingStatistics statistics;
+    private transient Queue<ReplayableAction> loadedInputEvents;
+
+    /**
+     * Creates a LazyRecording from the given summary
+     *
+     * @param recordingSummary     the summary of the stored Recording
+     * @param recordingsRepository the repository used to fetch the input events
+     */
+    public LazyRecording(RecordingSummary recordingSummary, RecordingsRepository recordingsRepository) {
+        super(
+                recordingSummary.getId(),
+                null, // input events are loaded on demand
+                recordingSummary.getRecordingTitle(),
+                recordingSummary.getRecordingDescription(),
+                recordingSummary.getRecordingDuration(),
+                recordingSummary.getRecordingDateTime()
+        );
+        this.recordingsRepository = recordingsRepository;
+        this.inputEventsCount = recordingSummary.getEventsCount();
+        this.statistics = recordingSummary.getStatistics();
+        this.setMouseEvents(recordingSummary.isMouseEvents());
+        this.setKeyboardEvents(recordingSummary.isKeyboardEvents());
+        this.setScrollEvents(recordingSummary.isScrollEvents());
+        this.setClickEvents(recordingSummary.isClickEvents());
+    }
+
+    /**
+     * Obtains the Recording input events, fetching them from the database if they are not loaded
+     *
+     * @return the input events or an empty queue if they could not be fetched
+     */
+    @Override
+    public Queue<ReplayableAction> getInputEvents() {
+        Queue<ReplayableAction> inputEvents = this.loadInputEvents();
+        if (inputEvents == null) {
+            logger.log(Level.ERROR, "Could not load input events of Recording {}, returning empty events", this.getId());
+            return new LinkedList<>();
+        }
+        return inputEvents;
+    }
+
+    /**
+     * Loads the Recording input events if they are not loaded. Blocks while they are fetched and decoded, use
+     * {@link com.brnd.action_recorder.views.recording.recording_saving_view.AsyncRecordingsRepository#loadInputEvents(LazyRecording)}
+     * to load them from the JavaFX application thread.
+     *
+     * @return the input events or null if they could not be fetched
+     */
+    public synchronized Queue<ReplayableAction> loadInputEvents() {
+        if (loadedInputEvents == null) {
+            logger.log(Level.TRACE, "Loading input events of Recording {}", this.getId());
+            loadedInputEvents = recordingsRepository.obtainInputEvents(this.getId());
+        }
+        return loadedInputEvents;
+    }
+
+    /**
+     * The number of input events stored for the Recording, available without loading them
+     *
+     * @return the input events count
+     */
+    @Override
+    public int getInputEventsCount() {
+        return inputEventsCount;
+    }
+
+    /**
+     * The statistics of the stored input events, available without loading them
+     *
+     * @return the RecordingStatistics or null if they were not computed
+     */
+    public RecordingStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.logging.log4j.Logger;
 public class Recording implements Serializable {
     private static final Logger logger = LogManager.getLogger(Recording.class);
     public static final String DATE_TIME_FORMAT = "yyyy-MM-dd hh:mma"; // 2023-08-20 10:20pm PST
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
     @Serial
     private static final long serialVersionUID = 4265898901141738551L;
     private int id;
@@ -113,14 +114,18 @@ public class Recording implements Serializable {
      */
     public String interactionsString() {
         return
-                inputEvents.stream().map(
+                getInputEvents().stream().map(
                             event -> String.format("time: %d -> %s %n", event.getRelativeExecutionTime(), event)
                         ).collect(Collectors.joining());
     }
 
     public Recording() { // used to create new Recordings
+        this(new InputEventsBuffer());
+    }
+
+    public Recording(Queue<ReplayableAction> inputEvents) { // used to create new Recordings with the given events queue
         this.recordingStartTime = System.nanoTime();
-        this.inputEvents = new LinkedList<>();
+        this.inputEvents = inputEvents;
         this.recordingDateTime = LocalDateTime.now();
         logger.log(Level.INFO, "Recording started at {} s", this.recordingStartTime / 1_000_000_000.0f);
     }
@@ -148,7 +153,16 @@ public class Recording implements Serializable {
     }
 
     public void setInputEvents(Queue<ReplayableAction> inputEvents) {
-        this.inputEvents.addAll(inputEvents);
+        this.getInputEvents().addAll(inputEvents);
+    }
+
+    /**
+     * The number of input events of the Recording
+     *
+     * @return the input events count
+     */
+    public int getInputEventsCount() {
+        return inputEvents.size();
     }
 
 
@@ -197,8 +211,7 @@ public class Recording implements Serializable {
     }
 
     public String getRecordingDate() {
-        var dateTimeFormatter = DateTimeFormatter.ofPattern(Recording.DATE_TIME_FORMAT);
-        return this.recordingDateTime.format(dateTimeFormatter);
+        return this.recordingDateTime.format(DATE_TIME_FORMATTER);
     }
 
     @Override
@@ -232,7 +245,7 @@ public class Recording implements Serializable {
         sb.append(", recordingStartTime=").append(recordingStartTime);
         sb.append(", recordingStopTime=").append(recordingStopTime);
         sb.append(", recordingDuration=").append(recordingDuration);
-        sb.append(", inputEventsCount=").append(inputEvents.size());
+        sb.append(", inputEventsCount=").append(getInputEventsCount());
         sb.append('}');
         return sb.toString();
 
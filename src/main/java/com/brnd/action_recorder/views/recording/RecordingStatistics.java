@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording;
+
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.KeyboardAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseButtonAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ScrollAction;
+import java.io.Serializable;
+
+/**
+ * This record class stores statistics of the input events of a Recording, they are computed when the events are
+ * saved so they can be shown without loading the events. Serializable since it is kept by LazyRecording
+ * @param motionEventsCount the number of mouse motion events
+ * @param buttonEventsCount the number of mouse button presses and releases
+ * @param wheelEventsCount the number of mouse wheel events
+ * @param keyEventsCount the number of key presses and releases
+ * @param firstEventTime the relative execution time of the first event in nanoseconds
+ * @param lastEventTime the relative execution time of the last event in nanoseconds
+ * @param mouseMinX the minimum x coordinate of the mouse events
+ * @param mouseMinY the minimum y coordinate of the mouse events
+ * @param mouseMaxX the maximum x coordinate of the mouse events
+ * @param mouseMaxY the maximum y coordinate of the mouse events
+ * @param peakEventsPerSecond the maximum number of events executed within a single second of the Recording
+ * @param payloadSize the size in bytes of the stored encoded events
+ */
+public record RecordingStatistics(
+        int motionEventsCount,
+        int buttonEventsCount,
+        int wheelEventsCount,
+        int keyEventsCount,
+        long firstEventTime,
+        long lastEventTime,
+        int mouseMinX,
+        int mouseMinY,
+        int mouseMaxX,
+        int mouseMaxY,
+        int peakEventsPerSecond,
+        long payloadSize
+        ) implements Serializable {
+
+    private static final long NANOSECONDS_IN_ONE_SECOND = 1_000_000_000L;
+
+    /**
+     * The total number of events
+     * @return the sum of the events count of every type
+     */
+    public int eventsCount() {
+        return motionEventsCount + buttonEventsCount + wheelEventsCount + keyEventsCount;
+    }
+
+    /**
+     * Whether the Recording contains mouse events, otherwise the mouse bounding box is meaningless
+     * @return true if there is at least one mouse event
+     */
+    public boolean hasMouseEvents() {
+        return motionEventsCount + buttonEventsCount + wheelEventsCount > 0;
+    }
+
+    /**
+     * This class accumulates the statistics of the events given in execution time order
+     */
+    public static class Collector {
+        private int motionEventsCount;
+        private int buttonEventsCount;
+        private int wheelEventsCount;
+        private int keyEventsCount;
+        private long firstEventTime;
+        private long lastEventTime;
+        private int mouseMinX = Integer.MAX_VALUE;
+        private int mouseMinY = Integer.MAX_VALUE;
+        private int mouseMaxX = Integer.MIN_VALUE;
+        private int mouseMaxY = Integer.MIN_VALUE;
+        private int peakEventsPerSecond;
+        private long currentSecond = Long.MIN_VALUE;
+        private int currentSecondEvents;
+
+        /**
+         * Adds the given event to the statistics
+         * @param action the event, it must not be executed before the previously added ones
+         */
+        public void accept(ReplayableAction action) {
+            this.acceptExecutionTime(action.getRelativeExecutionTime());
+
+            if (action instanceof MouseMotionAction) {
+                motionEventsCount++;
+            } else if (action instanceof MouseButtonAction) {
+                buttonEventsCount++;
+            } else if (action instanceof ScrollAction) {
+                wheelEventsCount++;
+            } else if (action instanceof KeyboardAction) {
+                keyEventsCount++;
+            }
+            if (action instanceof MouseAction mouseAction) {
+                this.acceptMousePosition(mouseAction.getMouseX(), mouseAction.getMouseY());
+            }
+        }
+
+        /**
+         * Adds an event to the statistics from its fields, without its ReplayableAction
+         * @param type the event type
+         * @param executionTime the relative execution time of the event, not before the previously added ones
+         * @param mouseX the x coordinate of the event, ignored for keyboard events
+         * @param mouseY the y coordinate of the event, ignored for keyboard events
+         */
+        public void accept(CapturedEventType type, long executionTime, int mouseX, int mouseY) {
+            this.acceptExecutionTime(executionTime);
+
+            switch (type) {
+                case MOUSE_MOTION -> motionEventsCount++;
+                case MOUSE_PRESS, MOUSE_RELEASE -> buttonEventsCount++;
+                case SCROLL -> wheelEventsCount++;
+                case KEY_PRESS, KEY_RELEASE -> keyEventsCount++;
+            }
+            if (type != CapturedEventType.KEY_PRESS && type != CapturedEventType.KEY_RELEASE) {
+                this.acceptMousePosition(mouseX, mouseY);
+            }
+        }
+
+        private void acceptMousePosition(int mouseX, int mouseY) {
+            mouseMinX = Math.min(mouseMinX, mouseX);
+            mouseMinY = Math.min(mouseMinY, mouseY);
+            mouseMaxX = Math.max(mouseMaxX, mouseX);
+            mouseMaxY = Math.max(mouseMaxY, mouseY);
+        }
+
+        /**
+         * Updates the first, last and peak statistics with the execution time of an event, before it is counted
+         */
+        private void acceptExecutionTime(long executionTime) {
+            if (this.eventsCount() == 0) {
+                firstEventTime = executionTime;
+            }
+            lastEventTime = executionTime;
+
+            long second = Math.floorDiv(executionTime, NANOSECONDS_IN_ONE_SECOND);
+            if (second != currentSecond) {
+                currentSecond = second;
+                currentSecondEvents = 0;
+            }
+            peakEventsPerSecond = Math.max(peakEventsPerSecond, ++currentSecondEvents);
+        }
+
+        private int eventsCount() {
+            return motionEventsCount + buttonEventsCount + wheelEventsCount + keyEventsCount;
+        }
+
+        /**
+         * Creates the statistics of the added events
+         * @param payloadSize the size in bytes of the encoded events
+         * @return the RecordingStatistics
+         */
+        public RecordingStatistics toStatistics(long payloadSize) {
+            boolean hasMouseEvents = mouseMinX <= mouseMaxX;
+            return new RecordingStatistics(
+                    motionEventsCount, buttonEventsCount, wheelEventsCount, keyEventsCount,
+                    firstEventTime, lastEventTime,
+                    hasMouseEvents ? mouseMinX : 0, hasMouseEvents ? mouseMinY : 0,
+                    hasMouseEvents ? mouseMaxX : 0, hasMouseEvents ? mouseMaxY : 0,
+                    peakEventsPerSecond, payloadSize
+            );
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording;
+
+import com.brnd.action_recorder.data.DataUtils;
+import java.time.LocalDateTime;
+
+/**
+ * This class stores the Recording information needed to list stored Recordings, it doesn't hold the Recording input
+ * events so listing many Recordings stays lightweight
+ */
+public class RecordingSummary {
+    private final int id;
+    private final String recordingTitle;
+    private final String recordingDescription;
+    private final long recordingDateMillis;
+    private final LocalDateTime recordingDateTime;
+    private final float recordingDuration;
+    private final boolean mouseEvents;
+    private final boolean keyboardEvents;
+    private final boolean scrollEvents;
+    private final boolean clickEvents;
+    private final int eventsCount;
+    private final RecordingStatistics statistics;
+
+    public RecordingSummary(
+            int id, String recordingTitle, String recordingDescription, long recordingDateMillis,
+            float recordingDuration, boolean mouseEvents, boolean keyboardEvents, boolean scrollEvents,
+            boolean clickEvents, int eventsCount, RecordingStatistics statistics
+    ) {
+        this.id = id;
+        this.recordingTitle = recordingTitle;
+        this.recordingDescription = recordingDescription;
+        this.recordingDateMillis = recordingDateMillis;
+        this.recordingDateTime = DataUtils.fromEpochMillis(recordingDateMillis);
+        this.recordingDuration = recordingDuration;
+        this.mouseEvents = mouseEvents;
+        this.keyboardEvents = keyboardEvents;
+        this.scrollEvents = scrollEvents;
+        this.clickEvents = clickEvents;
+        this.eventsCount = eventsCount;
+        this.statistics = statistics;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getRecordingTitle() {
+        return recordingTitle;
+    }
+
+    public String getRecordingDescription() {
+        return recordingDescription;
+    }
+
+    /**
+     * The stored Recording date, unlike {@link #getRecordingDateTime()} it doesn't depend on the system time zone
+     * rules, so it identifies the Recording position when the summaries are sorted by date
+     *
+     * @return the Recording date in milliseconds since the epoch
+     */
+    public long getRecordingDateMillis() {
+        return recordingDateMillis;
+    }
+
+    public LocalDateTime getRecordingDateTime() {
+        return recordingDateTime;
+    }
+
+    public String getRecordingDate() {
+        return this.recordingDateTime.format(Recording.DATE_TIME_FORMATTER);
+    }
+
+    public float getRecordingDuration() {
+        return recordingDuration;
+    }
+
+    public boolean isMouseEvents() {
+        return mouseEvents;
+    }
+
+    public boolean isKeyboardEvents() {
+        return keyboardEvents;
+    }
+
+    public boolean isScrollEvents() {
+        return scrollEvents;
+    }
+
+    public boolean isClickEvents() {
+        return clickEvents;
+    }
+
+    public int getEventsCount() {
+        return eventsCount;
+    }
+
+    /**
+     * The statistics of the Recording input events
+     *
+     * @return the RecordingStatistics or null if they were not computed
+     */
+    public RecordingStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("RecordingSummary{");
+        sb.append("id=").append(id);
+        sb.append(", recordingTitle=").append(recordingTitle);
+        sb.append(", recordingDescription=").append(recordingDescription);
+        sb.append(", recordingDate=").append(recordingDateTime);
+        sb.append(", recordingDuration=").append(recordingDuration);
+        sb.append(", mouseEvents=").append(mouseEvents);
+        sb.append(", keyboardEvents=").append(keyboardEvents);
+        sb.append(", scrollEvents=").append(scrollEvents);
+        sb.append(", clickEvents=").append(clickEvents);
+        sb.append(", eventsCount=").append(eventsCount);
+        sb.append(", statistics=").append(statistics);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_saving_view;
+
+import com.brnd.action_recorder.data.DatabaseExecutor;
+import com.brnd.action_recorder.views.recording.LazyRecording;
+import com.brnd.action_recorder.views.recording.Recording;
+import com.brnd.action_recorder.views.recording.RecordingSummary;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over a {@link RecordingsRepository} to be used from the JavaFX controllers. Writes are executed
+ * on the database executor and reads on its reader thread, so the JavaFX application thread never waits for the
+ * database. Every returned future is completed on the JavaFX application thread, so the stages can be updated
+ * directly from its callbacks.
+ */
+public class AsyncRecordingsRepository {
+
+    private final RecordingsRepository recordingsRepository;
+
+    public AsyncRecordingsRepository() {
+        this(new RecordingsRepository());
+    }
+
+    public AsyncRecordingsRepository(RecordingsRepository recordingsRepository) {
+        this.recordingsRepository = recordingsRepository;
+    }
+
+    public RecordingsRepository getRecordingsRepository() {
+        return recordingsRepository;
+    }
+
+    /**
+     * Inserts the given Recording in the background
+     *
+     * @param recordingToInsert the Recording to insert
+     * @return a future completed with the id of the inserted Recording or 0 if it could not be inserted
+     */
+    public CompletableFuture<Integer> insertRecording(Recording recordingToInsert) {
+        return write(() -> recordingsRepository.insertRecording(recordingToInsert));
+    }
+
+    /**
+     * Inserts the given Recording in the background, also returning what was stored for its input events
+     *
+     * @param recordingToInsert the Recording to insert
+     * @return a future completed with the checksum of the stored input events, with a 0 Recording id if it could not
+     * be inserted
+     */
+    public CompletableFuture<RecordingsRepository.StoredEventsChecksum> insertRecordingWithChecksum(Recording recordingToInsert) {
+        return write(() -> recordingsRepository.insertRecordingWithChecksum(recordingToInsert));
+    }
+
+    /**
+     * Verifies the stored input events of a Recording in the background, without decoding them
+     *
+     * @param expected what was stored for the input events
+     * @return a future completed with true if the stored input events match
+     */
+    public CompletableFuture<Boolean> verifyStoredEvents(RecordingsRepository.StoredEventsChecksum expected) {
+        return read(() -> recordingsRepository.verifyStoredEvents(expected));
+    }
+
+    /**
+     * Deletes the given Recording in the background
+     *
+     * @param recordingId the id of the Recording
+     * @return a future completed with true if the Recording was deleted
+     */
+    public CompletableFuture<Boolean> deleteRecording(int recordingId) {
+        return write(() -> recordingsRepository.deleteRecording(recordingId));
+    }
+
+    /**
+     * Retrieves the whole Recording in the background
+     *
+     * @param recordingId the id of the Recording
+     * @return a future completed with the Recording or null if it could not be retrieved
+     */
+    public CompletableFuture<Recording> getRecordingById(int recordingId) {
+        return read(() -> recordingsRepository.getRecordingById(recordingId));
+    }
+
+    /**
+     * Loads the input events of the given LazyRecording in the background, they are kept by the LazyRecording
+     *
+     * @param recording the LazyRecording whose events are loaded
+     * @return a future completed with the input events or null if they could not be retrieved
+     */
+    public CompletableFuture<Queue<ReplayableAction>> loadInputEvents(LazyRecording recording) {
+        return read(recording::loadInputEvents);
+    }
+
+    /**
+     * Retrieves a page of Recording summaries in the background
+     *
+     * @see RecordingsRepository#getRecordingSummariesPage(RecordingsRepository.SummariesOrder, RecordingSummary, int)
+     */
+    public CompletableFuture<List<RecordingSummary>> getRecordingSummariesPage(
+            RecordingsRepository.SummariesOrder order, RecordingSummary lastSummary, int pageSize
+    ) {
+        return read(() -> recordingsRepository.getRecordingSummariesPage(order, lastSummary, pageSize));
+    }
+
+    /**
+     * Searches the Recordings in the background
+     *
+     * @see RecordingsRepository#search(String, int, int)
+     */
+    public CompletableFuture<List<RecordingSummary>> search(String query, int limit, int offset) {
+        return read(() -> recordingsRepository.search(query, limit, offset));
+    }
+
+    private static <T> CompletableFuture<T> write(Supplier<T> write) {
+        return onFxThread(DatabaseExecutor.supplyWrite(write));
+    }
+
+    private static <T> CompletableFuture<T> read(Supplier<T> read) {
+        return onFxThread(DatabaseExecutor.supplyRead(read));
+    }
+
+    /**
+     * Makes the dependent stages of the given future run on the JavaFX application thread, even when it completes
+     * exceptionally
+     *
+     * @param future the future completed by a database thread
+     * @return a future completed on the JavaFX application thread with the same result
+     */
+    private static <T> CompletableFuture<T> onFxThread(CompletableFuture<T> future) {
+        CompletableFuture<T> fxFuture = new CompletableFuture<>();
+        future.whenComplete((result, exception) -> Platform.runLater(() -> {
+            if (exception == null) {
+                fxFuture.complete(result);
+            } else {
+                fxFuture.completeExceptionally(exception);
+            }
+        }));
+        return fxFuture;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_saving_view;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+
+/**
+ * Rewrites in the background the input events of the Recordings stored by previous versions of the program, so
+ * storage format changes reach existing databases without blocking the application while they are rewritten.
+ * <p>
+ * Recordings are rewritten in batches, each Recording in its own write transaction so other writes are executed
+ * between them. The rewrite is resumable: a rewritten Recording no longer matches the legacy events query, so
+ * starting again after the program was closed continues with the Recordings that remain.
+ */
+public class InputEventsRewriter {
+
+    private static final Logger logger = LogManager.getLogger(InputEventsRewriter.class);
+    private static final int BATCH_SIZE = 16;
+    private static final String THREAD_NAME = "input-events-rewriter";
+
+    private final RecordingsRepository recordingsRepository;
+    private Thread rewriteThread;
+    private volatile int rewrittenCount;
+
+    public InputEventsRewriter(RecordingsRepository recordingsRepository) {
+        this.recordingsRepository = recordingsRepository;
+    }
+
+    /**
+     * Starts rewriting the Recordings with legacy input events on a background thread, does nothing if the rewrite
+     * is already running
+     */
+    public synchronized void start() {
+        if (this.isRunning()) {
+            return;
+        }
+        rewriteThread = new Thread(this::rewriteLegacyRecordings, THREAD_NAME);
+        rewriteThread.setDaemon(true);
+        rewriteThread.setPriority(Thread.MIN_PRIORITY);
+        rewriteThread.start();
+    }
+
+    /**
+     * Stops the rewrite after the Recording being rewritten, the remaining Recordings are rewritten the next time
+     * the rewrite starts
+     */
+    public synchronized void stop() {
+        if (rewriteThread != null) {
+            rewriteThread.interrupt();
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return rewriteThread != null && rewriteThread.isAlive();
+    }
+
+    /**
+     * Obtains the number of Recordings rewritten since the rewrite started
+     *
+     * @return the number of rewritten Recordings
+     */
+    public int getRewrittenCount() {
+        return rewrittenCount;
+    }
+
+    /**
+     * Rewrites the Recordings with legacy input events in batches until there are no more or the thread is
+     * interrupted. Recordings that could not be rewritten are skipped until the next start.
+     */
+    private void rewriteLegacyRecordings() {
+        logger.log(Level.TRACE, "Starting legacy input events rewrite");
+        int lastRecordingId = 0;
+        List<Integer> batch;
+        do {
+            batch = recordingsRepository.obtainRecordingIdsWithLegacyEvents(lastRecordingId, BATCH_SIZE);
+            for (int recordingId : batch) {
+                if (Thread.currentThread().isInterrupted()) {
+                    logger.log(Level.INFO, "Input events rewrite stopped after {} Recordings", rewrittenCount);
+                    return;
+                }
+                if (recordingsRepository.rewriteInputEvents(recordingId)) {
+                    rewrittenCount++;
+                } else {
+                    logger.log(Level.WARN, "Could not rewrite input events of Recording {}, skipping it", recordingId);
+                }
+                lastRecordingId = recordingId;
+            }
+        } while (!batch.isEmpty());
+        logger.log(Level.INFO, "Input events rewrite finished, {} Recordings rewritten", rewrittenCount);
+    }
+}
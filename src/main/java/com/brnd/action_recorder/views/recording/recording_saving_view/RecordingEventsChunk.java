@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_saving_view;
+
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import java.util.Queue;
+
+/**
+ * This record class stores a chunk of consecutive input events of a Recording, chunks allow to write and read the
+ * events of long recordings without holding all of them in memory
+ * @param recordingId the id of the Recording the chunk belongs to
+ * @param chunkSequence the position of the chunk among the Recording chunks, starting from zero
+ * @param startTime the relative execution time of the first chunk event
+ * @param endTime the relative execution time of the last chunk event
+ * @param inputEvents the chunk events ordered by execution time
+ */
+public record RecordingEventsChunk(
+        int recordingId,
+        int chunkSequence,
+        long startTime,
+        long endTime,
+        Queue<ReplayableAction> inputEvents
+        ) {
+}
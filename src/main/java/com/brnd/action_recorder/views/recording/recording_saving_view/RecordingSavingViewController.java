@@ -23,6 +23,7 @@ import com.brnd.action_recorder.views.utils.ViewEnum;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXML;
@@ -30,6 +31,7 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -47,7 +49,7 @@ import org.apache.logging.log4j.Logger;
 public class RecordingSavingViewController implements Initializable, ViewController {
 
     private static final Logger logger = LogManager.getLogger(RecordingSavingViewController.class);
-    private final RecordingsRepository recordingsRepository = new RecordingsRepository();
+    private final AsyncRecordingsRepository recordingsRepository = new AsyncRecordingsRepository();
     private static final int RECORDING_TITLE_LENGTH_LIMIT = 30;
     private Recording recording;
     private String recordingTitle;
@@ -60,6 +62,8 @@ public class RecordingSavingViewController implements Initializable, ViewControl
     @FXML
     private Button saveRecordingButton;
     @FXML
+    private ProgressIndicator savingProgressIndicator;
+    @FXML
     private TextField recordingTitleTexField;
     @FXML
     private TextArea recordingDescriptionTextArea;
@@ -149,35 +153,70 @@ public class RecordingSavingViewController implements Initializable, ViewControl
         return validInputs;
     }
 
-    private boolean verifyStoredRecording(int recordingId) {
-        logger.log(Level.INFO, "Verifying stored recording");
-        Recording storedRecording = this.recordingsRepository.getRecordingById(recordingId);
-        logger.log(Level.INFO, "Database Retrieved Recording: {} ", storedRecording);
-        return storedRecording != null;
+    /**
+     * Verifies the stored recording against the checksum computed while it was saved, so its events are not read
+     * back
+     *
+     * @param storedEventsChecksum what was stored for the recording events
+     * @return a future completed with true if the recording was correctly stored
+     */
+    private CompletableFuture<Boolean> verifyStoredRecording(RecordingsRepository.StoredEventsChecksum storedEventsChecksum) {
+        logger.log(Level.INFO, "Verifying stored recording {}", storedEventsChecksum);
+        if (storedEventsChecksum.recordingId() == 0) { // the Recording was not inserted
+            return CompletableFuture.completedFuture(false);
+        }
+        return this.recordingsRepository.verifyStoredEvents(storedEventsChecksum);
+    }
+
+    /**
+     * Shows or hides the saving progress, the recording can not be saved again while it is being saved
+     *
+     * @param saving true if the recording is being saved
+     */
+    private void showSavingProgress(boolean saving) {
+        this.saveRecordingButton.setDisable(saving);
+        this.savingProgressIndicator.setVisible(saving);
     }
 
     @FXML
-    public void saveRecording(Event event) throws IOException {
+    public void saveRecording(Event event) {
         Stage currentStage = StagePositioner.getStageFromEvent(event);
         boolean validInputs = this.validateFields(currentStage);
         if (validInputs) {// save recording only if the inputs were valid
             logger.log(Level.INFO, "Saving recording");
             this.recording.setRecordingTitle(this.recordingTitle);
             this.recording.setRecordingDescription(this.recordingDescription);
-            int databaseRecordingId = this.recordingsRepository.insertRecording(this.recording);
+            this.showSavingProgress(true);
+
+            this.recordingsRepository.insertRecordingWithChecksum(this.recording)
+                    .thenCompose(this::verifyStoredRecording)
+                    .exceptionally(exception -> {
+                        logger.log(Level.ERROR, "Could not save recording. Exception msg: {}", exception.getMessage());
+                        return false;
+                    })
+                    .thenAccept(stored -> { // executed on the JavaFX application thread
+                        this.showSavingProgress(false);
+                        this.showSavingResult(stored, event, currentStage);
+                    });
+        }
+    }
 
-            if (this.verifyStoredRecording(databaseRecordingId)) {
-                var saveAlertMessage = "Grabación guardada con éxito.";
-                ViewController.createCustomAlert(
-                        Alert.AlertType.INFORMATION, saveAlertMessage, "Guardar Grabación - Grabadora de Acciones", currentStage, ButtonType.OK
-                ).showAndWait(); // styles and shows the alert
+    private void showSavingResult(boolean stored, Event event, Stage currentStage) {
+        if (stored) {
+            var saveAlertMessage = "Grabación guardada con éxito.";
+            ViewController.createCustomAlert(
+                    Alert.AlertType.INFORMATION, saveAlertMessage, "Guardar Grabación - Grabadora de Acciones", currentStage, ButtonType.OK
+            ).showAndWait(); // styles and shows the alert
+            try {
                 this.navigateToRecordView(event);
-            } else {
-                var saveAlertMessage = "No se pudo guardar la grabación. Intente de nuevo";
-                ViewController.createCustomAlert(
-                        Alert.AlertType.ERROR, saveAlertMessage, "Guardar Grabación - Grabadora de Acciones", currentStage, ButtonType.OK
-                ).show(); // styles and shows the alert
+            } catch (IOException e) {
+                logger.log(Level.ERROR, "Could not open record view. Exception msg: {}", e.getMessage());
             }
+        } else {
+            var saveAlertMessage = "No se pudo guardar la grabación. Intente de nuevo";
+            ViewController.createCustomAlert(
+                    Alert.AlertType.ERROR, saveAlertMessage, "Guardar Grabación - Grabadora de Acciones", currentStage, ButtonType.OK
+            ).show(); // styles and shows the alert
         }
     }
 
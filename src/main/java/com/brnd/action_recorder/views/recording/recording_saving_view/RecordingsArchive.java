@@ -0,0 +1,420 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_saving_view;
+
+import com.brnd.action_recorder.data.DataUtils;
+import com.brnd.action_recorder.data.Database;
+import com.brnd.action_recorder.data.DatabaseExecutor;
+import com.brnd.action_recorder.data.DatabaseTable;
+import com.brnd.action_recorder.data.events.EventPayloadStore;
+import com.brnd.action_recorder.data.events.StandardPayloadCodec;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Exports every stored Recording to a single archive file and imports the Recordings of an archive, so a library can
+ * be moved between machines.
+ * <p>
+ * The archive holds a section for each of the EVENT_PAYLOADS, RECORDINGS and RECORDING_EVENT_CHUNKS tables. Each
+ * section starts with the table name and the names of its columns, followed by its rows, so archives remain
+ * importable when columns are added to the tables: unknown columns are skipped and missing ones are left with their
+ * default values. Rows are streamed from a cursor to the file and from the file to batched inserts, only one row is
+ * held in memory at a time.
+ */
+public class RecordingsArchive {
+
+    private static final Logger logger = LogManager.getLogger(RecordingsArchive.class);
+    /**
+     * Extension of the archive files
+     */
+    public static final String ARCHIVE_EXTENSION = ".recordings";
+    private static final int ARCHIVE_MAGIC = 0x41524543; // "AREC"
+    private static final int ARCHIVE_FORMAT_VERSION = 1;
+    /*
+     * Rows inserted by each JDBC batch during the import, the whole import is a single transaction
+     */
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    private static final String RECORDING_ID_FIELD = "recording_id";
+    private static final String PAYLOAD_HASH_FIELD = "payload_hash";
+    private static final String PAYLOAD_CODEC_FIELD = "payload_codec";
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final String PAYLOAD_CHECKSUM_FIELD = "payload_checksum";
+    /*
+     * Exported tables in import order: payloads are referenced by the recordings, recordings by the chunks
+     */
+    private static final List<DatabaseTable> ARCHIVED_TABLES = List.of(
+            DatabaseTable.EVENT_PAYLOADS, DatabaseTable.RECORDINGS, DatabaseTable.RECORDING_EVENT_CHUNKS
+    );
+    /*
+     * Columns computed again on import: payloads references are counted from the imported recordings and chunks get
+     * new ids
+     */
+    private static final Map<DatabaseTable, Set<String>> NOT_ARCHIVED_COLUMNS = Map.of(
+            DatabaseTable.EVENT_PAYLOADS, Set.of("reference_count"),
+            DatabaseTable.RECORDINGS, Set.of(),
+            DatabaseTable.RECORDING_EVENT_CHUNKS, Set.of("chunk_id")
+    );
+    private static final String SELECT_NEXT_RECORDING_ID_SENTENCE
+            = String.format("SELECT max(coalesce((SELECT seq FROM sqlite_sequence WHERE name = '%s'), 0), "
+                    + "coalesce((SELECT max(%s) FROM %s), 0)) + 1;",
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_ID_FIELD,
+            DatabaseTable.RECORDINGS.name()
+    );
+    private static final String ADD_PAYLOAD_REFERENCE_SENTENCE
+            = String.format("UPDATE %s SET reference_count = reference_count + 1 WHERE %s = (?);",
+            DatabaseTable.EVENT_PAYLOADS.name(),
+            PAYLOAD_HASH_FIELD
+    );
+    private static final String DELETE_UNREFERENCED_PAYLOADS_SENTENCE
+            = String.format("DELETE FROM %s WHERE reference_count <= 0;", DatabaseTable.EVENT_PAYLOADS.name());
+
+    /*
+     * Tags of the archived values
+     */
+    private static final byte NULL_VALUE = 0;
+    private static final byte INTEGER_VALUE = 1;
+    private static final byte REAL_VALUE = 2;
+    private static final byte TEXT_VALUE = 3;
+    private static final byte BLOB_VALUE = 4;
+
+    /**
+     * Writes every stored Recording to the given archive. The Recordings are read from a snapshot of the database, so
+     * Recordings saved meanwhile are either fully exported or not exported at all.
+     *
+     * @param archive the archive file, it is replaced if it exists
+     * @return the number of exported Recordings or -1 if they could not be exported
+     */
+    public int exportRecordings(Path archive) {
+        logger.log(Level.INFO, "Exporting recordings to {}", archive);
+        int exportedRecordings = 0;
+        try (
+                Connection connection = Database.openReadOnlyConnection();
+                var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))
+        ) {
+            connection.setAutoCommit(false); // a single read transaction keeps the same snapshot for every table
+            output.writeInt(ARCHIVE_MAGIC);
+            output.writeInt(ARCHIVE_FORMAT_VERSION);
+            for (DatabaseTable table : ARCHIVED_TABLES) {
+                int exportedRows = exportTable(connection, table, output);
+                if (table == DatabaseTable.RECORDINGS) {
+                    exportedRecordings = exportedRows;
+                }
+            }
+            output.writeUTF(""); // end of the archive
+            connection.commit();
+            logger.log(Level.INFO, "{} recordings exported to {}", exportedRecordings, archive);
+        } catch (SQLException | IOException e) {
+            logger.log(Level.ERROR, "Could not export recordings to {}. Exception message: {}", archive, e.getMessage());
+            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            deleteIncompleteArchive(archive);
+            exportedRecordings = -1;
+        }
+        return exportedRecordings;
+    }
+
+    /**
+     * Adds the Recordings of the given archive to the stored ones. The Recordings get new ids and the payloads already
+     * stored are shared with them. The import is a single transaction, so either every Recording of the archive is
+     * imported or none is.
+     *
+     * @param archive the archive file
+     * @return the number of imported Recordings or -1 if they could not be imported
+     */
+    public int importRecordings(Path archive) {
+        return DatabaseExecutor.callWrite(() -> {
+            logger.log(Level.INFO, "Importing recordings from {}", archive);
+            int importedRecordings = -1;
+            Connection connection = null;
+            try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(archive)))) {
+                if (input.readInt() != ARCHIVE_MAGIC) {
+                    throw new StreamCorruptedException(archive + " is not a recordings archive");
+                }
+                int formatVersion = input.readInt();
+                if (formatVersion > ARCHIVE_FORMAT_VERSION) {
+                    throw new StreamCorruptedException("Unsupported recordings archive version " + formatVersion);
+                }
+                connection = Database.getSqliteConnection();
+                connection.setAutoCommit(false);
+                var recordingIds = new HashMap<Integer, Integer>(); // archived id -> new id
+                String tableName;
+                while (!(tableName = input.readUTF()).isEmpty()) {
+                    importTable(connection, findArchivedTable(tableName), input, recordingIds);
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(DELETE_UNREFERENCED_PAYLOADS_SENTENCE);
+                }
+                connection.commit();
+                importedRecordings = recordingIds.size();
+                logger.log(Level.INFO, "{} recordings imported from {}", importedRecordings, archive);
+            } catch (SQLException | IOException e) {
+                logger.log(Level.ERROR, "Could not import recordings from {}. Exception message: {}", archive, e.getMessage());
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+                rollback(connection);
+            } finally {
+                restoreAutoCommit(connection);
+            }
+            return importedRecordings;
+        });
+    }
+
+    /**
+     * Writes a section with every row of the given table
+     *
+     * @return the number of written rows
+     */
+    private static int exportTable(Connection connection, DatabaseTable table, DataOutputStream output) throws SQLException, IOException {
+        var columns = archivedColumns(table);
+        output.writeUTF(table.name());
+        output.writeInt(columns.size());
+        for (String column : columns) {
+            output.writeUTF(column);
+        }
+
+        int rows = 0;
+        String selectSentence = String.format("SELECT %s FROM %s;", String.join(", ", columns), table.name());
+        try (
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(selectSentence) // rows are stepped one at a time
+        ) {
+            while (resultSet.next()) {
+                output.writeBoolean(true);
+                for (int i = 1; i <= columns.size(); i++) {
+                    writeValue(output, resultSet.getObject(i));
+                }
+                rows++;
+            }
+        }
+        output.writeBoolean(false); // end of the section
+        logger.log(Level.ALL, "{} {} rows exported", rows, table.name());
+        return rows;
+    }
+
+    /**
+     * Inserts the rows of an archive section in batches. Recordings get new ids, the references of their payloads
+     * are added and the chunks are linked to the new ids.
+     */
+    private static void importTable(Connection connection, DatabaseTable table, DataInputStream input, Map<Integer, Integer> recordingIds)
+            throws SQLException, IOException {
+        var archivedColumns = new String[input.readInt()];
+        for (int i = 0; i < archivedColumns.length; i++) {
+            archivedColumns[i] = input.readUTF();
+        }
+        var tableColumns = table.getFieldsMap().keySet();
+        var importedColumns = Arrays.stream(archivedColumns).filter(tableColumns::contains).toList();
+        if (table != DatabaseTable.EVENT_PAYLOADS && !importedColumns.contains(RECORDING_ID_FIELD)) {
+            throw new StreamCorruptedException("Archive section " + table.name() + " has no " + RECORDING_ID_FIELD);
+        }
+        String insertSentence = String.format("INSERT %s INTO %s (%s) VALUES (%s);",
+                table == DatabaseTable.EVENT_PAYLOADS ? "OR IGNORE" : "", // payloads already stored are shared
+                table.name(),
+                String.join(", ", importedColumns),
+                importedColumns.stream().map(column -> "?").collect(Collectors.joining(", "))
+        );
+        var hashColumns = Set.of(RecordingsRepository.PARTITIONS_HASH_FIELDS);
+
+        int nextRecordingId = table == DatabaseTable.RECORDINGS ? selectNextRecordingId(connection) : 0;
+        int rows = 0;
+        try (
+                PreparedStatement insertStatement = connection.prepareStatement(insertSentence);
+                PreparedStatement referenceStatement = connection.prepareStatement(ADD_PAYLOAD_REFERENCE_SENTENCE)
+        ) {
+            var row = new HashMap<String, Object>();
+            while (input.readBoolean()) {
+                row.clear();
+                for (String column : archivedColumns) {
+                    row.put(column, readValue(input));
+                }
+                switch (table) {
+                    case EVENT_PAYLOADS -> verifyPayload(row);
+                    case RECORDINGS -> {
+                        int newRecordingId = nextRecordingId++;
+                        recordingIds.put(((Number) row.get(RECORDING_ID_FIELD)).intValue(), newRecordingId);
+                        row.put(RECORDING_ID_FIELD, newRecordingId);
+                        for (String hashColumn : hashColumns) {
+                            if (row.get(hashColumn) != null) {
+                                referenceStatement.setObject(1, row.get(hashColumn));
+                                referenceStatement.addBatch();
+                            }
+                        }
+                    }
+                    default -> {
+                        var newRecordingId = recordingIds.get(((Number) row.get(RECORDING_ID_FIELD)).intValue());
+                        if (newRecordingId == null) {
+                            throw new StreamCorruptedException("Archived chunk of a missing recording " + row.get(RECORDING_ID_FIELD));
+                        }
+                        row.put(RECORDING_ID_FIELD, newRecordingId);
+                    }
+                }
+                for (int i = 0; i < importedColumns.size(); i++) {
+                    insertStatement.setObject(i + 1, row.get(importedColumns.get(i)));
+                }
+                insertStatement.addBatch();
+                if (++rows % IMPORT_BATCH_SIZE == 0) {
+                    insertStatement.executeBatch();
+                    referenceStatement.executeBatch();
+                }
+            }
+            insertStatement.executeBatch();
+            referenceStatement.executeBatch();
+        }
+        logger.log(Level.ALL, "{} {} rows imported", rows, table.name());
+    }
+
+    /**
+     * Verifies an archived payload matches its checksum and its hash, so a damaged archive is not imported. The hash
+     * is the key payloads are shared by, a payload not matching it would only fail when it is loaded.
+     */
+    private static void verifyPayload(Map<String, Object> row) throws IOException {
+        if (!(row.get(PAYLOAD_HASH_FIELD) instanceof String hash) || !(row.get(PAYLOAD_FIELD) instanceof byte[] payload)) {
+            throw new StreamCorruptedException("Archived payload without hash or content");
+        }
+        if (row.get(PAYLOAD_CHECKSUM_FIELD) instanceof Number checksum && EventPayloadStore.checksum(payload) != checksum.longValue()) {
+            throw new StreamCorruptedException("Archived payload " + hash + " doesn't match its checksum");
+        }
+        int codecId = (row.get(PAYLOAD_CODEC_FIELD) instanceof Number codec) ? codec.intValue() : 0;
+        if (!hash.equals(EventPayloadStore.hash(StandardPayloadCodec.fromId(codecId).decompress(payload)))) {
+            throw new StreamCorruptedException("Archived payload " + hash + " doesn't match its hash");
+        }
+    }
+
+    private static DatabaseTable findArchivedTable(String tableName) throws StreamCorruptedException {
+        for (DatabaseTable table : ARCHIVED_TABLES) {
+            if (table.name().equals(tableName)) {
+                return table;
+            }
+        }
+        throw new StreamCorruptedException("Unexpected archive section " + tableName);
+    }
+
+    private static List<String> archivedColumns(DatabaseTable table) {
+        var columns = new ArrayList<>(table.getFieldsMap().keySet());
+        columns.removeAll(NOT_ARCHIVED_COLUMNS.get(table));
+        return columns;
+    }
+
+    private static int selectNextRecordingId(Connection connection) throws SQLException {
+        try (
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(SELECT_NEXT_RECORDING_ID_SENTENCE)
+        ) {
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL_VALUE);
+        } else if (value instanceof Integer || value instanceof Long) {
+            output.writeByte(INTEGER_VALUE);
+            output.writeLong(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            output.writeByte(REAL_VALUE);
+            output.writeDouble(number.doubleValue());
+        } else if (value instanceof byte[] bytes) {
+            output.writeByte(BLOB_VALUE);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else {
+            byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+            output.writeByte(TEXT_VALUE);
+            output.writeInt(text.length);
+            output.write(text);
+        }
+    }
+
+    private static Object readValue(DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        return switch (tag) {
+            case NULL_VALUE -> null;
+            case INTEGER_VALUE -> input.readLong();
+            case REAL_VALUE -> input.readDouble();
+            case TEXT_VALUE -> new String(readBytes(input), StandardCharsets.UTF_8);
+            case BLOB_VALUE -> readBytes(input);
+            default -> throw new StreamCorruptedException("Unknown archived value tag " + tag);
+        };
+    }
+
+    /**
+     * Reads a length prefixed TEXT or BLOB value
+     */
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new StreamCorruptedException("Invalid archived value length " + length);
+        }
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length != length) {
+            throw new StreamCorruptedException("Truncated recordings archive");
+        }
+        return bytes;
+    }
+
+    private static void deleteIncompleteArchive(Path archive) {
+        try {
+            Files.deleteIfExists(archive);
+        } catch (IOException e) {
+            logger.log(Level.WARN, "Could not delete incomplete archive {}. Exception message: {}", archive, e.getMessage());
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not rollback the recordings import. Exception message: {}", e.getMessage());
+        }
+    }
+
+    private static void restoreAutoCommit(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not restore auto commit. Exception message: {}", e.getMessage());
+        }
+    }
+}
@@ -18,21 +18,34 @@ package com.brnd.action_recorder.views.recording.recording_saving_view;
 
 import com.brnd.action_recorder.data.DataUtils;
 import com.brnd.action_recorder.data.Database;
+import com.brnd.action_recorder.data.DatabaseExecutor;
 import com.brnd.action_recorder.data.DatabaseTable;
+import com.brnd.action_recorder.data.StatementCache;
+import com.brnd.action_recorder.data.events.EventPartition;
+import com.brnd.action_recorder.data.events.EventPayloadStore;
+import com.brnd.action_recorder.data.events.InputEventsCodec;
+import com.brnd.action_recorder.data.events.MousePathSimplifier;
+import com.brnd.action_recorder.data.events.PayloadCodec;
+import com.brnd.action_recorder.data.events.StandardPayloadCodec;
+import com.brnd.action_recorder.views.recording.InputEventsBuffer;
 import com.brnd.action_recorder.views.recording.Recording;
+import com.brnd.action_recorder.views.recording.RecordingStatistics;
+import com.brnd.action_recorder.views.recording.RecordingSummary;
 import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
 
 import java.io.IOException;
-import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -40,23 +53,57 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * This class has the needed functionalities to insert, select and update
- * Recordings from the database
+ * Recordings from the database. Writes are executed on the
+ * {@link DatabaseExecutor} thread through the write connection, reads use the
+ * read connection from the calling thread.
  */
 public class RecordingsRepository {
 
     private static final Logger logger = LogManager.getLogger(RecordingsRepository.class);
     private final Connection connection;
+    private final Connection readConnection;
+    private final StatementCache statements;
+    private final StatementCache readStatements;
+    /**
+     * The codec used to compress the input events of the Recordings stored from now on, see PayloadCodecBenchmark
+     */
+    public static final PayloadCodec DEFAULT_PAYLOAD_CODEC = StandardPayloadCodec.DEFLATE_FAST;
+    private PayloadCodec payloadCodec = DEFAULT_PAYLOAD_CODEC;
+    private final EventPayloadStore payloadStore;
+    private final EventPayloadStore payloadReader;
 
+    /*
+     * Full text index of the Recordings titles and descriptions, created by the schema migrations
+     */
+    private static final String RECORDINGS_SEARCH_TABLE = "RECORDINGS_SEARCH";
     private static final String RECORDING_ID_FIELD = "recording_id";
     private static final String RECORDING_TITLE_FIELD = "recording_title";
     private static final String RECORDING_DESCRIPTION_FIELD = "recording_description";
-    private static final String RECORDING_DATE_FIELD = "recording_timestamp";
+    private static final String RECORDING_DATE_FIELD = "recording_date_millis";
     private static final String RECORDING_DURATION_FIELD = "recording_duration";
     private static final String RECORDING_INPUT_EVENTS_FIELD = "recording_input_events";
     private static final String RECORDING_MOUSE_EVENTS_FIELD= "recording_mouse_events";
     private static final String RECORDING_KEYBOARD_EVENTS_FIELD = "recording_keyboard_events";
     private static final String RECORDING_SCROLL_EVENTS_FIELD = "recording_scroll_events";
     private static final String RECORDING_CLICK_EVENTS_FIELD = "recording_click_events";
+    private static final String RECORDING_EVENTS_COUNT_FIELD = "recording_events_count";
+    private static final String RECORDING_EVENTS_CHECKSUM_FIELD = "recording_events_checksum";
+    private static final String RECORDING_MOTION_HASH_FIELD = "recording_motion_hash";
+    private static final String RECORDING_BUTTON_HASH_FIELD = "recording_button_hash";
+    private static final String RECORDING_WHEEL_HASH_FIELD = "recording_wheel_hash";
+    private static final String RECORDING_KEY_HASH_FIELD = "recording_key_hash";
+    private static final String RECORDING_MOTION_COUNT_FIELD = "recording_motion_count";
+    private static final String RECORDING_BUTTON_COUNT_FIELD = "recording_button_count";
+    private static final String RECORDING_WHEEL_COUNT_FIELD = "recording_wheel_count";
+    private static final String RECORDING_KEY_COUNT_FIELD = "recording_key_count";
+    private static final String RECORDING_FIRST_EVENT_TIME_FIELD = "recording_first_event_time";
+    private static final String RECORDING_LAST_EVENT_TIME_FIELD = "recording_last_event_time";
+    private static final String RECORDING_MOUSE_MIN_X_FIELD = "recording_mouse_min_x";
+    private static final String RECORDING_MOUSE_MIN_Y_FIELD = "recording_mouse_min_y";
+    private static final String RECORDING_MOUSE_MAX_X_FIELD = "recording_mouse_max_x";
+    private static final String RECORDING_MOUSE_MAX_Y_FIELD = "recording_mouse_max_y";
+    private static final String RECORDING_PEAK_EVENTS_PER_SECOND_FIELD = "recording_peak_events_per_second";
+    private static final String RECORDING_PAYLOAD_SIZE_FIELD = "recording_payload_size";
 
     private static final String SELECT_RECORDING_TITLE_BY_ID_SENTENCE
             = String.format("SELECT %s FROM %s WHERE %s = (?);",
@@ -137,13 +184,6 @@ public class RecordingsRepository {
             RECORDING_DURATION_FIELD,
             RECORDING_ID_FIELD
     );
-    private static final String UPDATE_INPUT_EVENTS_WHERE_ID_SENTENCE
-            = String.format("UPDATE %s SET %s = (?) WHERE %s = (?);",
-            DatabaseTable.RECORDINGS.name(),
-            RECORDING_INPUT_EVENTS_FIELD,
-            RECORDING_ID_FIELD
-    );
-
     private static final String UPDATE_MOUSE_EVENTS_WHERE_ID_SENTENCE
             = String.format("UPDATE %s SET %s = (?) WHERE %s = (?);",
             DatabaseTable.RECORDINGS.name(),
@@ -169,19 +209,302 @@ public class RecordingsRepository {
             RECORDING_ID_FIELD
     );
 
+    private static final String[] STATISTICS_FIELDS = {
+        RECORDING_MOTION_COUNT_FIELD,
+        RECORDING_BUTTON_COUNT_FIELD,
+        RECORDING_WHEEL_COUNT_FIELD,
+        RECORDING_KEY_COUNT_FIELD,
+        RECORDING_FIRST_EVENT_TIME_FIELD,
+        RECORDING_LAST_EVENT_TIME_FIELD,
+        RECORDING_MOUSE_MIN_X_FIELD,
+        RECORDING_MOUSE_MIN_Y_FIELD,
+        RECORDING_MOUSE_MAX_X_FIELD,
+        RECORDING_MOUSE_MAX_Y_FIELD,
+        RECORDING_PEAK_EVENTS_PER_SECOND_FIELD,
+        RECORDING_PAYLOAD_SIZE_FIELD
+    };
+    /*
+     * Hashes of the input events partitions payloads, in EventPartition declaration order
+     */
+    static final String[] PARTITIONS_HASH_FIELDS = {
+        RECORDING_MOTION_HASH_FIELD,
+        RECORDING_BUTTON_HASH_FIELD,
+        RECORDING_WHEEL_HASH_FIELD,
+        RECORDING_KEY_HASH_FIELD
+    };
+    /*
+     * Fields written each time the input events are stored, in the order they are bound by bindEncodedEvents
+     */
+    private static final String[] ENCODED_EVENTS_FIELDS = Stream.of(
+            Arrays.stream(PARTITIONS_HASH_FIELDS),
+            Stream.of(RECORDING_EVENTS_COUNT_FIELD, RECORDING_EVENTS_CHECKSUM_FIELD),
+            Arrays.stream(STATISTICS_FIELDS)
+    ).flatMap(fields -> fields).toArray(String[]::new);
+
+    /*
+     * Input events payloads are stored in the EVENT_PAYLOADS table, the serialized input events field where previous
+     * versions of the program stored them is cleared
+     */
+    private static final String UPDATE_INPUT_EVENTS_WHERE_ID_SENTENCE
+            = String.format("UPDATE %s SET %s = NULL, %s WHERE %s = (?);",
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_INPUT_EVENTS_FIELD,
+            Arrays.stream(ENCODED_EVENTS_FIELDS).map(field -> field + " = (?)").collect(Collectors.joining(", ")),
+            RECORDING_ID_FIELD
+    );
+    /*
+     * Only the motion partition changes when the mouse trails are simplified, the other partitions keep referencing
+     * the same payloads
+     */
+    private static final String UPDATE_MOTION_EVENTS_WHERE_ID_SENTENCE
+            = String.format("UPDATE %s SET %s WHERE %s = (?);",
+            DatabaseTable.RECORDINGS.name(),
+            Stream.of(
+                    Stream.of(RECORDING_MOTION_HASH_FIELD, RECORDING_EVENTS_COUNT_FIELD, RECORDING_EVENTS_CHECKSUM_FIELD),
+                    Arrays.stream(STATISTICS_FIELDS)
+            ).flatMap(fields -> fields).map(field -> field + " = (?)").collect(Collectors.joining(", ")),
+            RECORDING_ID_FIELD
+    );
+    private static final String LEGACY_EVENTS_FIELD = "legacy_events";
+    private static final String SELECT_PARTITIONS_HASHES_BY_ID_SENTENCE
+            = String.format("SELECT %s, (%s IS NOT NULL) AS %s FROM %s WHERE %s = (?);",
+            String.join(", ", PARTITIONS_HASH_FIELDS),
+            RECORDING_INPUT_EVENTS_FIELD,
+            LEGACY_EVENTS_FIELD,
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_ID_FIELD
+    );
+    private static final String SELECT_EVENTS_CHECKSUM_BY_ID_SENTENCE
+            = String.format("SELECT %s, %s, %s, %s FROM %s WHERE %s = (?);",
+            String.join(", ", PARTITIONS_HASH_FIELDS),
+            RECORDING_EVENTS_COUNT_FIELD,
+            RECORDING_EVENTS_CHECKSUM_FIELD,
+            RECORDING_PAYLOAD_SIZE_FIELD,
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_ID_FIELD
+    );
+    private static final String DELETE_RECORDING_WHERE_ID_SENTENCE
+            = String.format("DELETE FROM %s WHERE %s = (?);",
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_ID_FIELD
+    );
+
+    /*
+     * Writes every Recording field at once
+     */
+    private static final String INSERT_RECORDING_SENTENCE
+            = String.format("INSERT INTO %s (%s, %s, %s, %s, %s, %s, %s, %s, %s) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, %s) RETURNING %s;",
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_TITLE_FIELD,
+            RECORDING_DESCRIPTION_FIELD,
+            RECORDING_DATE_FIELD,
+            RECORDING_DURATION_FIELD,
+            RECORDING_MOUSE_EVENTS_FIELD,
+            RECORDING_KEYBOARD_EVENTS_FIELD,
+            RECORDING_SCROLL_EVENTS_FIELD,
+            RECORDING_CLICK_EVENTS_FIELD,
+            String.join(", ", ENCODED_EVENTS_FIELDS),
+            Arrays.stream(ENCODED_EVENTS_FIELDS).map(field -> "?").collect(Collectors.joining(", ")),
+            RECORDING_ID_FIELD
+    );
+    private static final String SELECT_RECORDING_SUMMARIES_FIELDS
+            = String.format("SELECT %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s FROM %s",
+            RECORDING_ID_FIELD,
+            RECORDING_TITLE_FIELD,
+            RECORDING_DESCRIPTION_FIELD,
+            RECORDING_DATE_FIELD,
+            RECORDING_DURATION_FIELD,
+            RECORDING_MOUSE_EVENTS_FIELD,
+            RECORDING_KEYBOARD_EVENTS_FIELD,
+            RECORDING_SCROLL_EVENTS_FIELD,
+            RECORDING_CLICK_EVENTS_FIELD,
+            RECORDING_EVENTS_COUNT_FIELD,
+            String.join(", ", STATISTICS_FIELDS),
+            DatabaseTable.RECORDINGS.name()
+    );
+    private static final String SELECT_RECORDING_SUMMARIES_NEWEST_FIRST_SENTENCE
+            = buildSelectSummariesSentence("", "DESC");
+    private static final String SELECT_RECORDING_SUMMARIES_BETWEEN_NEWEST_FIRST_SENTENCE
+            = buildSelectSummariesSentence(String.format(" WHERE %s >= (?) AND %s < (?)", RECORDING_DATE_FIELD, RECORDING_DATE_FIELD), "DESC");
+    private static final String SELECT_RECORDING_SUMMARIES_BETWEEN_OLDEST_FIRST_SENTENCE
+            = buildSelectSummariesSentence(String.format(" WHERE %s >= (?) AND %s < (?)", RECORDING_DATE_FIELD, RECORDING_DATE_FIELD), "ASC");
+    private static final String SELECT_RECORDING_SUMMARIES_PAGE_SENTENCE
+            = String.format("%s ORDER BY %s DESC, %s DESC LIMIT (?) OFFSET (?);",
+            SELECT_RECORDING_SUMMARIES_FIELDS,
+            RECORDING_DATE_FIELD,
+            RECORDING_ID_FIELD
+    );
+    private static final Map<SummariesOrder, String> SELECT_FIRST_SUMMARIES_PAGE_SENTENCES = new EnumMap<>(SummariesOrder.class);
+    private static final Map<SummariesOrder, String> SELECT_NEXT_SUMMARIES_PAGE_SENTENCES = new EnumMap<>(SummariesOrder.class);
+
+    static {
+        for (SummariesOrder order : SummariesOrder.values()) {
+            String orderClause = order.isByDate() ?
+                    String.format("ORDER BY %s %s, %s %s", RECORDING_DATE_FIELD, order.getDirection(), RECORDING_ID_FIELD, order.getDirection())
+                    : String.format("ORDER BY %s %s", RECORDING_ID_FIELD, order.getDirection());
+            String comparison = order.isDescending() ? "<" : ">";
+            String keysetClause = order.isByDate() ?
+                    String.format("WHERE (%s, %s) %s ((?), (?))", RECORDING_DATE_FIELD, RECORDING_ID_FIELD, comparison)
+                    : String.format("WHERE %s %s (?)", RECORDING_ID_FIELD, comparison);
+            SELECT_FIRST_SUMMARIES_PAGE_SENTENCES.put(order,
+                    String.format("%s %s LIMIT (?);", SELECT_RECORDING_SUMMARIES_FIELDS, orderClause));
+            SELECT_NEXT_SUMMARIES_PAGE_SENTENCES.put(order,
+                    String.format("%s %s %s LIMIT (?);", SELECT_RECORDING_SUMMARIES_FIELDS, keysetClause, orderClause));
+        }
+    }
+
+    /**
+     * Orders in which the Recording summaries can be browsed by pages
+     */
+    public enum SummariesOrder {
+        NEWEST_FIRST(true, true),
+        OLDEST_FIRST(true, false),
+        HIGHEST_ID_FIRST(false, true),
+        LOWEST_ID_FIRST(false, false);
+
+        private final boolean byDate;
+        private final boolean descending;
+
+        SummariesOrder(boolean byDate, boolean descending) {
+            this.byDate = byDate;
+            this.descending = descending;
+        }
+
+        public boolean isByDate() {
+            return byDate;
+        }
+
+        public boolean isDescending() {
+            return descending;
+        }
+
+        private String getDirection() {
+            return descending ? "DESC" : "ASC";
+        }
+    }
+
+    /**
+     * What was stored for the input events of a Recording, computed while they were encoded. Used to verify the
+     * stored Recording without reading its events back, see {@link #verifyStoredEvents(StoredEventsChecksum)}.
+     *
+     * @param recordingId   the id of the Recording, 0 if it could not be stored
+     * @param eventsCount   the number of input events
+     * @param payloadsCount the number of payloads referenced by the Recording
+     * @param payloadSize      the stored size in bytes of the payloads
+     * @param checksum         the CRC32C of the encoded partitions
+     * @param payloadsChecksum the CRC32C of the stored payloads checksums in {@link EventPartition} declaration order
+     */
+    public record StoredEventsChecksum(int recordingId, int eventsCount, int payloadsCount, long payloadSize, long checksum, long payloadsChecksum) {
+    }
+
+    /**
+     * The outcome of simplifying the mouse trails of a Recording, see
+     * {@link #simplifyMousePaths(int, double, long)}.
+     *
+     * @param recordingId      the id of the Recording
+     * @param motionEvents     the number of mouse motion events before the simplification
+     * @param removedEvents    the number of removed mouse motion events
+     * @param maxPositionError the largest distance in pixels between a removed motion and the simplified trail
+     */
+    public record MousePathSimplification(int recordingId, int motionEvents, int removedEvents, double maxPositionError) {
+    }
+
+    /*
+     * The full text index is joined through a subquery since its columns have the same names as the RECORDINGS
+     * columns. Matches are sorted by relevance, the most relevant first.
+     */
+    private static final String SEARCH_RECORDING_SUMMARIES_SENTENCE
+            = String.format("%s JOIN (SELECT rowid AS match_id, rank AS match_rank FROM %s WHERE %s MATCH (?)) "
+                    + "ON %s = match_id ORDER BY match_rank, %s DESC LIMIT (?) OFFSET (?);",
+            SELECT_RECORDING_SUMMARIES_FIELDS,
+            RECORDINGS_SEARCH_TABLE,
+            RECORDINGS_SEARCH_TABLE,
+            RECORDING_ID_FIELD,
+            RECORDING_DATE_FIELD
+    );
+    /*
+     * Recordings whose input events are not stored in the current format: in the legacy serialized field, or stored
+     * before the statistics were computed
+     */
+    private static final String SELECT_IDS_WITH_LEGACY_EVENTS_SENTENCE
+            = String.format("SELECT %s FROM %s WHERE %s > (?) AND (%s IS NOT NULL OR %s IS NULL) ORDER BY %s LIMIT (?);",
+            RECORDING_ID_FIELD,
+            DatabaseTable.RECORDINGS.name(),
+            RECORDING_ID_FIELD,
+            RECORDING_INPUT_EVENTS_FIELD,
+            RECORDING_PAYLOAD_SIZE_FIELD,
+            RECORDING_ID_FIELD
+    );
+
+    private static final String CHUNK_SEQUENCE_FIELD = "chunk_sequence";
+    private static final String CHUNK_START_TIME_FIELD = "chunk_start_time";
+    private static final String CHUNK_END_TIME_FIELD = "chunk_end_time";
+    private static final String CHUNK_EVENTS_FIELD = "chunk_events";
+
+    /*
+     * The chunk sequence is computed on the same sentence as the next one of the Recording chunks, so callers don't
+     * need to keep track of it
+     */
+    private static final String INSERT_NEXT_EVENTS_CHUNK_SENTENCE
+            = String.format("INSERT INTO %1$s (%2$s, %3$s, %4$s, %5$s, %6$s) "
+                    + "SELECT (?), COALESCE(MAX(%3$s) + 1, 0), (?), (?), (?) FROM %1$s WHERE %2$s = (?) RETURNING %3$s;",
+            DatabaseTable.RECORDING_EVENT_CHUNKS.name(),
+            RECORDING_ID_FIELD,
+            CHUNK_SEQUENCE_FIELD,
+            CHUNK_START_TIME_FIELD,
+            CHUNK_END_TIME_FIELD,
+            CHUNK_EVENTS_FIELD
+    );
+    private static final String SELECT_EVENTS_CHUNKS_FROM_TIME_SENTENCE
+            = String.format("SELECT %s, %s, %s, %s FROM %s WHERE %s = (?) AND %s >= (?) ORDER BY %s;",
+            CHUNK_SEQUENCE_FIELD,
+            CHUNK_START_TIME_FIELD,
+            CHUNK_END_TIME_FIELD,
+            CHUNK_EVENTS_FIELD,
+            DatabaseTable.RECORDING_EVENT_CHUNKS.name(),
+            RECORDING_ID_FIELD,
+            CHUNK_END_TIME_FIELD,
+            CHUNK_SEQUENCE_FIELD
+    );
+    private static final String DELETE_EVENTS_CHUNKS_WHERE_ID_SENTENCE
+            = String.format("DELETE FROM %s WHERE %s = (?);",
+            DatabaseTable.RECORDING_EVENT_CHUNKS.name(),
+            RECORDING_ID_FIELD
+    );
+
     public RecordingsRepository() {
         try {
             connection = Database.getSqliteConnection();
+            statements = StatementCache.of(connection);
+            payloadStore = new EventPayloadStore(connection);
+            readConnection = Database.getSqliteReadConnection();
+            readStatements = StatementCache.of(readConnection);
+            payloadReader = new EventPayloadStore(readConnection);
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    public PayloadCodec getPayloadCodec() {
+        return payloadCodec;
+    }
+
+    /**
+     * Sets the codec used to compress the input events stored from now on, already stored events keep the codec
+     * they were stored with
+     *
+     * @param payloadCodec the PayloadCodec
+     */
+    public void setPayloadCodec(PayloadCodec payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
+
     public String obtainRecordingTitle(int recordingId) {
         logger.log(Level.ALL, "Retrieving recording title from database. Recording id: {}", recordingId);
         String recordingTitle = null;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_RECORDING_TITLE_BY_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_RECORDING_TITLE_BY_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             recordingTitle = resultSet.getString(1);
@@ -197,27 +520,29 @@ public class RecordingsRepository {
     }
 
     public void updateRecordingTitle(String newTitle, int recordingId) {
-        logger.log(Level.ALL, "Updating database Recording title ({}). Recording id: {}", newTitle, recordingId);
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_RECORDING_TITLE_WHERE_ID_SENTENCE)) {
-            preparedStatement.setString(1, newTitle);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording title. Excecuted query {}. Exception message: {}",
-                    UPDATE_RECORDING_DURATION_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating database Recording title ({}). Recording id: {}", newTitle, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_RECORDING_TITLE_WHERE_ID_SENTENCE)) {
+                preparedStatement.setString(1, newTitle);
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording title. Excecuted query {}. Exception message: {}",
+                        UPDATE_RECORDING_DURATION_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
     public boolean obtainClickEvents(int recordingId) {
         logger.log(Level.ALL, "Retrieving recording click events boolean from database. Recording id: {}", recordingId);
         boolean hasClickEvents= false;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_CLICK_EVENTS_WHERE_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_CLICK_EVENTS_WHERE_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             hasClickEvents= resultSet.getBoolean(1);
@@ -233,28 +558,30 @@ public class RecordingsRepository {
     }
 
     public void updateClickEvents(boolean newClickEvents, int recordingId) {
-        logger.log(Level.ALL, "Updating Recording Click events boolean: ({}). Recording id: {}", newClickEvents, recordingId);
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_CLICK_EVENTS_WHERE_ID_SENTENCE)) {
-            preparedStatement.setBoolean(1, newClickEvents);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Successfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording click events boolean. Executed query {}. Exception message: {}",
-                    UPDATE_CLICK_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating Recording Click events boolean: ({}). Recording id: {}", newClickEvents, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_CLICK_EVENTS_WHERE_ID_SENTENCE)) {
+                preparedStatement.setBoolean(1, newClickEvents);
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Successfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording click events boolean. Executed query {}. Exception message: {}",
+                        UPDATE_CLICK_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
 
     public boolean obtainScrollEvents(int recordingId) {
         logger.log(Level.ALL, "Retrieving recording scroll events boolean from database. Recording id: {}", recordingId);
         boolean hasScrollEvents= false;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_SCROLL_EVENTS_WHERE_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_SCROLL_EVENTS_WHERE_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             hasScrollEvents = resultSet.getBoolean(1);
@@ -270,27 +597,29 @@ public class RecordingsRepository {
     }
 
     public void updateScrollEvents(boolean newScrollEvents, int recordingId) {
-        logger.log(Level.ALL, "Updating Recording MouseEvents boolean: ({}). Recording id: {}", newScrollEvents, recordingId);
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_SCROLL_EVENTS_WHERE_ID_SENTENCE)) {
-            preparedStatement.setBoolean(1, newScrollEvents);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording scroll events boolean. Executed query {}. Exception message: {}",
-                    UPDATE_SCROLL_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating Recording MouseEvents boolean: ({}). Recording id: {}", newScrollEvents, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_SCROLL_EVENTS_WHERE_ID_SENTENCE)) {
+                preparedStatement.setBoolean(1, newScrollEvents);
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording scroll events boolean. Executed query {}. Exception message: {}",
+                        UPDATE_SCROLL_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
     public boolean obtainMouseEvents(int recordingId) {
         logger.log(Level.ALL, "Retrieving recording mouse events boolean from database. Recording id: {}", recordingId);
         boolean hasMouseEvents = false;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_MOUSE_EVENTS_WHERE_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_MOUSE_EVENTS_WHERE_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             hasMouseEvents = resultSet.getBoolean(1);
@@ -306,27 +635,29 @@ public class RecordingsRepository {
     }
 
     public void updateMouseEvents(boolean newMouseEvents, int recordingId) {
-        logger.log(Level.ALL, "Updating Recording MouseEvents boolean: ({}). Recording id: {}", newMouseEvents, recordingId);
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_MOUSE_EVENTS_WHERE_ID_SENTENCE)) {
-            preparedStatement.setBoolean(1, newMouseEvents);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording mouseEvents boolean. Excecuted query {}. Exception message: {}",
-                    UPDATE_MOUSE_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating Recording MouseEvents boolean: ({}). Recording id: {}", newMouseEvents, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_MOUSE_EVENTS_WHERE_ID_SENTENCE)) {
+                preparedStatement.setBoolean(1, newMouseEvents);
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording mouseEvents boolean. Excecuted query {}. Exception message: {}",
+                        UPDATE_MOUSE_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
     public boolean obtainKeyboardEvents(int recordingId) {
         logger.log(Level.ALL, "Retrieving recording keyboard events boolean from database. Recording id: {}", recordingId);
         boolean hasKeyboardEvents= false;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_KEYBOARD_EVENTS_WHERE_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_KEYBOARD_EVENTS_WHERE_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             hasKeyboardEvents= resultSet.getBoolean(1);
@@ -342,27 +673,29 @@ public class RecordingsRepository {
     }
 
     public void updateKeyboardEvents(boolean newKeyboardEvents, int recordingId) {
-        logger.log(Level.ALL, "Updating Recording Keyboard events boolean: ({}). Recording id: {}", newKeyboardEvents, recordingId);
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_KEYBOARD_EVENTS_WHERE_ID_SENTENCE)) {
-            preparedStatement.setBoolean(1, newKeyboardEvents);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording keyboard events boolean. Executed query {}. Exception message: {}",
-                    SELECT_KEYBOARD_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating Recording Keyboard events boolean: ({}). Recording id: {}", newKeyboardEvents, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_KEYBOARD_EVENTS_WHERE_ID_SENTENCE)) {
+                preparedStatement.setBoolean(1, newKeyboardEvents);
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording keyboard events boolean. Executed query {}. Exception message: {}",
+                        SELECT_KEYBOARD_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
     public String obtainRecordingDescription(int recordingId) {
         logger.log(Level.ALL, "Retrieving recording description from database. Recording id: {}", recordingId);
         String recordingDescription = null;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_RECORDING_DESCRIPTION_BY_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_RECORDING_DESCRIPTION_BY_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             recordingDescription = resultSet.getString(1);
@@ -378,32 +711,34 @@ public class RecordingsRepository {
     }
 
     public void updateRecordingDescription(String newDescription, int recordingId) {
-        logger.log(Level.ALL, "Updating database Recording description ({}). Recording id: {}", newDescription, recordingId);
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_RECORDING_DESCRIPTION_WHERE_ID_SENTENCE)) {
-            preparedStatement.setString(1, newDescription);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording description. Excecuted query {}. Exception message: {}",
-                    UPDATE_RECORDING_DESCRIPTION_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating database Recording description ({}). Recording id: {}", newDescription, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_RECORDING_DESCRIPTION_WHERE_ID_SENTENCE)) {
+                preparedStatement.setString(1, newDescription);
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording description. Excecuted query {}. Exception message: {}",
+                        UPDATE_RECORDING_DESCRIPTION_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
 
     public LocalDate obtainRecordingDate(int recordingId) {
-        logger.log(Level.ALL, "Retrieving Recording date from database. Date format: {}. Recording id: {}", Recording.DATE_TIME_FORMAT, recordingId);
+        logger.log(Level.ALL, "Retrieving Recording date from database. Recording id: {}", recordingId);
         LocalDate recordingDate = null;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_RECORDING_DATE_BY_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_RECORDING_DATE_BY_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
-            String retrievedDate = resultSet.getString(1);
-            recordingDate = LocalDate.parse(retrievedDate, DateTimeFormatter.ofPattern(Recording.DATE_TIME_FORMAT));
+            long retrievedDate = resultSet.getLong(1);
+            recordingDate = DataUtils.fromEpochMillis(retrievedDate).toLocalDate();
         } catch (Exception e) {
             logger.log(
                     Level.ERROR,
@@ -416,34 +751,31 @@ public class RecordingsRepository {
     }
 
     public void updateRecordingDate(LocalDateTime newDateTime, int recordingId) {
-        var dateTimeFormatter = DateTimeFormatter.ofPattern(Recording.DATE_TIME_FORMAT);
-        logger.log(
-                Level.ALL, "Updating database Recording date ({}). Date format: {}. Recording id: {}",
-                newDateTime, Recording.DATE_TIME_FORMAT, recordingId
-        );
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_RECORDING_DATE_WHERE_ID_SENTENCE)) {
-            String dateString = newDateTime.format(dateTimeFormatter);
-            preparedStatement.setString(1, dateString);
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count",
-                    modifiedRows);
-        } catch (Exception e) {
-            logger.log(
-                    Level.ERROR,
-                    "Could not update Recording date value. Excecuted query {}. Exception message: {}",
-                    UPDATE_RECORDING_DATE_WHERE_ID_SENTENCE, e.getMessage()
-            );
-            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
-        }
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating database Recording date ({}). Recording id: {}", newDateTime, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_RECORDING_DATE_WHERE_ID_SENTENCE)) {
+                preparedStatement.setLong(1, DataUtils.toEpochMillis(newDateTime));
+                preparedStatement.setInt(2, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count",
+                        modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording date value. Excecuted query {}. Exception message: {}",
+                        UPDATE_RECORDING_DATE_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
 
     public float obtainRecordingDuration(int recordingId) {
         float recordingDuration = 0f;
         logger.log(Level.ALL, "Retrieving recording duration from database. Recording id: {}", recordingId);
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_RECORDING_DURATION_BY_ID_SENTENCE)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_RECORDING_DURATION_BY_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
             ResultSet resultSet = preparedStatement.executeQuery();
             recordingDuration = resultSet.getFloat(1);
@@ -459,65 +791,484 @@ public class RecordingsRepository {
     }
 
     public void updateRecordingDuration(float duration, int recordingId) {
-        logger.log(Level.ALL, "Updating database Recording duration ({}). Recording id: {}", duration, recordingId);
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Updating database Recording duration ({}). Recording id: {}", duration, recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_RECORDING_DURATION_WHERE_ID_SENTENCE)) {
+                preparedStatement.setFloat(1, duration); // specifies recording duration
+                preparedStatement.setInt(2, recordingId);// specifies recording id
+                int modifiedRows = preparedStatement.executeUpdate();
+
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
+            } catch (Exception e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording duration value. Excecuted query {}. Exception message: {}",
+                        UPDATE_RECORDING_DURATION_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
+    }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_RECORDING_DURATION_WHERE_ID_SENTENCE)) {
-            preparedStatement.setFloat(1, duration); // specifies recording duration
-            preparedStatement.setInt(2, recordingId);// specifies recording id
-            int modifiedRows = preparedStatement.executeUpdate();
+    public Queue<ReplayableAction> obtainInputEvents(int recordingId) {
+        return this.obtainInputEvents(recordingId, EnumSet.allOf(EventPartition.class));
+    }
 
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count", modifiedRows);
-        } catch (Exception e) {
+    /**
+     * Retrieves only the input events of the given partitions, the remaining partitions are neither read nor
+     * decoded
+     *
+     * @param recordingId the id of the Recording
+     * @param partitions  the partitions to retrieve
+     * @return the events of the given partitions ordered by execution time or null if they could not be retrieved
+     */
+    public Queue<ReplayableAction> obtainInputEvents(int recordingId, Set<EventPartition> partitions) {
+        logger.log(Level.ALL, "Retrieving Recording {} input events from database. Recording id: {}", partitions, recordingId);
+        Queue<ReplayableAction> inputEvents = null;
+        String selectSentence = buildSelectPartitionsSentence(partitions);
+
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(selectSentence)) {
+            preparedStatement.setInt(1, recordingId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                inputEvents = this.decodeInputEvents(resultSet, partitions);
+            }
+        } catch (SQLException | IOException | ClassNotFoundException e) {
             logger.log(
                     Level.ERROR,
-                    "Could not update Recording duration value. Excecuted query {}. Exception message: {}",
-                    UPDATE_RECORDING_DURATION_WHERE_ID_SENTENCE, e.getMessage()
+                    "Could not retrieve Recording input events, using default value: {}. Exception message: {}. Executed query {}",
+                    inputEvents, e.getMessage(), selectSentence
             );
             DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
         }
+
+        return inputEvents;
+    }
+
+    /**
+     * Decodes the input events of the given partitions of the Recording in the current row of the result set.
+     * Events are read from the legacy input events field for Recordings saved before events were partitioned, and
+     * for each partition from the payload store otherwise.
+     *
+     * @param resultSet  the result set positioned at a Recording row, containing the legacy field and the given
+     *                   partitions fields
+     * @param partitions the partitions to decode
+     * @return the events of the given partitions ordered by execution time
+     * @throws SQLException           if an exception related to jdbc
+     * @throws IOException            if an exception occurs while loading or decoding the events
+     * @throws ClassNotFoundException if the class of a legacy serialized input events field could not be found
+     */
+    private LinkedList<ReplayableAction> decodeInputEvents(ResultSet resultSet, Set<EventPartition> partitions) throws SQLException, IOException, ClassNotFoundException {
+        byte[] legacyInputEvents = resultSet.getBytes(RECORDING_INPUT_EVENTS_FIELD);
+        if (legacyInputEvents != null) { // Recording saved before events were partitioned
+            var inputEvents = InputEventsCodec.decode(legacyInputEvents);
+            inputEvents.removeIf(inputEvent -> !partitions.contains(EventPartition.of(inputEvent)));
+            return inputEvents;
+        }
+        var partitionsEvents = new EnumMap<EventPartition, LinkedList<ReplayableAction>>(EventPartition.class);
+        for (EventPartition partition : partitions) {
+            String payloadHash = resultSet.getString(PARTITIONS_HASH_FIELDS[partition.ordinal()]);
+            partitionsEvents.put(partition, payloadHash != null ?
+                    InputEventsCodec.decode(payloadReader.load(payloadHash)) : new LinkedList<>());
+        }
+        return EventPartition.merge(partitionsEvents);
+    }
+
+    /**
+     * Builds a select sentence of the given partitions hashes fields and the legacy input events field. The legacy
+     * field is only non-null for Recordings saved before events were stored in the payload store.
+     *
+     * @param partitions the partitions to select
+     * @return the select by id sentence
+     */
+    private static String buildSelectPartitionsSentence(Set<EventPartition> partitions) {
+        var selectedFields = new StringJoiner(", ");
+        selectedFields.add(RECORDING_INPUT_EVENTS_FIELD);
+        partitions.forEach(partition -> selectedFields.add(PARTITIONS_HASH_FIELDS[partition.ordinal()]));
+        return String.format("SELECT %s FROM %s WHERE %s = (?);",
+                selectedFields, DatabaseTable.RECORDINGS.name(), RECORDING_ID_FIELD);
+    }
+
+    /**
+     * The encoded input events of a Recording
+     *
+     * @param partitions          the encoded events of each partition in {@link EventPartition} declaration order,
+     *                            null for partitions without events
+     * @param hashes              the payload store hash of each partition, null for partitions without events
+     * @param checksum            the CRC32C of the encoded partitions in {@link EventPartition} declaration order
+     * @param statisticsCollector the statistics of the events, missing the stored payload size
+     * @param storedChecksums     the checksum of each stored partition payload, filled when the partitions are stored
+     */
+    private record EncodedEvents(byte[][] partitions, String[] hashes, long checksum, RecordingStatistics.Collector statisticsCollector, long[] storedChecksums) {
+
+        private int payloadsCount() {
+            return (int) Arrays.stream(hashes).filter(Objects::nonNull).count();
+        }
+
+        private long payloadsChecksum() {
+            return RecordingsRepository.payloadsChecksum(hashes, storedChecksums);
+        }
     }
 
-    public Map<Long, ReplayableAction> obtainInputEvents(int recordingId) {
-        logger.log(Level.ALL, "Retrieving Recording input events from database. Recording id: {}", recordingId);
-        Map<Long, ReplayableAction> inputEvents = null;
-        byte[] serializedInputEvent;
+    /**
+     * Combines the checksums of the stored payloads of a Recording partitions
+     *
+     * @param hashes          the hash of each partition in {@link EventPartition} declaration order, null for
+     *                        partitions without events
+     * @param storedChecksums the checksum of each stored partition payload in the same order
+     * @return the CRC32C of the checksums of the partitions with events
+     */
+    private static long payloadsChecksum(String[] hashes, long[] storedChecksums) {
+        var checksum = new CRC32C();
+        var checksumBytes = ByteBuffer.allocate(Long.BYTES);
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != null) {
+                checksum.update(checksumBytes.clear().putLong(storedChecksums[i]).flip());
+            }
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Encodes the given events by partition, computing their statistics in the same pass that groups them
+     *
+     * @param inputEvents the events to encode ordered by execution time
+     * @return the encoded events
+     */
+    private static EncodedEvents encodeEvents(Queue<ReplayableAction> inputEvents) {
+        var partitionsEvents = new EnumMap<EventPartition, LinkedList<ReplayableAction>>(EventPartition.class);
+        for (EventPartition partition : EventPartition.values()) {
+            partitionsEvents.put(partition, new LinkedList<>());
+        }
+        var statisticsCollector = new RecordingStatistics.Collector();
+        for (ReplayableAction inputEvent : inputEvents) {
+            partitionsEvents.get(EventPartition.of(inputEvent)).add(inputEvent);
+            statisticsCollector.accept(inputEvent);
+        }
+
+        var encodedPartitions = new byte[EventPartition.values().length][];
+        var hashes = new String[EventPartition.values().length];
+        var checksum = new CRC32C();
+        for (EventPartition partition : EventPartition.values()) {
+            var partitionEvents = partitionsEvents.get(partition);
+            if (!partitionEvents.isEmpty()) {
+                encodedPartitions[partition.ordinal()] = InputEventsCodec.encode(partitionEvents, InputEventsCodec.Encoding.COLUMNAR);
+                hashes[partition.ordinal()] = EventPayloadStore.hash(encodedPartitions[partition.ordinal()]);
+                checksum.update(encodedPartitions[partition.ordinal()]);
+            }
+        }
+        return new EncodedEvents(encodedPartitions, hashes, checksum.getValue(), statisticsCollector, new long[hashes.length]);
+    }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(SELECT_INPUT_EVENTS_BY_ID_SENTENCE)) {
+    /**
+     * Adds a reference to each encoded partition on the payload store, storing the partitions that are not stored
+     * yet. Must be called inside a transaction.
+     *
+     * @param encodedEvents the encoded events
+     * @return the statistics of the events including the stored payload size
+     * @throws SQLException if a partition could not be stored
+     */
+    private RecordingStatistics storeEncodedEvents(EncodedEvents encodedEvents) throws SQLException {
+        long payloadSize = 0;
+        for (int i = 0; i < encodedEvents.partitions().length; i++) {
+            if (encodedEvents.partitions()[i] != null) {
+                var storedPayload = payloadStore.acquire(encodedEvents.hashes()[i], encodedEvents.partitions()[i], payloadCodec);
+                payloadSize += storedPayload.size();
+                encodedEvents.storedChecksums()[i] = storedPayload.checksum();
+            }
+        }
+        return encodedEvents.statisticsCollector().toStatistics(payloadSize);
+    }
+
+    /**
+     * Binds the given partitions hashes, checksum and statistics to the parameters of the
+     * {@link #ENCODED_EVENTS_FIELDS} fields
+     *
+     * @param preparedStatement the statement where the parameters are bound
+     * @param parameterIndex    the index of the first parameter
+     * @param encodedEvents     the encoded events
+     * @param statistics        the events statistics
+     * @return the index of the next parameter
+     * @throws SQLException if a parameter could not be bound
+     */
+    private static int bindEncodedEvents(PreparedStatement preparedStatement, int parameterIndex, EncodedEvents encodedEvents, RecordingStatistics statistics) throws SQLException {
+        for (String hash : encodedEvents.hashes()) {
+            preparedStatement.setString(parameterIndex++, hash);
+        }
+        return bindStatistics(preparedStatement, parameterIndex, encodedEvents.checksum(), statistics);
+    }
+
+    /**
+     * Binds the given events count, checksum and statistics to the parameters of the fields that follow the hashes
+     * in {@link #ENCODED_EVENTS_FIELDS}
+     *
+     * @param preparedStatement the statement where the parameters are bound
+     * @param parameterIndex    the index of the first parameter
+     * @param checksum          the CRC32C of the encoded partitions
+     * @param statistics        the events statistics
+     * @return the index of the next parameter
+     * @throws SQLException if a parameter could not be bound
+     */
+    private static int bindStatistics(PreparedStatement preparedStatement, int parameterIndex, long checksum, RecordingStatistics statistics) throws SQLException {
+        preparedStatement.setInt(parameterIndex++, statistics.eventsCount());
+        preparedStatement.setLong(parameterIndex++, checksum);
+        preparedStatement.setInt(parameterIndex++, statistics.motionEventsCount());
+        preparedStatement.setInt(parameterIndex++, statistics.buttonEventsCount());
+        preparedStatement.setInt(parameterIndex++, statistics.wheelEventsCount());
+        preparedStatement.setInt(parameterIndex++, statistics.keyEventsCount());
+        preparedStatement.setLong(parameterIndex++, statistics.firstEventTime());
+        preparedStatement.setLong(parameterIndex++, statistics.lastEventTime());
+        preparedStatement.setInt(parameterIndex++, statistics.mouseMinX());
+        preparedStatement.setInt(parameterIndex++, statistics.mouseMinY());
+        preparedStatement.setInt(parameterIndex++, statistics.mouseMaxX());
+        preparedStatement.setInt(parameterIndex++, statistics.mouseMaxY());
+        preparedStatement.setInt(parameterIndex++, statistics.peakEventsPerSecond());
+        preparedStatement.setLong(parameterIndex++, statistics.payloadSize());
+        return parameterIndex;
+    }
+
+    /**
+     * Obtains the payload store hashes of the Recording partitions
+     *
+     * @param sourceStatements the statements of the connection used to query the hashes
+     * @param recordingId      the id of the Recording
+     * @return the hash of each partition in {@link EventPartition} declaration order, null for partitions without
+     * events. Null if the Recording events are stored in its legacy field.
+     * @throws SQLException if the hashes could not be retrieved
+     */
+    private static String[] selectPartitionsHashes(StatementCache sourceStatements, int recordingId) throws SQLException {
+        try (PreparedStatement preparedStatement = sourceStatements.prepareStatement(SELECT_PARTITIONS_HASHES_BY_ID_SENTENCE)) {
             preparedStatement.setInt(1, recordingId);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            serializedInputEvent = resultSet.getBytes(1); // get the serialized Map in an array of bytes
-            inputEvents = DataUtils.objectFromBytes(serializedInputEvent, LinkedHashMap.class); // deserializes the bytes to a LinkedHashMap object
-        } catch (SQLException | IOException | ClassNotFoundException e) {
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getBoolean(LEGACY_EVENTS_FIELD)) {
+                    return null;
+                }
+                var hashes = new String[PARTITIONS_HASH_FIELDS.length];
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = resultSet.getString(PARTITIONS_HASH_FIELDS[i]);
+                }
+                return hashes;
+            }
+        }
+    }
+
+    /**
+     * Removes the Recording references to its partitions payloads, deleting the payloads no longer referenced. Must be
+     * called inside a transaction.
+     *
+     * @param recordingId the id of the Recording
+     * @throws SQLException if the references could not be removed
+     */
+    private void releasePartitionsPayloads(int recordingId) throws SQLException {
+        var hashes = selectPartitionsHashes(statements, recordingId);
+        if (hashes == null) {
+            return;
+        }
+        for (String hash : hashes) {
+            if (hash != null) {
+                payloadStore.release(hash);
+            }
+        }
+    }
+
+    /**
+     * Compares the stored input events of two Recordings using the hashes of their payloads, without loading them
+     *
+     * @param recordingId      the id of a Recording
+     * @param otherRecordingId the id of the other Recording
+     * @return true if both Recordings have the same input events, false if they differ, could not be compared or any
+     * of them has its events stored in the legacy field
+     */
+    public boolean haveSameInputEvents(int recordingId, int otherRecordingId) {
+        try {
+            var hashes = selectPartitionsHashes(readStatements, recordingId);
+            return hashes != null && Arrays.equals(hashes, selectPartitionsHashes(readStatements, otherRecordingId));
+        } catch (SQLException e) {
             logger.log(
                     Level.ERROR,
-                    "Could not retrieve Recording input events, using default value: {}. Exception message: {}. Executed query {}",
-                    inputEvents, e.getMessage(), SELECT_INPUT_EVENTS_BY_ID_SENTENCE
+                    "Could not compare Recordings {} and {} input events. Executed query {}. Exception message: {}",
+                    recordingId, otherRecordingId, SELECT_PARTITIONS_HASHES_BY_ID_SENTENCE, e.getMessage()
             );
             DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            return false;
         }
+    }
 
-        return inputEvents;
+    /**
+     * Replaces the Recording input events. The new payloads are referenced before the previous ones are released, so
+     * payloads shared by both are kept.
+     *
+     * @param inputEvents the new input events ordered by execution time
+     * @param recordingId the id of the Recording
+     * @return true if the input events of the Recording were replaced and the transaction committed
+     */
+    public boolean updateRecordingInputEvents(Queue<ReplayableAction> inputEvents, int recordingId) {
+        return DatabaseExecutor.callWrite(() -> {
+            logger.log(Level.ALL, "Updating database Recording input events: ({} events). \n Recording id: {}", inputEvents.size(), recordingId);
+            boolean updated = false;
+
+            try {
+                var encodedEvents = encodeEvents(inputEvents);
+                connection.setAutoCommit(false);
+                var previousHashes = selectPartitionsHashes(statements, recordingId);
+                var statistics = this.storeEncodedEvents(encodedEvents);
+                int modifiedRows;
+                try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_INPUT_EVENTS_WHERE_ID_SENTENCE)) {
+                    int parameterIndex = bindEncodedEvents(preparedStatement, 1, encodedEvents, statistics);
+                    preparedStatement.setInt(parameterIndex, recordingId);
+                    modifiedRows = preparedStatement.executeUpdate();
+                }
+                if (previousHashes != null) {
+                    for (String previousHash : previousHashes) {
+                        if (previousHash != null) {
+                            payloadStore.release(previousHash);
+                        }
+                    }
+                }
+                connection.commit();
+                updated = modifiedRows > 0;
+
+                logger.log(Level.ALL, "Sucessfully execute script with a {} modified rows count. Encoded events size: {} bytes",
+                        modifiedRows, statistics.payloadSize());
+            } catch (SQLException | IllegalArgumentException e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording input events value. Executed query {}. Exception message: {}",
+                        UPDATE_INPUT_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+                this.rollback();
+            } finally {
+                this.restoreAutoCommit();
+            }
+            return updated;
+        });
     }
 
-    public <T extends Queue<ReplayableAction>  & Serializable> void updateRecordingInputEvents(T inputEvents, int recordingId) {
-        String inputEventsString = inputEvents.stream().map(ReplayableAction::toString).collect(Collectors.joining("\t"));
-        logger.log(Level.ALL, "Updating database Recording input events: ({}). \n Recording id: {}", inputEventsString, recordingId);
+    /**
+     * Appends the given events as the next chunk of the Recording input events. Intended to store the events of long
+     * recordings while they are being captured, so only the last chunk needs to be kept in memory.
+     *
+     * @param chunkEvents the chunk events ordered by execution time, they must occur after the events of the
+     *                    previously appended chunks
+     * @param recordingId the id of the Recording
+     * @return the sequence assigned to the appended chunk or -1 if the chunk could not be appended
+     */
+    public int appendInputEventsChunk(Queue<ReplayableAction> chunkEvents, int recordingId) {
+        return DatabaseExecutor.callWrite(() -> {
+            logger.log(Level.ALL, "Appending Recording input events chunk: ({} events). Recording id: {}", chunkEvents.size(), recordingId);
+            int chunkSequence = -1;
+            if (chunkEvents.isEmpty()) {
+                logger.log(Level.WARN, "Empty input events chunk won't be appended. Recording id: {}", recordingId);
+                return chunkSequence;
+            }
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_INPUT_EVENTS_WHERE_ID_SENTENCE)) {
-            preparedStatement.setBytes(1, DataUtils.toBytes(inputEvents)); // inserts the serialized object as a byte array
-            preparedStatement.setInt(2, recordingId);
-            int modifiedRows = preparedStatement.executeUpdate();
+            long startTime = Long.MAX_VALUE;
+            long endTime = Long.MIN_VALUE;
+            for (ReplayableAction chunkEvent : chunkEvents) {
+                startTime = Math.min(startTime, chunkEvent.getRelativeExecutionTime());
+                endTime = Math.max(endTime, chunkEvent.getRelativeExecutionTime());
+            }
 
-            logger.log(Level.ALL, "Sucessfully execute script with a {} modified rows count", modifiedRows);
-        } catch (SQLException | IOException e) {
+            try (PreparedStatement preparedStatement = statements.prepareStatement(INSERT_NEXT_EVENTS_CHUNK_SENTENCE)) {
+                byte[] encodedEvents = InputEventsCodec.encode(chunkEvents);
+                preparedStatement.setInt(1, recordingId);
+                preparedStatement.setLong(2, startTime);
+                preparedStatement.setLong(3, endTime);
+                preparedStatement.setBytes(4, encodedEvents);
+                preparedStatement.setInt(5, recordingId);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    chunkSequence = resultSet.getInt(CHUNK_SEQUENCE_FIELD);
+                }
+                logger.log(Level.ALL, "Chunk {} appended. Encoded events size: {} bytes", chunkSequence, encodedEvents.length);
+            } catch (SQLException | IllegalArgumentException e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not append Recording input events chunk. Executed query {}. Exception message: {}",
+                        INSERT_NEXT_EVENTS_CHUNK_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+            return chunkSequence;
+        });
+    }
+
+    /**
+     * Iterates every input events chunk of the Recording in sequence order
+     *
+     * @param recordingId   the id of the Recording
+     * @param chunkConsumer the consumer of each chunk
+     * @return the number of chunks given to the consumer
+     * @see #forEachInputEventsChunk(int, long, Consumer)
+     */
+    public int forEachInputEventsChunk(int recordingId, Consumer<RecordingEventsChunk> chunkConsumer) {
+        return this.forEachInputEventsChunk(recordingId, Long.MIN_VALUE, chunkConsumer);
+    }
+
+    /**
+     * Iterates in sequence order the input events chunks of the Recording that have events at or after the given
+     * time. Chunks are read and decoded one at a time, so only the chunk given to the consumer is held in memory
+     * unless the consumer retains it.
+     *
+     * @param recordingId   the id of the Recording
+     * @param fromTime      the relative execution time from where the events are needed
+     * @param chunkConsumer the consumer of each chunk
+     * @return the number of chunks given to the consumer
+     */
+    public int forEachInputEventsChunk(int recordingId, long fromTime, Consumer<RecordingEventsChunk> chunkConsumer) {
+        logger.log(Level.ALL, "Iterating Recording input events chunks from time {}. Recording id: {}", fromTime, recordingId);
+        int consumedChunks = 0;
+
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_EVENTS_CHUNKS_FROM_TIME_SENTENCE)) {
+            preparedStatement.setInt(1, recordingId);
+            preparedStatement.setLong(2, fromTime);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    var chunk = new RecordingEventsChunk(
+                            recordingId,
+                            resultSet.getInt(CHUNK_SEQUENCE_FIELD),
+                            resultSet.getLong(CHUNK_START_TIME_FIELD),
+                            resultSet.getLong(CHUNK_END_TIME_FIELD),
+                            InputEventsCodec.decode(resultSet.getBytes(CHUNK_EVENTS_FIELD))
+                    );
+                    chunkConsumer.accept(chunk);
+                    consumedChunks++;
+                }
+            }
+            logger.log(Level.ALL, "{} input events chunks were iterated", consumedChunks);
+        } catch (SQLException | IOException | ClassNotFoundException e) {
             logger.log(
                     Level.ERROR,
-                    "Could not update Recording input events value. Executed query {}. Exception message: {}",
-                    UPDATE_INPUT_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                    "Could not iterate Recording input events chunks, {} chunks were iterated. Exception message: {}. Executed query {}",
+                    consumedChunks, e.getMessage(), SELECT_EVENTS_CHUNKS_FROM_TIME_SENTENCE
             );
             DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
         }
+        return consumedChunks;
+    }
 
+    /**
+     * Deletes every input events chunk of the Recording, e.g. when a capture is discarded
+     *
+     * @param recordingId the id of the Recording
+     */
+    public void deleteInputEventsChunks(int recordingId) {
+        DatabaseExecutor.runWrite(() -> {
+            logger.log(Level.ALL, "Deleting Recording input events chunks. Recording id: {}", recordingId);
+
+            try (PreparedStatement preparedStatement = statements.prepareStatement(DELETE_EVENTS_CHUNKS_WHERE_ID_SENTENCE)) {
+                preparedStatement.setInt(1, recordingId);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Successfully execute script with a {} modified rows count", modifiedRows);
+            } catch (SQLException e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not delete Recording input events chunks. Executed query {}. Exception message: {}",
+                        DELETE_EVENTS_CHUNKS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            }
+        });
     }
 
     public Recording getRecordingById(int recordingId) {
@@ -526,12 +1277,13 @@ public class RecordingsRepository {
         String selectSentence = DatabaseTable.RECORDINGS.getSelectByIdSentence();
         Recording retrievedRecording = null;
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(selectSentence)) {
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(selectSentence)) {
 
             preparedStatement.setInt(1, recordingId);
             try (ResultSet resultSet = preparedStatement.executeQuery()) { //obtains the resultset from the query execution
                 resultSet.next(); // moves iterator to first result
-                retrievedRecording = RecordingMapper.mapRecordingFromResultSet(resultSet);//assigns the retrievedRecording using the Recording mapper
+                var inputEvents = this.decodeInputEvents(resultSet, EnumSet.allOf(EventPartition.class));
+                retrievedRecording = RecordingMapper.mapRecordingFromResultSet(resultSet, inputEvents);//assigns the retrievedRecording using the Recording mapper
             }
             logger.log(Level.ALL, "Return retrieved Recording {}", retrievedRecording);
         } catch (SQLException | IOException | ClassNotFoundException e) {
@@ -545,45 +1297,548 @@ public class RecordingsRepository {
         return retrievedRecording;
     }
 
+    /**
+     * Inserts the given Recording with all its fields using a single sentence executed in its own transaction, so
+     * either the whole Recording is stored or nothing is
+     *
+     * @param recordingToInsert the Recording to insert
+     * @return the id of the inserted Recording or 0 if it could not be inserted
+     */
     public int insertRecording(Recording recordingToInsert) {
-        String insertSentence = DatabaseTable.RECORDINGS.getInsertDefaultSentence();
-        logger.log(Level.ALL, "Inserting new Recording row in {} database table", DatabaseTable.RECORDINGS.name());
-        int newRowId = 0;
+        return this.insertRecordingWithChecksum(recordingToInsert).recordingId();
+    }
 
-        /* Adds a new row on the recordings table with default values*/
-        try (
-                PreparedStatement preparedStatement = connection.prepareStatement(insertSentence);
-                ResultSet resultSet = preparedStatement.executeQuery();
-        ) {
-            newRowId = resultSet.getInt(1);
-            if (newRowId == 0) {
-                newRowId = resultSet.getInt(RECORDING_ID_FIELD);
+    /**
+     * Inserts the given Recording as {@link #insertRecording(Recording)} does, also returning what was stored for its
+     * input events so the Recording can be verified without reading them back
+     *
+     * @param recordingToInsert the Recording to insert
+     * @return the checksum of the stored input events, with a 0 Recording id if it could not be inserted
+     */
+    public StoredEventsChecksum insertRecordingWithChecksum(Recording recordingToInsert) {
+        return DatabaseExecutor.callWrite(() -> {
+            logger.log(Level.ALL, "Inserting new Recording row in {} database table", DatabaseTable.RECORDINGS.name());
+            int newRowId = 0;
+            StoredEventsChecksum storedEventsChecksum = new StoredEventsChecksum(0, 0, 0, 0, 0, 0);
+
+            try {
+                var encodedEvents = encodeEvents(recordingToInsert.getInputEvents());
+                connection.setAutoCommit(false);
+                var statistics = this.storeEncodedEvents(encodedEvents);
+                try (PreparedStatement preparedStatement = statements.prepareStatement(INSERT_RECORDING_SENTENCE)) {
+                    preparedStatement.setString(1, recordingToInsert.getRecordingTitle());
+                    preparedStatement.setString(2, recordingToInsert.getRecordingDescription());
+                    preparedStatement.setLong(3, DataUtils.toEpochMillis(recordingToInsert.getRecordingDateTime()));
+                    preparedStatement.setFloat(4, recordingToInsert.getRecordingDuration());
+                    preparedStatement.setBoolean(5, recordingToInsert.isMouseEvents());
+                    preparedStatement.setBoolean(6, recordingToInsert.isKeyboardEvents());
+                    preparedStatement.setBoolean(7, recordingToInsert.isScrollEvents());
+                    preparedStatement.setBoolean(8, recordingToInsert.isClickEvents());
+                    bindEncodedEvents(preparedStatement, 9, encodedEvents, statistics);
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        newRowId = resultSet.getInt(RECORDING_ID_FIELD);
+                    }
+                }
+                connection.commit();
+                storedEventsChecksum = new StoredEventsChecksum(
+                        newRowId, statistics.eventsCount(), encodedEvents.payloadsCount(), statistics.payloadSize(),
+                        encodedEvents.checksum(), encodedEvents.payloadsChecksum()
+                );
+                logger.log(Level.ALL, "A new Recording was inserted on database with id: {}", newRowId);
+            } catch (SQLException | IllegalArgumentException e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not insert the Recording. Returning default value for insertedId {}. Excecuted query {}. Exception message: {}",
+                        0, INSERT_RECORDING_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+                this.rollback();
+            } finally {
+                this.restoreAutoCommit();
             }
-            logger.log(Level.ALL, "A new empty Recording was inserted on database with id: {}", newRowId);
-        } catch (Exception e) {
+            return storedEventsChecksum;
+        });
+    }
+
+    /**
+     * Verifies the stored input events of a Recording match what was computed while they were encoded: the row
+     * checksum and events count are compared, and the stored length and checksum of each referenced payload are
+     * selected and compared with the ones returned when it was stored. The payloads are not read back.
+     *
+     * @param expected what was stored for the input events, see {@link #insertRecordingWithChecksum(Recording)}
+     * @return true if the stored input events match, false if they don't or could not be verified
+     */
+    public boolean verifyStoredEvents(StoredEventsChecksum expected) {
+        logger.log(Level.ALL, "Verifying stored input events {}", expected);
+        if (expected.recordingId() == 0) {
+            return false;
+        }
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_EVENTS_CHECKSUM_BY_ID_SENTENCE)) {
+            preparedStatement.setInt(1, expected.recordingId());
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()
+                        || resultSet.getInt(RECORDING_EVENTS_COUNT_FIELD) != expected.eventsCount()
+                        || resultSet.getLong(RECORDING_EVENTS_CHECKSUM_FIELD) != expected.checksum()) {
+                    logger.log(Level.WARN, "Recording {} row doesn't match its input events", expected.recordingId());
+                    return false;
+                }
+                long payloadSize = 0;
+                int payloadsCount = 0;
+                var hashes = new String[PARTITIONS_HASH_FIELDS.length];
+                var storedChecksums = new long[hashes.length];
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = resultSet.getString(PARTITIONS_HASH_FIELDS[i]);
+                    if (hashes[i] != null) {
+                        var storedPayload = payloadReader.obtainStoredPayload(hashes[i]);
+                        payloadSize += storedPayload.size();
+                        storedChecksums[i] = storedPayload.checksum();
+                        payloadsCount++;
+                    }
+                }
+                boolean verified = payloadsCount == expected.payloadsCount()
+                        && payloadSize == expected.payloadSize()
+                        && payloadsChecksum(hashes, storedChecksums) == expected.payloadsChecksum()
+                        && payloadSize == resultSet.getLong(RECORDING_PAYLOAD_SIZE_FIELD);
+                logger.log(Level.ALL, "Recording {} stored input events verified: {}", expected.recordingId(), verified);
+                return verified;
+            }
+        } catch (SQLException | IOException e) {
             logger.log(
                     Level.ERROR,
-                    "Could not insert the Recording. Returning default value for insertedId {}. Excecuted query {}. Exception message: {}",
-                    newRowId, insertSentence, e.getMessage()
+                    "Could not verify Recording {} stored input events. Executed query {}. Exception message: {}",
+                    expected.recordingId(), SELECT_EVENTS_CHECKSUM_BY_ID_SENTENCE, e.getMessage()
             );
             DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            return false;
         }
+    }
+
+    /**
+     * Deletes the Recording with its input events chunks, releasing its input events payloads
+     *
+     * @param recordingId the id of the Recording
+     * @return true if the Recording was deleted
+     */
+    public boolean deleteRecording(int recordingId) {
+        return DatabaseExecutor.callWrite(() -> {
+            logger.log(Level.ALL, "Deleting Recording from database. Recording id: {}", recordingId);
+            boolean deleted = false;
+
+            try {
+                connection.setAutoCommit(false);
+                this.releasePartitionsPayloads(recordingId);
+                try (PreparedStatement preparedStatement = statements.prepareStatement(DELETE_EVENTS_CHUNKS_WHERE_ID_SENTENCE)) {
+                    preparedStatement.setInt(1, recordingId);
+                    preparedStatement.executeUpdate();
+                }
+                try (PreparedStatement preparedStatement = statements.prepareStatement(DELETE_RECORDING_WHERE_ID_SENTENCE)) {
+                    preparedStatement.setInt(1, recordingId);
+                    deleted = preparedStatement.executeUpdate() > 0;
+                }
+                connection.commit();
+                logger.log(Level.ALL, "Recording {} deleted: {}", recordingId, deleted);
+            } catch (SQLException e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not delete the Recording. Executed query {}. Exception message: {}",
+                        DELETE_RECORDING_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+                deleted = false;
+                this.rollback();
+            } finally {
+                this.restoreAutoCommit();
+            }
+            return deleted;
+        });
+    }
 
-        if (newRowId != 0) {
-            logger.log(Level.ALL, "Updating recording database recording properties.");
-            this.updateRecordingTitle(recordingToInsert.getRecordingTitle(), newRowId);
-            this.updateRecordingDescription(recordingToInsert.getRecordingDescription(), newRowId);
-            this.updateRecordingDate(recordingToInsert.getRecordingDateTime(), newRowId);
-            this.updateRecordingDuration(recordingToInsert.getRecordingDuration(), newRowId);
-            this.updateMouseEvents(recordingToInsert.isMouseEvents(), newRowId);
-            this.updateClickEvents(recordingToInsert.isClickEvents(), newRowId);
-            this.updateKeyboardEvents(recordingToInsert.isKeyboardEvents(), newRowId);
-            this.updateScrollEvents(recordingToInsert.isScrollEvents(), newRowId);
-            this.updateRecordingInputEvents((LinkedList<ReplayableAction>)recordingToInsert.getInputEvents(), newRowId);
+    /**
+     * Rolls back the current transaction, failures are only logged since it is called while handling another
+     * exception
+     */
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not rollback transaction. Exception message: {}", e.getMessage());
+            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
         }
-        return newRowId;
     }
 
+    /**
+     * Returns the connection to auto-commit mode after a transaction finished
+     */
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not restore connection auto-commit mode. Exception message: {}", e.getMessage());
+            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+        }
+    }
+
+    /**
+     * Retrieves the summaries of every stored Recording, newest first. Only the fields needed to list the Recordings
+     * are selected, so the Recordings input events are neither read nor decoded.
+     *
+     * @return the list of Recording summaries
+     */
+    public List<RecordingSummary> getRecordingSummaries() {
+        logger.log(Level.ALL, "Obtaining all Recording summaries from database");
+        return this.querySummaries(SELECT_RECORDING_SUMMARIES_NEWEST_FIRST_SENTENCE);
+    }
+
+    /**
+     * Retrieves the summaries of the Recordings whose date is in the given range, sorted and filtered by the indexed
+     * date field
+     *
+     * @param from        the inclusive start of the range
+     * @param to          the exclusive end of the range
+     * @param newestFirst true to sort the summaries from the newest to the oldest Recording
+     * @return the list of Recording summaries in the range
+     */
+    public List<RecordingSummary> getRecordingSummaries(LocalDateTime from, LocalDateTime to, boolean newestFirst) {
+        logger.log(Level.ALL, "Obtaining Recording summaries between {} and {} from database", from, to);
+        return this.querySummaries(
+                newestFirst ? SELECT_RECORDING_SUMMARIES_BETWEEN_NEWEST_FIRST_SENTENCE : SELECT_RECORDING_SUMMARIES_BETWEEN_OLDEST_FIRST_SENTENCE,
+                DataUtils.toEpochMillis(from), DataUtils.toEpochMillis(to)
+        );
+    }
+
+    /**
+     * Retrieves a page of Recording summaries using keyset pagination: the next page starts right after the last
+     * summary of the previous page, so each page is read from the index in constant time no matter how many pages
+     * were read before.
+     *
+     * @param order       the order of the summaries
+     * @param lastSummary the last summary of the previous page, null to retrieve the first page
+     * @param pageSize    the maximum number of summaries of the page
+     * @return the summaries of the page, a page with less than pageSize summaries is the last one
+     */
+    public List<RecordingSummary> getRecordingSummariesPage(SummariesOrder order, RecordingSummary lastSummary, int pageSize) {
+        logger.log(Level.ALL, "Obtaining {} Recording summaries page after {}", order, lastSummary);
+        if (lastSummary == null) {
+            return this.querySummaries(SELECT_FIRST_SUMMARIES_PAGE_SENTENCES.get(order), pageSize);
+        }
+        if (order.isByDate()) {
+            return this.querySummaries(
+                    SELECT_NEXT_SUMMARIES_PAGE_SENTENCES.get(order),
+                    lastSummary.getRecordingDateMillis(), lastSummary.getId(), pageSize
+            );
+        }
+        return this.querySummaries(SELECT_NEXT_SUMMARIES_PAGE_SENTENCES.get(order), lastSummary.getId(), pageSize);
+    }
+
+    /**
+     * Searches the Recordings whose title or description contain words starting with the words of the given query,
+     * so it can be used to filter while the query is typed. Only the matching rows are read.
+     *
+     * @param query  the text to search, a blank query matches every Recording
+     * @param limit  the maximum number of summaries to retrieve
+     * @param offset the number of summaries to skip
+     * @return the summaries of the matching Recordings, the most relevant first. Newest first for a blank query.
+     */
+    public List<RecordingSummary> search(String query, int limit, int offset) {
+        logger.log(Level.ALL, "Searching Recordings matching '{}'. Limit: {}, offset: {}", query, limit, offset);
+        String matchExpression = buildMatchExpression(query);
+        if (matchExpression.isEmpty()) {
+            return this.querySummaries(SELECT_RECORDING_SUMMARIES_PAGE_SENTENCE, limit, offset);
+        }
+        return this.querySummaries(SEARCH_RECORDING_SUMMARIES_SENTENCE, matchExpression, limit, offset);
+    }
+
+    /**
+     * Builds the full text match expression of the given query. Each word is quoted so the characters with a
+     * meaning in the FTS5 query syntax are searched literally, and used as a prefix so partially typed words match.
+     *
+     * @param query the text to search
+     * @return the match expression, empty if the query has no words
+     */
+    private static String buildMatchExpression(String query) {
+        if (query == null) {
+            return "";
+        }
+        var matchExpression = new StringJoiner(" ");
+        for (String word : query.trim().split("\\s+")) {
+            String literalWord = word.replace("\"", "");
+            if (!literalWord.isEmpty()) {
+                matchExpression.add('"' + literalWord + "\"*");
+            }
+        }
+        return matchExpression.toString();
+    }
+
+    /**
+     * Executes the given summaries select sentence
+     *
+     * @param selectSentence the select sentence, built by buildSelectSummariesSentence
+     * @param parameters     the values of the sentence parameters
+     * @return the list of Recording summaries, empty if they could not be retrieved
+     */
+    private List<RecordingSummary> querySummaries(String selectSentence, Object... parameters) {
+        var summariesList = new ArrayList<RecordingSummary>();
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(selectSentence)) {
+            for (int i = 0; i < parameters.length; i++) {
+                preparedStatement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    summariesList.add(RecordingMapper.mapRecordingSummaryFromResultSet(resultSet));
+                }
+            }
+            logger.log(Level.ALL, "Returning {} retrieved Recording summaries", summariesList.size());
+        } catch (SQLException e) {
+            logger.log(
+                    Level.ERROR,
+                    "Could not retrieve the Recording summaries List, using default value: {}. Exception message: {}. Executed query {}",
+                    summariesList, e.getMessage(), selectSentence
+            );
+            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+        }
+        return summariesList;
+    }
+
+    /**
+     * Builds a summaries select sentence sorted by date, Recordings with the same date are sorted by id in the same
+     * direction
+     *
+     * @param whereClause the where clause, empty to select every Recording
+     * @param direction   the sort direction, ASC or DESC
+     * @return the select sentence
+     */
+    private static String buildSelectSummariesSentence(String whereClause, String direction) {
+        return String.format("%s%s ORDER BY %s %s, %s %s;",
+                SELECT_RECORDING_SUMMARIES_FIELDS, whereClause,
+                RECORDING_DATE_FIELD, direction,
+                RECORDING_ID_FIELD, direction
+        );
+    }
+
+    /**
+     * Obtains the ids of the Recordings whose input events are not stored in the current format, intended to rewrite
+     * them in batches
+     *
+     * @param afterId the id after which the Recordings are searched
+     * @param limit   the maximum number of ids to obtain
+     * @return the ids in ascending order, an empty list if they could not be retrieved
+     */
+    public List<Integer> obtainRecordingIdsWithLegacyEvents(int afterId, int limit) {
+        var recordingIds = new ArrayList<Integer>();
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_IDS_WITH_LEGACY_EVENTS_SENTENCE)) {
+            preparedStatement.setInt(1, afterId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    recordingIds.add(resultSet.getInt(RECORDING_ID_FIELD));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(
+                    Level.ERROR,
+                    "Could not retrieve Recordings with legacy input events. Exception message: {}. Executed query {}",
+                    e.getMessage(), SELECT_IDS_WITH_LEGACY_EVENTS_SENTENCE
+            );
+            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+        }
+        return recordingIds;
+    }
+
+    /**
+     * Stores again the input events of the Recording in the current format, computing its statistics
+     *
+     * @param recordingId the id of the Recording
+     * @return true if the input events were loaded and stored again, false if loading or storing them failed
+     */
+    public boolean rewriteInputEvents(int recordingId) {
+        var inputEvents = this.obtainInputEvents(recordingId);
+        if (inputEvents == null) {
+            return false;
+        }
+        logger.log(Level.INFO, "Rewriting input events of Recording {}", recordingId);
+        return this.updateRecordingInputEvents(inputEvents, recordingId);
+    }
+
+    /**
+     * Simplifies the mouse trails of the Recording with a {@link MousePathSimplifier} and stores the kept motions as
+     * its new motion partition. The motion payload is decoded straight into the simplifier, so no action is created
+     * for its events, and the trail segments end at the execution times of the other partitions events. Only the
+     * motion payload is replaced: the other partitions keep referencing the same payloads, and the events count,
+     * checksum and statistics are updated. Recordings whose events are stored in the legacy field are not simplified,
+     * see {@link #rewriteInputEvents(int)}.
+     * <p>
+     * Only the simplifier working set is bounded. Each partition is stored as a single payload, so the encoded
+     * payloads of the Recording are loaded whole, the other partitions events and their sorted execution times are
+     * decoded for the segments ends and the statistics, and the kept motions are collected and encoded at once
+     * since the columnar encoding writes each column length before its values. The memory used is proportional to
+     * the encoded payloads plus the kept motions and the other partitions events.
+     *
+     * @param recordingId        the id of the Recording
+     * @param positionTolerance  the maximum distance in pixels between a removed motion and the simplified trail
+     * @param timeToleranceNanos the maximum time difference in nanoseconds between a removed motion and the instant
+     *                           the simplified trail passes closest to it
+     * @return the simplification outcome or null if the input events could not be loaded
+     */
+    public MousePathSimplification simplifyMousePaths(int recordingId, double positionTolerance, long timeToleranceNanos) {
+        var partitionsPayloads = new byte[EventPartition.values().length][];
+        var partitionsEvents = new InputEventsBuffer[EventPartition.values().length];
+        var keptMotions = new InputEventsBuffer();
+        var simplifier = new MousePathSimplifier(keptMotions, positionTolerance, timeToleranceNanos);
+        String[] hashes = null;
+        try {
+            hashes = selectPartitionsHashes(readStatements, recordingId);
+            if (hashes == null) {
+                logger.log(Level.WARN, "Recording {} input events are stored in the legacy field, its mouse trails won't be simplified", recordingId);
+                return null;
+            }
+            // the other partitions events fields end the trail segments and are needed for the statistics
+            int actionsCount = 0;
+            for (EventPartition partition : EventPartition.values()) {
+                String hash = hashes[partition.ordinal()];
+                partitionsPayloads[partition.ordinal()] = (hash != null) ? payloadReader.load(hash) : null;
+                if (partition == EventPartition.MOTION) {
+                    partitionsEvents[partition.ordinal()] = keptMotions;
+                    continue;
+                }
+                var events = new InputEventsBuffer();
+                if (hash != null) {
+                    InputEventsCodec.decode(partitionsPayloads[partition.ordinal()],
+                            (type, time, x, y) -> events.append(type, time, x, y, 0, (byte) 0));
+                }
+                partitionsEvents[partition.ordinal()] = events;
+                actionsCount += events.size();
+            }
+            var actionTimes = new long[actionsCount];
+            int actionIndex = 0;
+            for (InputEventsBuffer events : partitionsEvents) {
+                for (int i = 0; events != keptMotions && i < events.size(); i++) {
+                    actionTimes[actionIndex++] = events.getTime(i);
+                }
+            }
+            Arrays.sort(actionTimes);
+
+            byte[] motionPayload = partitionsPayloads[EventPartition.MOTION.ordinal()];
+            if (motionPayload != null) {
+                simplifier.simplify(motionPayload, actionTimes);
+            }
+        } catch (SQLException | IOException e) {
+            logger.log(
+                    Level.ERROR,
+                    "Could not load Recording {} input events to simplify its mouse trails. Partitions hashes: {}. Exception message: {}",
+                    recordingId, Arrays.toString(hashes), e.getMessage()
+            );
+            DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+            return null;
+        }
+
+        var simplification = new MousePathSimplification(recordingId, simplifier.getMotionEvents(),
+                simplifier.getRemovedEvents(), simplifier.getMaxPositionError());
+        logger.log(Level.INFO, "Simplified mouse trails of Recording {}: {}", recordingId, simplification);
+        if (simplification.removedEvents() > 0) {
+            this.updateMotionEvents(recordingId, hashes, partitionsPayloads, partitionsEvents);
+        }
+        return simplification;
+    }
+
+    /**
+     * Replaces the motion partition payload of the Recording, releasing the previous one, and updates its events
+     * count, checksum and statistics. Nothing is updated if the Recording partitions changed since they were loaded.
+     *
+     * @param recordingId        the id of the Recording
+     * @param loadedHashes       the partitions hashes when the partitions were loaded
+     * @param partitionsPayloads the loaded encoded partitions in {@link EventPartition} declaration order, null for
+     *                           partitions without events
+     * @param partitionsEvents   the fields of the events of each partition, the new motions for the motion partition
+     */
+    private void updateMotionEvents(int recordingId, String[] loadedHashes, byte[][] partitionsPayloads, InputEventsBuffer[] partitionsEvents) {
+        DatabaseExecutor.runWrite(() -> {
+            var motions = partitionsEvents[EventPartition.MOTION.ordinal()];
+            logger.log(Level.ALL, "Updating database Recording motion events: ({} events). Recording id: {}", motions.size(), recordingId);
+
+            try {
+                byte[] motionPayload = InputEventsCodec.encode(motions, InputEventsCodec.Encoding.COLUMNAR);
+                String motionHash = EventPayloadStore.hash(motionPayload);
+                var checksum = new CRC32C();
+                var statisticsCollector = new RecordingStatistics.Collector();
+                for (EventPartition partition : EventPartition.values()) {
+                    byte[] payload = (partition == EventPartition.MOTION) ? motionPayload : partitionsPayloads[partition.ordinal()];
+                    if (payload != null) {
+                        checksum.update(payload);
+                    }
+                }
+                forEachByTime(partitionsEvents, statisticsCollector::accept);
+
+                connection.setAutoCommit(false);
+                if (!Arrays.equals(loadedHashes, selectPartitionsHashes(statements, recordingId))) {
+                    logger.log(Level.WARN, "Recording {} input events changed while its mouse trails were simplified, they won't be updated", recordingId);
+                    connection.rollback();
+                    return;
+                }
+                long payloadSize = payloadStore.acquire(motionHash, motionPayload, payloadCodec).size();
+                for (EventPartition partition : EventPartition.values()) {
+                    if (partition != EventPartition.MOTION && loadedHashes[partition.ordinal()] != null) {
+                        payloadSize += payloadStore.obtainStoredPayload(loadedHashes[partition.ordinal()]).size();
+                    }
+                }
+                var statistics = statisticsCollector.toStatistics(payloadSize);
+                int modifiedRows;
+                try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_MOTION_EVENTS_WHERE_ID_SENTENCE)) {
+                    preparedStatement.setString(1, motionHash);
+                    int parameterIndex = bindStatistics(preparedStatement, 2, checksum.getValue(), statistics);
+                    preparedStatement.setInt(parameterIndex, recordingId);
+                    modifiedRows = preparedStatement.executeUpdate();
+                }
+                payloadStore.release(loadedHashes[EventPartition.MOTION.ordinal()]);
+                connection.commit();
+
+                logger.log(Level.ALL, "Sucessfully execute script with a {} modified rows count. Encoded events size: {} bytes",
+                        modifiedRows, statistics.payloadSize());
+            } catch (SQLException | IOException | IllegalArgumentException e) {
+                logger.log(
+                        Level.ERROR,
+                        "Could not update Recording motion events value. Executed query {}. Exception message: {}",
+                        UPDATE_MOTION_EVENTS_WHERE_ID_SENTENCE, e.getMessage()
+                );
+                DataUtils.logSuppressedExceptions(logger, e.getSuppressed());
+                this.rollback();
+            } finally {
+                this.restoreAutoCommit();
+            }
+        });
+    }
+
+    /**
+     * Passes the events of the given buffers to the consumer in execution time order. Events with the same execution
+     * time are passed in the order of their buffers, as when the partitions are merged.
+     *
+     * @param buffers  the buffers, each one ordered by execution time
+     * @param consumer the consumer of the events fields
+     */
+    private static void forEachByTime(InputEventsBuffer[] buffers, InputEventsCodec.DecodedEventConsumer consumer) {
+        var positions = new int[buffers.length];
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < buffers.length; i++) {
+                if (positions[i] < buffers[i].size() && (next < 0
+                        || buffers[i].getTime(positions[i]) < buffers[next].getTime(positions[next]))) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return;
+            }
+            int position = positions[next]++;
+            var buffer = buffers[next];
+            consumer.accept(buffer.getType(position), buffer.getTime(position), buffer.getX(position), buffer.getY(position));
+        }
+    }
+
+    /**
+     * Retrieves every stored Recording decoding its input events, the memory used grows with the number of stored
+     * Recordings. To browse the Recordings use {@link #getRecordingSummariesPage(SummariesOrder, RecordingSummary, int)}.
+     *
+     * @return the list of stored Recordings
+     */
     public List<Recording> getAllRecordings() {
         logger.log(Level.ALL, "Obtaining all Recordings from database. Recording id");
 
@@ -591,11 +1846,12 @@ public class RecordingsRepository {
         String selectAllScript = DatabaseTable.RECORDINGS.getSelectAllSentence();
 
         try (
-                PreparedStatement preparedStatement = connection.prepareStatement(selectAllScript);
+                PreparedStatement preparedStatement = readStatements.prepareStatement(selectAllScript);
                 ResultSet resultSet = preparedStatement.executeQuery();
         ) {
             while (resultSet.next()) {
-                recordingsList.add(RecordingMapper.mapRecordingFromResultSet(resultSet));
+                var inputEvents = this.decodeInputEvents(resultSet, EnumSet.allOf(EventPartition.class));
+                recordingsList.add(RecordingMapper.mapRecordingFromResultSet(resultSet, inputEvents));
             }
             StringBuilder retrievedRecordings = new StringBuilder();
             for (Recording recording : recordingsList) {
@@ -626,24 +1882,18 @@ public class RecordingsRepository {
         /**
          * Maps a Recording using the given Result set
          *
-         * @param resultSet the result set obtained after executing the select
-         *                  recording by id
+         * @param resultSet            the result set obtained after executing the select
+         *                             recording by id
+         * @param recordingInputEvents the decoded input events of the Recording
          * @return Recording containing the information specified in the result
          * set
-         * @throws SQLException           if an exception related to jdbc
-         * @throws IOException            if an exception occurs while deserializing the
-         *                                recording input events field content
-         * @throws ClassNotFoundException if the class containing the input
-         *                                events field could not be found
+         * @throws SQLException if an exception related to jdbc
          */
-        public static Recording mapRecordingFromResultSet(ResultSet resultSet) throws SQLException, IOException, ClassNotFoundException {
+        public static Recording mapRecordingFromResultSet(ResultSet resultSet, Queue<ReplayableAction> recordingInputEvents) throws SQLException {
 
             Recording mappedRecording;
-            var recordingInputEvents = DataUtils.objectFromBytes(
-                    resultSet.getBytes(RECORDING_INPUT_EVENTS_FIELD), LinkedList.class
-            );
             var recordingDuration = resultSet.getFloat(RECORDING_DURATION_FIELD);
-            var retrievedDateTime = resultSet.getString(RECORDING_DATE_FIELD);
+            var retrievedDateTime = resultSet.getLong(RECORDING_DATE_FIELD);
             var recordingTitle = resultSet.getString(RECORDING_TITLE_FIELD);
             var recordingDescription = resultSet.getString(RECORDING_DESCRIPTION_FIELD);
             var recordingId = resultSet.getInt(RECORDING_ID_FIELD);
@@ -654,7 +1904,7 @@ public class RecordingsRepository {
                     recordingTitle,
                     recordingDescription,
                     recordingDuration,
-                    LocalDateTime.parse(retrievedDateTime, DateTimeFormatter.ofPattern(Recording.DATE_TIME_FORMAT))
+                    DataUtils.fromEpochMillis(retrievedDateTime)
             );
 
             var hasMouseEvents = resultSet.getBoolean(RECORDING_MOUSE_EVENTS_FIELD);
@@ -669,5 +1919,58 @@ public class RecordingsRepository {
 
             return mappedRecording;
         }
+
+        /**
+         * Maps a RecordingSummary using the given Result set
+         *
+         * @param resultSet the result set obtained after executing the select
+         *                  recording summaries
+         * @return RecordingSummary containing the information specified in the
+         * result set
+         * @throws SQLException if an exception related to jdbc
+         */
+        public static RecordingSummary mapRecordingSummaryFromResultSet(ResultSet resultSet) throws SQLException {
+            return new RecordingSummary(
+                    resultSet.getInt(RECORDING_ID_FIELD),
+                    resultSet.getString(RECORDING_TITLE_FIELD),
+                    resultSet.getString(RECORDING_DESCRIPTION_FIELD),
+                    resultSet.getLong(RECORDING_DATE_FIELD),
+                    resultSet.getFloat(RECORDING_DURATION_FIELD),
+                    resultSet.getBoolean(RECORDING_MOUSE_EVENTS_FIELD),
+                    resultSet.getBoolean(RECORDING_KEYBOARD_EVENTS_FIELD),
+                    resultSet.getBoolean(RECORDING_SCROLL_EVENTS_FIELD),
+                    resultSet.getBoolean(RECORDING_CLICK_EVENTS_FIELD),
+                    resultSet.getInt(RECORDING_EVENTS_COUNT_FIELD),
+                    mapStatisticsFromResultSet(resultSet)
+            );
+        }
+
+        /**
+         * Maps the RecordingStatistics of the Recording in the current row of the result set
+         *
+         * @param resultSet the result set positioned at a Recording row
+         * @return the RecordingStatistics or null if they were not computed for the Recording
+         * @throws SQLException if an exception related to jdbc
+         */
+        private static RecordingStatistics mapStatisticsFromResultSet(ResultSet resultSet) throws SQLException {
+            long payloadSize = resultSet.getLong(RECORDING_PAYLOAD_SIZE_FIELD);
+            if (resultSet.wasNull()) {
+                return null;
+            }
+            return new RecordingStatistics(
+                    resultSet.getInt(RECORDING_MOTION_COUNT_FIELD),
+                    resultSet.getInt(RECORDING_BUTTON_COUNT_FIELD),
+                    resultSet.getInt(RECORDING_WHEEL_COUNT_FIELD),
+                    resultSet.getInt(RECORDING_KEY_COUNT_FIELD),
+                    resultSet.getLong(RECORDING_FIRST_EVENT_TIME_FIELD),
+                    resultSet.getLong(RECORDING_LAST_EVENT_TIME_FIELD),
+                    resultSet.getInt(RECORDING_MOUSE_MIN_X_FIELD),
+                    resultSet.getInt(RECORDING_MOUSE_MIN_Y_FIELD),
+                    resultSet.getInt(RECORDING_MOUSE_MAX_X_FIELD),
+                    resultSet.getInt(RECORDING_MOUSE_MAX_Y_FIELD),
+                    resultSet.getInt(RECORDING_PEAK_EVENTS_PER_SECOND_FIELD),
+                    payloadSize
+            );
+        }
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_start_view;
+
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free buffer used to move captured events from the native hook callbacks to the thread that stores them.
+ * The event fields are kept in preallocated primitive arrays, so publishing an event doesn't allocate objects nor take
+ * locks; when the buffer is full the event is discarded and counted as dropped instead of blocking the hook.
+ * <p>
+ * Producers claim a slot by incrementing the tail sequence and publish it through the slot sequence, which allows
+ * several producer threads. Only one consumer thread may drain the buffer.
+ */
+public final class CapturedEventsRingBuffer {
+
+    /**
+     * Receives the fields of each drained event
+     */
+    @FunctionalInterface
+    public interface CapturedEventConsumer {
+        void accept(CapturedEventType type, long time, int x, int y, int code, byte flags);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] times;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] codes;
+    private final byte[] types;
+    private final byte[] flags;
+    /*
+     * Each slot sequence equals the position a producer can claim when the slot is free, and that position plus one
+     * once the event has been published
+     */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile long head;
+    private volatile int peakOccupancy;
+    private volatile long statisticsStart;
+
+    /**
+     * Creates a new buffer able to hold the given number of events
+     *
+     * @param capacity the number of slots, rounded up to the next power of two
+     */
+    public CapturedEventsRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid ring buffer capacity: " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.times = new long[this.capacity];
+        this.xs = new int[this.capacity];
+        this.ys = new int[this.capacity];
+        this.codes = new int[this.capacity];
+        this.types = new byte[this.capacity];
+        this.flags = new byte[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an event in the buffer, this method never blocks
+     *
+     * @param type       the type of the event
+     * @param time       the event time relative to the recording start
+     * @param x          the x coordinate of the event
+     * @param y          the y coordinate of the event
+     * @param code       the button, key code or scroll amount of the event
+     * @param eventFlags the extra type dependent data of the event
+     * @return true if the event was published, false if it was dropped because the buffer is full
+     */
+    public boolean offer(CapturedEventType type, long time, int x, int y, int code, byte eventFlags) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) { // the consumer has not released this slot yet, so the buffer is full
+                droppedEvents.incrementAndGet();
+                return false;
+            }
+            // another producer claimed this position, retries with the new tail
+        }
+        times[index] = time;
+        xs[index] = x;
+        ys[index] = y;
+        codes[index] = code;
+        types[index] = type.getId();
+        flags[index] = eventFlags;
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Passes every published event to the given consumer and releases their slots. Must be called from a single thread
+     *
+     * @param consumer the consumer of the events fields
+     * @return the number of drained events
+     */
+    public int drain(CapturedEventConsumer consumer) {
+        long position = head;
+        int occupancy = occupancy();
+        if (occupancy > peakOccupancy) {
+            peakOccupancy = occupancy;
+        }
+        int drained = 0;
+        while (true) {
+            int index = (int) position & mask;
+            if (sequences.getAcquire(index) != position + 1) { // the slot has not been published yet
+                break;
+            }
+            consumer.accept(CapturedEventType.fromId(types[index]), times[index], xs[index], ys[index], codes[index],
+                    flags[index]);
+            sequences.setRelease(index, position + capacity);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Returns the number of events claimed by producers and not drained yet
+     *
+     * @return the current buffer occupancy
+     */
+    public int occupancy() {
+        return (int) Math.min(capacity, Math.max(0, tail.get() - head));
+    }
+
+    /**
+     * Returns the highest occupancy observed by the consumer
+     *
+     * @return the peak buffer occupancy
+     */
+    public int getPeakOccupancy() {
+        return peakOccupancy;
+    }
+
+    /**
+     * Returns the number of events discarded because the buffer was full
+     *
+     * @return the dropped events count
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Returns the number of events published since the statistics were reset
+     *
+     * @return the published events count
+     */
+    public long getPublishedEvents() {
+        return tail.get() - statisticsStart;
+    }
+
+    /**
+     * Restarts the published, dropped and peak occupancy counters, meant to be called while there are no producers
+     */
+    public void resetStatistics() {
+        statisticsStart = tail.get();
+        droppedEvents.set(0);
+        peakOccupancy = 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_start_view;
+
+import com.github.kwhat.jnativehook.dispatcher.SwingDispatchService;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The available executors used by the native hook to deliver the captured events to the recorder listeners. Every
+ * dispatcher runs the listeners on a single thread, so events keep the order in which the hook caught them
+ *
+ * @see #SWING_THREAD
+ * @see #DEDICATED_THREAD
+ * @see #VIRTUAL_THREAD
+ */
+public enum EventDispatcherType {
+    /**
+     * Delivers events on the AWT event dispatch thread, shared with the tray icon and any other AWT work
+     */
+    SWING_THREAD,
+    /**
+     * Delivers events on a platform thread with the maximum priority used only by the recorder
+     */
+    DEDICATED_THREAD,
+    /**
+     * Delivers events on a virtual thread used only by the recorder, falls back to {@link #DEDICATED_THREAD} when the
+     * running Java version has no virtual threads
+     */
+    VIRTUAL_THREAD;
+
+    private static final Logger logger = LogManager.getLogger(EventDispatcherType.class);
+    private static final String DISPATCHER_THREAD_NAME = "native-hook-dispatcher";
+
+    /**
+     * Creates a new executor for the native hook events of this dispatcher type
+     *
+     * @return the executor to pass to GlobalScreen.setEventDispatcher()
+     */
+    public ExecutorService createExecutorService() {
+        return switch (this) {
+            case SWING_THREAD -> new SwingDispatchService();
+            case DEDICATED_THREAD -> Executors.newSingleThreadExecutor(EventDispatcherType::newDispatcherThread);
+            case VIRTUAL_THREAD -> {
+                var virtualThreadFactory = createVirtualThreadFactory();
+                yield Executors.newSingleThreadExecutor(virtualThreadFactory != null ?
+                        virtualThreadFactory : EventDispatcherType::newDispatcherThread);
+            }
+        };
+    }
+
+    /**
+     * Creates the dedicated high priority platform thread that delivers the events
+     *
+     * @param runnable the dispatcher executor loop
+     * @return the new unstarted thread
+     */
+    private static Thread newDispatcherThread(Runnable runnable) {
+        var dispatcherThread = new Thread(runnable, DISPATCHER_THREAD_NAME);
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.setPriority(Thread.MAX_PRIORITY);
+        return dispatcherThread;
+    }
+
+    /**
+     * Creates a factory of named virtual threads. Thread.ofVirtual() is a preview API before Java 21 and the
+     * application is compiled for Java 19, so it is called through reflection
+     *
+     * @return the virtual thread factory, null if virtual threads are not available
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class).invoke(builder, DISPATCHER_THREAD_NAME);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                 | InvocationTargetException | UnsupportedOperationException exception) {
+            logger.log(Level.WARN, "Virtual threads are not available, using a dedicated platform thread instead: {}",
+                    exception.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_start_view;
+
+/**
+ * This record class is used to store how mouse motion events are thinned out while recording
+ *
+ * @param maxSampleRate                 the maximum mouse motion events stored per second, 0 to store them all
+ * @param minDistance                   the minimum distance in pixels between two stored mouse motion events, 0 to
+ *                                      store them all
+ * @param keepLastPositionBeforeActions whether store the last discarded mouse motion event before each click, scroll
+ *                                      or key event, and before the recording stops
+ */
+public record MotionDecimation(int maxSampleRate, int minDistance, boolean keepLastPositionBeforeActions) {
+
+    /**
+     * Stores every mouse motion event
+     */
+    public static final MotionDecimation NONE = new MotionDecimation(0, 0, false);
+    /**
+     * Stores up to 125 mouse motion events per second, skipping repeated positions. Only applied when selected, the
+     * recordings keep every motion by default
+     */
+    public static final MotionDecimation REDUCED = new MotionDecimation(125, 1, true);
+
+    public MotionDecimation {
+        if (maxSampleRate < 0 || minDistance < 0) {
+            throw new IllegalArgumentException("Invalid motion decimation: " + maxSampleRate + " Hz, " + minDistance + " px");
+        }
+    }
+
+    /**
+     * Returns the minimum time between two stored mouse motion events
+     *
+     * @return the minimum interval in nanoseconds, 0 when the sample rate is not limited
+     */
+    public long minIntervalNanos() {
+        return (maxSampleRate == 0) ? 0L : 1_000_000_000L / maxSampleRate;
+    }
+}
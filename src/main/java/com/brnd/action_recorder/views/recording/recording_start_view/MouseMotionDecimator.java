@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.views.recording.recording_start_view;
+
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.recording.InputEventsBuffer;
+
+/**
+ * Applies a {@link MotionDecimation} to the captured events before they are added to the recording events. Mouse
+ * motion events closer in time or distance than the configured limits to the last stored one are discarded, the
+ * last discarded one is kept aside so it can be stored before the next click, scroll or key event. Must be used
+ * from a single thread
+ */
+final class MouseMotionDecimator {
+    private final InputEventsBuffer inputEvents;
+    private final long minIntervalNanos;
+    private final long minSquaredDistance;
+    private final boolean keepLastPositionBeforeActions;
+    private boolean storedMotion;
+    private long lastStoredTime;
+    private int lastStoredX;
+    private int lastStoredY;
+    private boolean pendingMotion;
+    private long pendingTime;
+    private int pendingX;
+    private int pendingY;
+    private long discardedEvents;
+
+    MouseMotionDecimator(InputEventsBuffer inputEvents, MotionDecimation motionDecimation) {
+        this.inputEvents = inputEvents;
+        this.minIntervalNanos = motionDecimation.minIntervalNanos();
+        this.minSquaredDistance = (long) motionDecimation.minDistance() * motionDecimation.minDistance();
+        this.keepLastPositionBeforeActions = motionDecimation.keepLastPositionBeforeActions();
+    }
+
+    /**
+     * Stores the given event in the recording events unless it is a mouse motion event to be discarded
+     *
+     * @param type  The type of the event
+     * @param time  The event time relative to the recording start
+     * @param x     The x coordinate of the event
+     * @param y     The y coordinate of the event
+     * @param code  The button mask, native key code or scroll amount of the event
+     * @param flags The scroll direction ordinal for scroll events
+     */
+    void accept(CapturedEventType type, long time, int x, int y, int code, byte flags) {
+        if (type != CapturedEventType.MOUSE_MOTION) {
+            flushPendingMotion();
+            inputEvents.append(type, time, x, y, code, flags);
+            return;
+        }
+        long deltaX = (long) x - lastStoredX;
+        long deltaY = (long) y - lastStoredY;
+        if (storedMotion && (time - lastStoredTime < minIntervalNanos
+                || deltaX * deltaX + deltaY * deltaY < minSquaredDistance)) {
+            if (pendingMotion) {
+                discardedEvents++;
+            }
+            pendingMotion = true;
+            pendingTime = time;
+            pendingX = x;
+            pendingY = y;
+            return;
+        }
+        if (pendingMotion) {
+            discardedEvents++;
+            pendingMotion = false;
+        }
+        storeMotion(time, x, y);
+    }
+
+    /**
+     * Stores the last discarded mouse motion event if the decimation keeps the last position before actions, meant
+     * to be called before a non-motion event is stored and when the recording stops
+     */
+    void flushPendingMotion() {
+        if (!pendingMotion) {
+            return;
+        }
+        pendingMotion = false;
+        if (keepLastPositionBeforeActions) {
+            storeMotion(pendingTime, pendingX, pendingY);
+        } else {
+            discardedEvents++;
+        }
+    }
+
+    private void storeMotion(long time, int x, int y) {
+        inputEvents.append(CapturedEventType.MOUSE_MOTION, time, x, y, 0, (byte) 0);
+        storedMotion = true;
+        lastStoredTime = time;
+        lastStoredX = x;
+        lastStoredY = y;
+    }
+
+    /**
+     * Returns the number of mouse motion events discarded so far
+     *
+     * @return the discarded events count
+     */
+    long getDiscardedEvents() {
+        return discardedEvents;
+    }
+}
@@ -32,13 +32,7 @@ public class MouseMotionListener implements NativeMouseMotionListener {
      */
     @Override
     public void nativeMouseDragged(NativeMouseEvent nativeEvent) {
-        // Creates a mouse-moved event from the drag event to ignore the drag but preserve the movement of the mouse
-        var mouseMoveEvent = new NativeMouseEvent(
-                NativeMouseEvent.NATIVE_MOUSE_MOVED, nativeEvent.getModifiers(), nativeEvent.getX(),
-                nativeEvent.getY(), nativeEvent.getClickCount()
-        );
-
-        // Only saves the movement of the drag event
-        this.recorder.saveEvent(mouseMoveEvent);
+        // the recorder only saves the movement of the drag event
+        this.recorder.saveEvent(nativeEvent);
     }
 }
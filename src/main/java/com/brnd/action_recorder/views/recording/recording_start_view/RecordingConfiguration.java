@@ -22,13 +22,41 @@ package com.brnd.action_recorder.views.recording.recording_start_view;
  * @param recordingMouseMotionInteractions whether record Mouse Motion events (Mouse movement)
  * @param recordingMouseClickInteractions whether record Mouse Clicks events (Right, left, mouse, etc clicks)
  * @param recordingMouseWheelInteractions whether record Mouse Wheel events (Mouse wheel scroll)
+ * @param eventDispatcherType the executor type used by the native hook to deliver the events to the recorder
+ * @param motionDecimation how Mouse Motion events are thinned out before being added to the recording
  */
 public record RecordingConfiguration(
         boolean recordingKeyboardInteractions,
         boolean recordingMouseMotionInteractions,
         boolean recordingMouseClickInteractions,
-        boolean recordingMouseWheelInteractions
+        boolean recordingMouseWheelInteractions,
+        EventDispatcherType eventDispatcherType,
+        MotionDecimation motionDecimation
         ) {
+
+    public static final EventDispatcherType DEFAULT_EVENT_DISPATCHER_TYPE = EventDispatcherType.DEDICATED_THREAD;
+    /*
+     * Every mouse motion is recorded until the decimation can be chosen from the recording start view
+     */
+    public static final MotionDecimation DEFAULT_MOTION_DECIMATION = MotionDecimation.NONE;
+
+    public RecordingConfiguration {
+        if (eventDispatcherType == null) {
+            eventDispatcherType = DEFAULT_EVENT_DISPATCHER_TYPE;
+        }
+        if (motionDecimation == null) {
+            motionDecimation = DEFAULT_MOTION_DECIMATION;
+        }
+    }
+
+    /**
+     * Creates a recording configuration that uses the default event dispatcher and motion decimation
+     */
+    public RecordingConfiguration(boolean recordingKeyboardInteractions, boolean recordingMouseMotionInteractions,
+                                  boolean recordingMouseClickInteractions, boolean recordingMouseWheelInteractions) {
+        this(recordingKeyboardInteractions, recordingMouseMotionInteractions, recordingMouseClickInteractions,
+                recordingMouseWheelInteractions, DEFAULT_EVENT_DISPATCHER_TYPE, DEFAULT_MOTION_DECIMATION);
+    }
     
     /**
      * Verifies if at least one of the available boolean variables corresponding to the native listeners 
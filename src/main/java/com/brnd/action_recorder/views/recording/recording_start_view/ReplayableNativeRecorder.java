@@ -1,11 +1,12 @@
 package com.brnd.action_recorder.views.recording.recording_start_view;
 
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.recording.InputEventsBuffer;
 import com.brnd.action_recorder.views.recording.Recording;
 import com.brnd.action_recorder.views.replay.replay_start_view.actions.*;
 import com.github.kwhat.jnativehook.GlobalScreen;
 import com.github.kwhat.jnativehook.NativeHookException;
 import com.github.kwhat.jnativehook.NativeInputEvent;
-import com.github.kwhat.jnativehook.dispatcher.SwingDispatchService;
 import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
 import com.github.kwhat.jnativehook.mouse.NativeMouseEvent;
 import com.github.kwhat.jnativehook.mouse.NativeMouseWheelEvent;
@@ -13,16 +14,29 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * This class has functionalities to create new Recording containing ReplayableAction objects
  */
 public class ReplayableNativeRecorder implements NativeRecorder {
     public static final Logger logger = LogManager.getLogger(ReplayableNativeRecorder.class);
+    private static final int CAPTURE_BUFFER_CAPACITY = 1 << 15;
+    private static final long CONSUMER_IDLE_PARK_NANOS = 1_000_000L;
+    private static final long DISPATCHER_SHUTDOWN_TIMEOUT_MILLIS = 1_000L;
     private long recordingPauseTime = 0L;
     private RecordingConfiguration recordingConfiguration;
-    private long eventsTimeOffset = 0L;
+    private volatile long eventsTimeOffset = 0L;
     private long recordingStartTime;
     private Recording recording;
+    private InputEventsBuffer capturedInputEvents;
+    private MouseMotionDecimator motionDecimator;
+    private final CapturedEventsRingBuffer capturedEvents = new CapturedEventsRingBuffer(CAPTURE_BUFFER_CAPACITY);
+    private ExecutorService eventDispatcher;
+    private Thread eventsConsumer;
+    private volatile boolean consumingEvents;
     private final MouseMotionListener mouseMovementListener;
     private final ScrollListener scrollListener;
     private final MouseButtonsListener mouseButtonsListener;
@@ -80,21 +94,27 @@ public class ReplayableNativeRecorder implements NativeRecorder {
      */
     @Override
     public void startRecording(RecordingConfiguration recordingConfiguration) throws NativeHookException {
-        GlobalScreen.setEventDispatcher(new SwingDispatchService());// Force JNativeHook to use the Swing thread
-        GlobalScreen.registerNativeHook(); // Enables native hook
-
         this.recordingConfiguration = recordingConfiguration;
         logger.log(Level.TRACE, "Loading configuration: {}", this.recordingConfiguration);
 
+        // the hook shuts down the previous dispatcher when a new one is set
+        this.eventDispatcher = this.recordingConfiguration.eventDispatcherType().createExecutorService();
+        GlobalScreen.setEventDispatcher(this.eventDispatcher);
+        GlobalScreen.registerNativeHook(); // Enables native hook
+
         logger.log(Level.TRACE, "Creating new Recording");
-        this.recording = new Recording();
+        this.capturedInputEvents = new InputEventsBuffer();
+        this.recording = new Recording(this.capturedInputEvents);
+        this.motionDecimator = new MouseMotionDecimator(this.capturedInputEvents,
+                this.recordingConfiguration.motionDecimation());
         this.recording.setClickEvents(this.recordingConfiguration.recordingMouseClickInteractions());
         this.recording.setMouseEvents(this.recordingConfiguration.recordingMouseMotionInteractions());
         this.recording.setKeyboardEvents(this.recordingConfiguration.recordingKeyboardInteractions());
         this.recording.setScrollEvents(this.recordingConfiguration.recordingMouseWheelInteractions());
         this.recordingStartTime = this.recording.getRecordingStartTime();
+        this.eventsTimeOffset = 0L;
 
-
+        startEventsConsumer();
         loadRecordingConfiguration(); // loads the specified configuration
 
         logger.log(Level.TRACE, "Recording Started");
@@ -142,42 +162,150 @@ public class ReplayableNativeRecorder implements NativeRecorder {
     }
 
     /**
-     * Saves the given NativeInputEvent to the current recording
+     * Saves the given NativeInputEvent to the current recording. This method runs on the native hook dispatch thread,
+     * so it only copies the event fields into the capture buffer, the events consumer thread adds them to the recording
      *
      * @param event The caught NativeInputEvent
      */
     public void saveEvent(NativeInputEvent event) {
-        try {
-            long eventTime = System.nanoTime() - this.eventsTimeOffset;
-            // Adds the event to recording events along its timestamp (relative to the recording start time)
-            long eventRelativeTime = eventTime - recordingStartTime;
-            this.recording.getInputEvents().add(parseReplayableAction(event, eventRelativeTime));
-
-            String paramString = event.toString();
-            logger.log(Level.INFO, "Recorded : {}", paramString);
-        } catch (NullPointerException nullPointerException) {
-            logger.log(Level.ERROR, "No available recording object to store events");
-            logger.log(Level.ERROR, nullPointerException);
+        if (!consumingEvents) { // the event was dispatched after the recording stopped
+            return;
+        }
+        // the event timestamp is relative to the recording start time
+        long eventRelativeTime = System.nanoTime() - this.eventsTimeOffset - this.recordingStartTime;
+        if (event instanceof NativeMouseWheelEvent mouseWheelEvent) { // scroll events
+            var scrollDirection = parseScrollDirection(mouseWheelEvent);
+            if (scrollDirection != null) {
+                capturedEvents.offer(CapturedEventType.SCROLL, eventRelativeTime, mouseWheelEvent.getX(),
+                        mouseWheelEvent.getY(), mouseWheelEvent.getScrollAmount(), (byte) scrollDirection.ordinal());
+            }
+        } else if (event instanceof NativeKeyEvent keyEvent) { // keyboard events
+            var eventType = (keyEvent.getID() == NativeKeyEvent.NATIVE_KEY_PRESSED) ?
+                    CapturedEventType.KEY_PRESS : CapturedEventType.KEY_RELEASE;
+            capturedEvents.offer(eventType, eventRelativeTime, 0, 0, keyEvent.getKeyCode(), (byte) 0);
+        } else if (event instanceof NativeMouseEvent mouseEvent) { // mouse clicks, movements and drags
+            var eventType = switch (mouseEvent.getID()) {
+                case NativeMouseEvent.NATIVE_MOUSE_PRESSED -> CapturedEventType.MOUSE_PRESS;
+                case NativeMouseEvent.NATIVE_MOUSE_RELEASED -> CapturedEventType.MOUSE_RELEASE;
+                default -> CapturedEventType.MOUSE_MOTION; // drags only keep the movement of the mouse
+            };
+            capturedEvents.offer(eventType, eventRelativeTime, mouseEvent.getX(), mouseEvent.getY(),
+                    mouseEvent.getButton(), (byte) 0);
         }
     }
 
     /**
-     * Returns the corresponding ReplayableAction of the given NativeInputEvent
+     * Returns the ScrollDirection of the given NativeMouseWheelEvent
+     *
+     * @param mouseWheelEvent The scroll event
+     * @return the ScrollDirection of the event, null if the event has an unknown wheel direction
+     */
+    private static ScrollAction.ScrollDirection parseScrollDirection(NativeMouseWheelEvent mouseWheelEvent) {
+        boolean negativeRotation = mouseWheelEvent.getWheelRotation() < 0;
+        return switch (mouseWheelEvent.getWheelDirection()) {
+            case NativeMouseWheelEvent.WHEEL_VERTICAL_DIRECTION -> negativeRotation ?
+                    ScrollAction.ScrollDirection.VERTICAL_NEGATIVE : ScrollAction.ScrollDirection.VERTICAL_POSITIVE;
+            case NativeMouseWheelEvent.WHEEL_HORIZONTAL_DIRECTION -> negativeRotation ?
+                    ScrollAction.ScrollDirection.HORIZONTAL_NEGATIVE : ScrollAction.ScrollDirection.HORIZONTAL_POSITIVE;
+            default -> null;
+        };
+    }
+
+    /**
+     * Passes the given captured event fields to the motion decimator of the recording events, translating the native
+     * mouse button to the button mask used to replay it
      *
-     * @param nativeEvent The NativeInputEvent to be parsed
+     * @param motionDecimator   The decimator that adds the events to the recording
+     * @param type              The type of the captured event
      * @param relativeEventTime The event execution time relative to the Recording's start
+     * @param x                 The x coordinate of the event
+     * @param y                 The y coordinate of the event
+     * @param code              The native button, native key code or scroll amount of the event
+     * @param flags             The scroll direction ordinal for scroll events
+     */
+    private static void storeCapturedEvent(MouseMotionDecimator motionDecimator, CapturedEventType type,
+                                           long relativeEventTime, int x, int y, int code, byte flags) {
+        int storedCode = (type == CapturedEventType.MOUSE_PRESS || type == CapturedEventType.MOUSE_RELEASE) ?
+                MouseButtonAction.parseButtonId(code) : code;
+        motionDecimator.accept(type, relativeEventTime, x, y, storedCode, flags);
+    }
+
+    /**
+     * Starts the thread that moves the captured events from the capture buffer to the current recording
+     */
+    private void startEventsConsumer() {
+        capturedEvents.resetStatistics();
+        final MouseMotionDecimator decimator = this.motionDecimator;
+        CapturedEventsRingBuffer.CapturedEventConsumer eventsStore = (type, time, x, y, code, flags) ->
+                storeCapturedEvent(decimator, type, time, x, y, code, flags);
+        consumingEvents = true;
+        eventsConsumer = new Thread(() -> {
+            while (consumingEvents) {
+                if (capturedEvents.drain(eventsStore) == 0) {
+                    LockSupport.parkNanos(CONSUMER_IDLE_PARK_NANOS);
+                }
+            }
+            capturedEvents.drain(eventsStore); // stores the events published before the consumer was stopped
+            decimator.flushPendingMotion(); // keeps the last position of the mouse
+        }, "recording-events-consumer");
+        eventsConsumer.setDaemon(true);
+        eventsConsumer.start();
+    }
+
+    /**
+     * Waits until the event dispatcher, already shut down by the native hook, delivers the events it had queued
+     */
+    private void awaitEventDispatcherTermination() {
+        if (eventDispatcher == null) {
+            return;
+        }
+        eventDispatcher.shutdown();
+        try {
+            if (!eventDispatcher.awaitTermination(DISPATCHER_SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                logger.log(Level.WARN, "The event dispatcher did not deliver the queued events in {} ms",
+                        DISPATCHER_SHUTDOWN_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException interruptedException) {
+            logger.log(Level.ERROR, "Interrupted while waiting for the event dispatcher termination");
+            Thread.currentThread().interrupt();
+        }
+        eventDispatcher = null;
+    }
+
+    /**
+     * Stops the events consumer thread and waits until it has stored the remaining captured events
      */
-    private ReplayableAction parseReplayableAction(NativeInputEvent nativeEvent,long relativeEventTime) {
-        ReplayableAction parsedAction = null;
-        if (nativeEvent instanceof NativeMouseWheelEvent mouseWheelEvent) { // scroll events
-            parsedAction = new ScrollAction(mouseWheelEvent, relativeEventTime);
-        } else if (nativeEvent instanceof NativeKeyEvent keyEvent) { // keyboard events
-            parsedAction = new KeyboardAction(keyEvent, relativeEventTime);
-        } else if (nativeEvent instanceof NativeMouseEvent mouseEvent) { // mouse clicks and movements
-            parsedAction = (mouseEvent.getID() == NativeMouseEvent.NATIVE_MOUSE_MOVED) ?
-                    new MouseMotionAction(mouseEvent, relativeEventTime) : new MouseButtonAction(mouseEvent, relativeEventTime);
+    private void stopEventsConsumer() {
+        if (eventsConsumer == null) {
+            return;
+        }
+        consumingEvents = false;
+        LockSupport.unpark(eventsConsumer);
+        try {
+            eventsConsumer.join();
+        } catch (InterruptedException interruptedException) {
+            logger.log(Level.ERROR, "Interrupted while waiting for the captured events to be stored");
+            Thread.currentThread().interrupt();
         }
-        return parsedAction;
+        eventsConsumer = null;
+    }
+
+    /**
+     * Returns the number of captured events waiting to be added to the recording
+     *
+     * @return the current capture buffer occupancy
+     */
+    public int getCaptureBufferOccupancy() {
+        return capturedEvents.occupancy();
+    }
+
+    /**
+     * Returns the number of events discarded because the capture buffer was full
+     *
+     * @return the dropped events count
+     */
+    public long getDroppedEventsCount() {
+        return capturedEvents.getDroppedEvents();
     }
 
     /**
@@ -190,6 +318,12 @@ public class ReplayableNativeRecorder implements NativeRecorder {
         } catch (NativeHookException ex) {
             logger.log(Level.ERROR, ex);
         }
+        awaitEventDispatcherTermination();
+        stopEventsConsumer();
+        logger.log(Level.INFO, "Captured {} events, {} dropped, {} mouse motions decimated, peak capture buffer occupancy {}/{}",
+                capturedEvents.getPublishedEvents(), capturedEvents.getDroppedEvents(),
+                motionDecimator.getDiscardedEvents(), capturedEvents.getPeakOccupancy(), capturedEvents.getCapacity());
+        this.capturedInputEvents.trimToSize();
         this.recording.closeRecording(this.eventsTimeOffset);
         logger.log(Level.TRACE, "Recording Stopped");
     }
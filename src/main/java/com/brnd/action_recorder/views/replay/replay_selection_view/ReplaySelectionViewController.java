@@ -16,7 +16,10 @@
  */
 package com.brnd.action_recorder.views.replay.replay_selection_view;
 
+import com.brnd.action_recorder.views.recording.LazyRecording;
 import com.brnd.action_recorder.views.recording.Recording;
+import com.brnd.action_recorder.views.recording.RecordingSummary;
+import com.brnd.action_recorder.views.recording.recording_saving_view.AsyncRecordingsRepository;
 import com.brnd.action_recorder.views.recording.recording_saving_view.RecordingsRepository;
 import com.brnd.action_recorder.views.utils.StagePositioner;
 import com.brnd.action_recorder.views.utils.ViewController;
@@ -26,17 +29,22 @@ import java.net.URL;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 import com.brnd.action_recorder.views.utils.ViewEnum;
 import com.github.kwhat.jnativehook.NativeInputEvent;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,8 +54,29 @@ import org.apache.logging.log4j.Logger;
  */
 public class ReplaySelectionViewController implements ViewController, Initializable {
     private static final Logger logger = LogManager.getLogger(ReplaySelectionViewController.class);
-    private final RecordingsRepository recordingsRepository = new RecordingsRepository();
-    private final List<Recording> storedRecordings = recordingsRepository.getAllRecordings();
+    /*
+     * Recordings loaded each time the table is scrolled to its end
+     */
+    private static final int PAGE_SIZE = 50;
+    /*
+     * Fraction of the table scroll after which the next page is loaded
+     */
+    private static final double NEXT_PAGE_SCROLL_THRESHOLD = 0.9;
+    /*
+     * Time without typing after which the search is executed, so a search is not made for each typed character
+     */
+    private static final Duration SEARCH_DELAY = Duration.millis(150);
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    private final AsyncRecordingsRepository recordingsRepository = new AsyncRecordingsRepository();
+    private final ProgressIndicator loadingPlaceholder = new ProgressIndicator();
+    private final Label emptyPlaceholder = new Label("No se encontraron grabaciones");
+    private String searchQuery = "";
+    private boolean lastPageLoaded;
+    private boolean loadingPage;
+    /*
+     * Incremented by each search, so the pages requested for a previous search are discarded when they arrive
+     */
+    private int searchGeneration;
     @FXML
     Button returnButton;
     @FXML
@@ -57,28 +86,103 @@ public class ReplaySelectionViewController implements ViewController, Initializa
     @FXML
     Button replaySelectedButton;
     @FXML
-    TableView<Recording> recordingsTable;
+    TextField searchTextField;
+    @FXML
+    TableView<RecordingSummary> recordingsTable;
+    @FXML
+    TableColumn<RecordingSummary, String> recordingNameCol;
     @FXML
-    TableColumn<Recording, String> recordingNameCol;
+    TableColumn<RecordingSummary, String> recordingDescriptionCol;
     @FXML
-    TableColumn<Recording, String> recordingDescriptionCol;
+    TableColumn<RecordingSummary, String> recordingDateCol;
     @FXML
-    TableColumn<Recording, String> recordingDateCol;
+    TableColumn<RecordingSummary, Float> recordingDurationCol;
     @FXML
-    TableColumn<Recording, Float> recordingDurationCol;
+    TableColumn<RecordingSummary, Integer> recordingEventsCol;
 
     @FXML
     TableView<Map.Entry<Double, NativeInputEvent>> recordingActionsTable;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        logger.log(Level.ALL, "{} recording retrieved from database.", storedRecordings.size());
         this.addRowsToRecordingsTable();
+        this.loadNextPage(); // events are only loaded for the selected recording
+
+        searchDelay.setOnFinished(event -> this.searchRecordings(searchTextField.getText()));
+        searchTextField.textProperty().addListener((observable, oldText, newText) -> searchDelay.playFromStart());
+        recordingsTable.skinProperty().addListener((observable, oldSkin, newSkin) -> this.loadPagesOnScroll());
+    }
+
+    /**
+     * Replaces the recordingsTable rows with the first page of recordings matching the given query
+     *
+     * @param query the text typed in the search field
+     */
+    private void searchRecordings(String query) {
+        searchQuery = query == null ? "" : query;
+        searchGeneration++;
+        lastPageLoaded = false;
+        loadingPage = false;
+        recordingsTable.getItems().clear();
+        recordingsTable.scrollTo(0);
+        this.loadNextPage();
     }
 
     /**
-     * Fills the recordingsTable using the storedRecordings list
-     * by adding a new row for each recording contained in the storedRecordings
+     * Requests in the background the next page of recordings and appends it to the recordingsTable once it is
+     * retrieved. Without a search query, pages are read newest first by keyset so each page takes the same time,
+     * search results are read by offset in relevance order. Only one page is requested at a time.
+     */
+    private void loadNextPage() {
+        if (lastPageLoaded || loadingPage) {
+            return;
+        }
+        loadingPage = true;
+        recordingsTable.setPlaceholder(loadingPlaceholder);
+        var loadedRecordings = recordingsTable.getItems();
+        int requestGeneration = searchGeneration;
+        CompletableFuture<List<RecordingSummary>> page;
+        if (searchQuery.isBlank()) {
+            var lastSummary = loadedRecordings.isEmpty() ? null : loadedRecordings.get(loadedRecordings.size() - 1);
+            page = recordingsRepository.getRecordingSummariesPage(RecordingsRepository.SummariesOrder.NEWEST_FIRST, lastSummary, PAGE_SIZE);
+        } else {
+            page = recordingsRepository.search(searchQuery, PAGE_SIZE, loadedRecordings.size());
+        }
+        page.whenComplete((summaries, exception) -> { // executed on the JavaFX application thread
+            if (requestGeneration != searchGeneration) { // the page belongs to a previous search
+                return;
+            }
+            loadingPage = false;
+            recordingsTable.setPlaceholder(emptyPlaceholder);
+            if (exception != null) {
+                logger.log(Level.ERROR, "Could not retrieve recordings page. Exception msg: {}", exception.getMessage());
+                return;
+            }
+            lastPageLoaded = summaries.size() < PAGE_SIZE;
+            loadedRecordings.addAll(summaries);
+            logger.log(Level.ALL, "{} recordings retrieved from database, {} loaded.", summaries.size(), loadedRecordings.size());
+        });
+    }
+
+    /**
+     * Loads the next page of recordings each time the recordingsTable vertical scroll bar gets near its end. The
+     * scroll bar is created by the table skin, so this is called once the skin is set.
+     */
+    private void loadPagesOnScroll() {
+        for (Node node : recordingsTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMax() * NEXT_PAGE_SCROLL_THRESHOLD) {
+                        this.loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Links the recordingsTable columns to the RecordingSummary properties, rows
+     * are added by pages as the table is scrolled
      */
     private void addRowsToRecordingsTable() {
         /*
@@ -96,8 +200,10 @@ public class ReplaySelectionViewController implements ViewController, Initializa
         recordingDurationCol.setCellValueFactory(
                 new PropertyValueFactory<>("recordingDuration")
         );
-        ObservableList<Recording> recordingRows = FXCollections.observableArrayList();
-        recordingRows.addAll(storedRecordings);
+        recordingEventsCol.setCellValueFactory(
+                new PropertyValueFactory<>("eventsCount")
+        );
+        ObservableList<RecordingSummary> recordingRows = FXCollections.observableArrayList();
         recordingsTable.setItems(recordingRows);
     }
 
@@ -105,10 +211,13 @@ public class ReplaySelectionViewController implements ViewController, Initializa
     public void startSelectedReplay(Event event) {
         Stage currentStage = StagePositioner.getStageFromEvent(event);
 
-        var selectedRecording = recordingsTable.getSelectionModel().getSelectedItem(); // get selected recording
-        if (selectedRecording != null) {
-            logger.log(Level.INFO, "Selected recording: {}", selectedRecording.toShortString());
-            navigatetoStartReplayView(selectedRecording, currentStage);
+        var selectedSummary = recordingsTable.getSelectionModel().getSelectedItem(); // get selected recording
+        if (selectedSummary != null) {
+            logger.log(Level.INFO, "Selected recording: {}", selectedSummary);
+            // the recording events are loaded when the replay starts
+            navigatetoStartReplayView(
+                    new LazyRecording(selectedSummary, recordingsRepository.getRecordingsRepository()), currentStage
+            );
         }else{
             var alertMessage = "Para continuar debes seleccionar una grabación para reproducir";
             ViewController.createCustomAlert(
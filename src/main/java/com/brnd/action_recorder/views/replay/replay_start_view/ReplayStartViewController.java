@@ -16,7 +16,11 @@
  */
 package com.brnd.action_recorder.views.replay.replay_start_view;
 
+import com.brnd.action_recorder.views.recording.LazyRecording;
 import com.brnd.action_recorder.views.recording.Recording;
+import com.brnd.action_recorder.views.recording.RecordingStatistics;
+import com.brnd.action_recorder.views.recording.recording_saving_view.AsyncRecordingsRepository;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
 import com.brnd.action_recorder.views.utils.StagePositioner;
 import com.brnd.action_recorder.views.utils.ViewController;
 import com.brnd.action_recorder.views.utils.ViewEnum;
@@ -38,6 +42,7 @@ import org.apache.logging.log4j.Logger;
 import java.awt.*;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Queue;
 import java.util.ResourceBundle;
 
 /**
@@ -49,6 +54,7 @@ public class ReplayStartViewController implements ViewController, Initializable
     private FXTrayIcon trayIcon;
     private ActionsPlayer actionsPlayer;
     private final ToggleGroup replayModeToggleGroup = new ToggleGroup();
+    private final AsyncRecordingsRepository recordingsRepository = new AsyncRecordingsRepository();
     private boolean mouseEvents = false;
     private boolean keyboardEvents = false;
     private boolean scrollEvents = false;
@@ -75,15 +81,58 @@ public class ReplayStartViewController implements ViewController, Initializable
         configureReplayModeToggleGroup();
         Platform.runLater(() -> { // to prevent execution until initialization is complete. Otherwise node.getScene returns null
             Recording recording = getRecording();
-            try {
-                this.actionsPlayer = new ActionsPlayer(recording.getInputEvents(), recording.getRecordingDuration());
-            } catch (Exception e) {
-                logger.log(Level.ERROR, "Could not create ActionsPlayer. Message: {}", e.getMessage());
-            }
             this.displayReplayInfo(recording);
+            this.loadInputEvents(recording);
         });
     }
 
+    /**
+     * Creates the ActionsPlayer with the recording input events, the start button stays disabled until they are
+     * available. The events of a LazyRecording are loaded off the JavaFX thread, so the view doesn't freeze while
+     * they are fetched and decoded
+     *
+     * @param recording the recording to replay
+     */
+    private void loadInputEvents(Recording recording) {
+        if (!(recording instanceof LazyRecording lazyRecording)) { // the events are already in memory
+            this.createActionsPlayer(recording.getInputEvents(), recording.getRecordingDuration());
+            return;
+        }
+        this.startReplayButton.setDisable(true);
+        recordingsRepository.loadInputEvents(lazyRecording)
+                .exceptionally(exception -> {
+                    logger.log(Level.ERROR, "Could not load Recording {} input events. Message: {}",
+                            recording.getId(), exception.getMessage());
+                    return null;
+                })
+                .thenAccept(inputEvents -> {
+                    if (inputEvents == null) {
+                        ViewController.createCustomAlert(
+                                Alert.AlertType.ERROR,
+                                "No se pudieron cargar los eventos de la grabación",
+                                "Error al cargar la grabación", (Stage) closeBttn.getScene().getWindow(), ButtonType.OK
+                        ).show();
+                        return;
+                    }
+                    this.createActionsPlayer(inputEvents, recording.getRecordingDuration());
+                    this.startReplayButton.setDisable(this.actionsPlayer == null);
+                });
+    }
+
+    /**
+     * Creates the ActionsPlayer that replays the given input events
+     *
+     * @param inputEvents the input events to replay
+     * @param duration    the recording duration in seconds
+     */
+    private void createActionsPlayer(Queue<ReplayableAction> inputEvents, float duration) {
+        try {
+            this.actionsPlayer = new ActionsPlayer(inputEvents, duration);
+        } catch (Exception e) {
+            logger.log(Level.ERROR, "Could not create ActionsPlayer. Message: {}", e.getMessage());
+        }
+    }
+
     /**
      * Show the information of the replay in the screen controls and
      */
@@ -92,8 +141,31 @@ public class ReplayStartViewController implements ViewController, Initializable
         this.keyboardCheck.setSelected(recording.isKeyboardEvents());
         this.scrollCheck.setSelected(recording.isScrollEvents());
         this.clickCheck.setSelected(recording.isClickEvents());
-        this.inputsText.setText(String.valueOf(recording.getInputEvents().size()));
+        this.inputsText.setText(String.valueOf(recording.getInputEventsCount()));
         this.durationText.setText(String.format("%.2f s", recording.getRecordingDuration()));
+        if (recording instanceof LazyRecording lazyRecording && lazyRecording.getStatistics() != null) {
+            Tooltip.install(this.inputsText, new Tooltip(statisticsText(lazyRecording.getStatistics())));
+        }
+    }
+
+    /**
+     * Builds the text shown with the details of the recording input events
+     *
+     * @param statistics the statistics of the recording input events
+     * @return the statistics text
+     */
+    private static String statisticsText(RecordingStatistics statistics) {
+        var statisticsText = new StringBuilder();
+        statisticsText.append(String.format("Movimientos: %d%n", statistics.motionEventsCount()));
+        statisticsText.append(String.format("Clics: %d%n", statistics.buttonEventsCount()));
+        statisticsText.append(String.format("Scroll: %d%n", statistics.wheelEventsCount()));
+        statisticsText.append(String.format("Teclas: %d%n", statistics.keyEventsCount()));
+        statisticsText.append(String.format("Máximo eventos por segundo: %d", statistics.peakEventsPerSecond()));
+        if (statistics.hasMouseEvents()) {
+            statisticsText.append(String.format("%nÁrea del mouse: (%d, %d) - (%d, %d)",
+                    statistics.mouseMinX(), statistics.mouseMinY(), statistics.mouseMaxX(), statistics.mouseMaxY()));
+        }
+        return statisticsText.toString();
     }
 //
 
@@ -20,7 +20,9 @@ import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
+import java.io.Serial;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -31,6 +33,8 @@ import org.apache.logging.log4j.Logger;
  */
 public class KeyboardAction extends ReplayableAction {
     private static final Logger logger = LogManager.getLogger(KeyboardAction.class);
+    @Serial
+    private static final long serialVersionUID = -5909554544423236495L;
     /**
      * Contains every VC keycode constants declared on the @{link NativeInputEvent} class as keys and it's corresponding
      * JWT VK constants representation declared on @{link KeyEvent} class.
@@ -40,8 +44,13 @@ public class KeyboardAction extends ReplayableAction {
     private final KeyActionType keyActionType;
     private final KeyType keyType;
     private final int actionKeyCode;
-    private final String keyText;
-    private final String nativeKeyText;
+    private final int nativeKeyCode;
+    /*
+     * Key descriptions are only resolved when needed (logging or displaying), actions deserialized from legacy
+     * Recordings already carry them.
+     */
+    private String keyText;
+    private String nativeKeyText;
 
     /**
      * Creates a new KeyboardAction from the given NativeInputEvent
@@ -50,16 +59,40 @@ public class KeyboardAction extends ReplayableAction {
      * @throws IllegalStateException if the given NativeKeyEvent is other event type than key press or release
      */
     public KeyboardAction(NativeKeyEvent nativeKeyEvent, long relativeExecutionTime) throws IllegalStateException {
+        this(nativeKeyEvent.getKeyCode(), parseKeyActionType(nativeKeyEvent), relativeExecutionTime);
+    }
+
+    /**
+     * Creates a new KeyboardAction from its raw values, intended to be used when restoring stored actions
+     *
+     * @param nativeKeyCode         The VC keycode of the key as declared on the {@link NativeKeyEvent} class
+     * @param keyPress              true if the action is a key press, false if it is a key release
+     * @param relativeExecutionTime The execution time relative to the Recording start in nanoseconds
+     */
+    public KeyboardAction(int nativeKeyCode, boolean keyPress, long relativeExecutionTime) {
+        this(nativeKeyCode, keyPress ? KeyActionType.PRESS : KeyActionType.RELEASE, relativeExecutionTime);
+    }
+
+    private KeyboardAction(int nativeKeyCode, KeyActionType keyActionType, long relativeExecutionTime) {
         super(relativeExecutionTime);
         super.actionType = ActionType.KEYBOARD_INPUT; // sets the actionType to keyboard input
-        this.keyType = this.getKeyType(nativeKeyEvent);
-        this.nativeKeyText = NativeKeyEvent.getKeyText(nativeKeyEvent.getKeyCode());
+        this.keyType = this.getKeyType(nativeKeyCode);
+        this.nativeKeyCode = nativeKeyCode;
         this.actionKeyCode = KeyboardAction.keyCodesDictionary
-                .getOrDefault(nativeKeyEvent.getKeyCode(), KeyEvent.VK_UNDEFINED);
+                .getOrDefault(nativeKeyCode, KeyEvent.VK_UNDEFINED);
+        this.keyActionType = keyActionType;
+    }
 
-        this.keyText = KeyEvent.getKeyText(this.actionKeyCode);
+    /**
+     * Obtains the KeyActionType corresponding to the given NativeKeyEvent
+     *
+     * @param nativeKeyEvent A NativeKeyEvent representing either a key release or key press.
+     * @return the KeyActionType of the event
+     * @throws IllegalStateException if the given NativeKeyEvent is other event type than key press or release
+     */
+    private static KeyActionType parseKeyActionType(NativeKeyEvent nativeKeyEvent) throws IllegalStateException {
         var nativeEventType = nativeKeyEvent.getID(); // gets the id of the given NativeKeyEvent
-        this.keyActionType = switch (nativeEventType) { // assign the key action type based on the event id
+        return switch (nativeEventType) { // assign the key action type based on the event id
             case NativeKeyEvent.NATIVE_KEY_PRESSED -> KeyActionType.PRESS;
             case NativeKeyEvent.NATIVE_KEY_RELEASED -> KeyActionType.RELEASE;
             default -> { // if the id is different from a key press or key release event throws an IllegalStateException
@@ -73,11 +106,60 @@ public class KeyboardAction extends ReplayableAction {
         };
     }
 
-    private KeyType getKeyType(NativeKeyEvent keyEvent) {
-        logger.log(Level.ALL, "Unimplemented functionality getKeyType(NativeKeyEvent)");
+    private KeyType getKeyType(int nativeKeyCode) {
+        logger.log(Level.ALL, "Unimplemented functionality getKeyType(int)");
         return KeyType.ALPHANUMERICAL;
     }
 
+    /**
+     * The VC keycode of this action key. Actions restored from legacy Recordings did not store it, for those the
+     * keycode is obtained from its VK keycode representation.
+     *
+     * @return the VC keycode as declared on the {@link NativeKeyEvent} class
+     */
+    public int getNativeKeyCode() {
+        if (this.nativeKeyCode != NativeKeyEvent.VC_UNDEFINED || this.actionKeyCode == KeyEvent.VK_UNDEFINED) {
+            return this.nativeKeyCode;
+        }
+        return keyCodesDictionary.entrySet().stream()
+                .filter(entry -> entry.getValue() == this.actionKeyCode)
+                .mapToInt(Map.Entry::getKey)
+                .findFirst()
+                .orElse(NativeKeyEvent.VC_UNDEFINED);
+    }
+
+    /**
+     * The VK keycode used to reproduce this action
+     *
+     * @return the VK keycode as declared on the {@link KeyEvent} class
+     */
+    public int getActionKeyCode() {
+        return actionKeyCode;
+    }
+
+    /**
+     * Whether this action is a key press or a key release
+     *
+     * @return true if this action presses the key, false if it releases it
+     */
+    public boolean isKeyPress() {
+        return keyActionType == KeyActionType.PRESS;
+    }
+
+    public String getKeyText() {
+        if (keyText == null) {
+            keyText = KeyEvent.getKeyText(this.actionKeyCode);
+        }
+        return keyText;
+    }
+
+    public String getNativeKeyText() {
+        if (nativeKeyText == null) {
+            nativeKeyText = NativeKeyEvent.getKeyText(this.getNativeKeyCode());
+        }
+        return nativeKeyText;
+    }
+
     /**
      * Executes needed steps to reproduce the KeyboardAction
      *
@@ -101,8 +183,8 @@ public class KeyboardAction extends ReplayableAction {
         sb.append("keyActionType=").append(keyActionType);
         sb.append(", keyType=").append(keyType);
         sb.append(", actionKeyCode=").append(actionKeyCode);
-        sb.append(", keyText='").append(keyText).append('\'');
-        sb.append(", nativeKeyText='").append(nativeKeyText).append('\'');
+        sb.append(", keyText='").append(getKeyText()).append('\'');
+        sb.append(", nativeKeyText='").append(getNativeKeyText()).append('\'');
         sb.append(", actionType=").append(actionType);
         sb.append('}');
         return sb.toString();
@@ -17,11 +17,14 @@
 package com.brnd.action_recorder.views.replay.replay_start_view.actions;
 
 import java.awt.*;
+import java.io.Serial;
 
 /**
  * Represents a ReplayableAction which is related to the system mouse
  */
 public abstract class MouseAction extends ReplayableAction {
+    @Serial
+    private static final long serialVersionUID = 6527129711131253514L;
     private final int mouseX;
     private final int mouseY;
     private final MouseEventType mouseEventType;
@@ -23,9 +23,12 @@ import org.apache.logging.log4j.Logger;
 
 import java.awt.Robot;
 import java.awt.event.InputEvent;
+import java.io.Serial;
 
 public class MouseButtonAction extends MouseAction {
     private static final Logger logger = LogManager.getLogger(MouseButtonAction.class);
+    @Serial
+    private static final long serialVersionUID = -2363812832546670217L;
     private final ButtonActionType buttonActionType;
     private final int buttonId;
 
@@ -37,7 +40,7 @@ public class MouseButtonAction extends MouseAction {
      */
     public MouseButtonAction(NativeMouseEvent nativeMouseEvent, long protectedExecutionTime) {
         super(MouseEventType.BUTTON_CLICK, nativeMouseEvent.getX(), nativeMouseEvent.getY(), protectedExecutionTime);
-        this.buttonId = this.parseButtonId(nativeMouseEvent.getButton());
+        this.buttonId = parseButtonId(nativeMouseEvent.getButton());
         var nativeMouseEventId = nativeMouseEvent.getID(); // gets the id of the mouse event
         switch (nativeMouseEventId) {
             case NativeMouseEvent.NATIVE_MOUSE_PRESSED -> this.buttonActionType = ButtonActionType.BUTTON_PRESS;
@@ -53,6 +56,21 @@ public class MouseButtonAction extends MouseAction {
         }
     }
 
+    /**
+     * Creates a new MouseButtonAction from its raw values, intended to be used when restoring stored actions
+     *
+     * @param buttonId              The already parsed button id (Robot button mask) of the action
+     * @param buttonPress           true if the action is a button press, false if it is a button release
+     * @param eventX                the mouse X coordinate in which the action will be executed
+     * @param eventY                the mouse Y coordinate in which the action will be executed
+     * @param relativeExecutionTime The execution time relative to the Recording start in nanoseconds
+     */
+    public MouseButtonAction(int buttonId, boolean buttonPress, int eventX, int eventY, long relativeExecutionTime) {
+        super(MouseEventType.BUTTON_CLICK, eventX, eventY, relativeExecutionTime);
+        this.buttonId = buttonId;
+        this.buttonActionType = buttonPress ? ButtonActionType.BUTTON_PRESS : ButtonActionType.BUTTON_RELEASE;
+    }
+
     /**
      * Parses the given button id from an NativeMouseButtonEvent to an id
      * that can be used to identify this MouseButtonAction button
@@ -60,7 +78,7 @@ public class MouseButtonAction extends MouseAction {
      * @param nativeMouseButtonId the id of the NativeInputEvent
      * @return the parsed button id for Robot.mousePress() or Robot.mouseRelease() methods as int.
      */
-    private int parseButtonId(int nativeMouseButtonId) {
+    public static int parseButtonId(int nativeMouseButtonId) {
         int parsedId = -1;
         /*
             System dependent button id modification
@@ -97,6 +115,24 @@ public class MouseButtonAction extends MouseAction {
         }
     }
 
+    /**
+     * The button id used by the Robot to reproduce this action
+     *
+     * @return the button mask as int
+     */
+    public int getButtonId() {
+        return buttonId;
+    }
+
+    /**
+     * Whether this action is a button press or a button release
+     *
+     * @return true if this action presses the button, false if it releases it
+     */
+    public boolean isButtonPress() {
+        return buttonActionType == ButtonActionType.BUTTON_PRESS;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("MouseButtonAction{");
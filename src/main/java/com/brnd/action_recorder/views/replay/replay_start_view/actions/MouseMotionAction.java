@@ -22,9 +22,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.awt.*;
+import java.io.Serial;
 
 public class MouseMotionAction extends MouseAction {
     private static final Logger logger = LogManager.getLogger(MouseMotionAction.class);
+    @Serial
+    private static final long serialVersionUID = 4916507857560324256L;
 
     /**
      * Creates a new MouseMotionAction instance using the specified NativeMouseEvent.
@@ -43,6 +46,17 @@ public class MouseMotionAction extends MouseAction {
         }
     }
 
+    /**
+     * Creates a new MouseMotionAction from its raw values, intended to be used when restoring stored actions
+     *
+     * @param eventX                the mouse X coordinate to which the mouse will be moved
+     * @param eventY                the mouse Y coordinate to which the mouse will be moved
+     * @param relativeExecutionTime The execution time relative to the Recording start in nanoseconds
+     */
+    public MouseMotionAction(int eventX, int eventY, long relativeExecutionTime) {
+        super(MouseEventType.MOTION, eventX, eventY, relativeExecutionTime);
+    }
+
     /**
      * Executes needed steps to reproduce this MouseMotionAction
      *
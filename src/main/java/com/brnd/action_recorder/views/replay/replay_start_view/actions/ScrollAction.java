@@ -22,12 +22,15 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
 import java.awt.*;
+import java.io.Serial;
 
 /**
  * A ReplayableAction representing a mouse scroll input
  */
 public class ScrollAction extends MouseAction {
     private static final Logger logger = LogManager.getLogger(ScrollAction.class);
+    @Serial
+    private static final long serialVersionUID = 2562141041677100137L;
     private final ScrollDirection scrollDirection;
     private final int wheelScroll;
 
@@ -58,6 +61,29 @@ public class ScrollAction extends MouseAction {
         };
     }
 
+    /**
+     * Creates a new ScrollAction from its raw values, intended to be used when restoring stored actions
+     *
+     * @param scrollDirection       The direction of the scroll
+     * @param wheelScroll           The scroll amount
+     * @param eventX                the mouse X coordinate in which the action was caught
+     * @param eventY                the mouse Y coordinate in which the action was caught
+     * @param relativeExecutionTime The execution time relative to the Recording start in nanoseconds
+     */
+    public ScrollAction(ScrollDirection scrollDirection, int wheelScroll, int eventX, int eventY, long relativeExecutionTime) {
+        super(MouseEventType.SCROLL, eventX, eventY, relativeExecutionTime);
+        this.scrollDirection = scrollDirection;
+        this.wheelScroll = wheelScroll;
+    }
+
+    public ScrollDirection getScrollDirection() {
+        return scrollDirection;
+    }
+
+    public int getWheelScroll() {
+        return wheelScroll;
+    }
+
     /**
      * Executes needed steps to reproduce this ScrollAction
      *
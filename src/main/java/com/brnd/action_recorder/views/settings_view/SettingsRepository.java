@@ -17,11 +17,12 @@
 package com.brnd.action_recorder.views.settings_view;
 
 import com.brnd.action_recorder.data.Database;
+import com.brnd.action_recorder.data.DatabaseExecutor;
 import com.brnd.action_recorder.data.DatabaseTable;
+import com.brnd.action_recorder.data.StatementCache;
 import com.brnd.action_recorder.views.utils.StageLocation;
 import org.apache.logging.log4j.Level;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -30,15 +31,23 @@ import static com.brnd.action_recorder.data.Database.logger;
 
 /**
  * This class has the needed functionalities to insert, select and update Settings from the
- * database
+ * database. Writes are executed on the
+ * {@link DatabaseExecutor} thread through the write connection, reads use the
+ * read connection from the calling thread.
  */
 public class SettingsRepository {
 
-    private final Connection connection;
+    private final StatementCache statements;
+    private final StatementCache readStatements;
 
     private static final String SETTINGS_ID_FIELD = "settings_id";
     private static final String INITIAL_STAGE_LOCATION_FIELD = "initial_stage_location";
     private static final String SHOW_ON_TOP_FIELD = "always_on_top";
+    private static final String EXPORT_DIRECTORY_PATH_FIELD = "export_directory_path";
+    /*
+     * Directory used until the user exports an archive somewhere else
+     */
+    private static final String DEFAULT_EXPORT_DIRECTORY_PATH = System.getProperty("user.home");
 
     private static final String SELECT_INITIAL_STAGE_LOCATION_SENTENCE
             = String.format("SELECT %s FROM %s WHERE %s = %d;",
@@ -54,6 +63,13 @@ public class SettingsRepository {
                     SETTINGS_ID_FIELD,
                     1
             );
+    private static final String SELECT_EXPORT_DIRECTORY_PATH_SENTENCE
+            = String.format("SELECT %s FROM %s WHERE %s = %d;",
+                    EXPORT_DIRECTORY_PATH_FIELD,
+                    DatabaseTable.SETTINGS.name(),
+                    SETTINGS_ID_FIELD,
+                    1
+            );
     private static final String UPDATE_INITIAL_STAGE_LOCATION_SENTENCE
             = String.format("UPDATE %s SET %s = (?) WHERE %s = %d;",
                     DatabaseTable.SETTINGS.name(),
@@ -69,10 +85,18 @@ public class SettingsRepository {
                     SETTINGS_ID_FIELD,
                     1
             );
+    private static final String UPDATE_EXPORT_DIRECTORY_PATH_SENTENCE
+            = String.format("UPDATE %s SET %s = (?) WHERE %s = %d;",
+                    DatabaseTable.SETTINGS.name(),
+                    EXPORT_DIRECTORY_PATH_FIELD,
+                    SETTINGS_ID_FIELD,
+                    1
+            );
 
     public SettingsRepository() {
         try {
-            connection = Database.getSqliteConnection();
+            statements = StatementCache.of(Database.getSqliteConnection());
+            readStatements = StatementCache.of(Database.getSqliteReadConnection());
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
@@ -83,7 +107,7 @@ public class SettingsRepository {
         StageLocation initialStageLocation;
 
         try {
-            preparedStatement = connection.prepareStatement(SELECT_INITIAL_STAGE_LOCATION_SENTENCE);
+            preparedStatement = readStatements.prepareStatement(SELECT_INITIAL_STAGE_LOCATION_SENTENCE);
             ResultSet resultSet = preparedStatement.executeQuery();
             String location = resultSet.getString(1);
 
@@ -119,7 +143,7 @@ public class SettingsRepository {
         boolean showOnTop;
 
         try {
-            preparedStatement = connection.prepareStatement(SELECT_SHOW_ON_TOP_FIELD_SENTENCE);
+            preparedStatement = readStatements.prepareStatement(SELECT_SHOW_ON_TOP_FIELD_SENTENCE);
             ResultSet resultSet = preparedStatement.executeQuery();
             showOnTop = resultSet.getBoolean(1);
 
@@ -143,69 +167,112 @@ public class SettingsRepository {
     }
 
 
+    /**
+     * Obtains the directory where the recordings archives are exported
+     *
+     * @return the saved directory path, or the user home directory if none was saved
+     */
     public String obtainExportDirectoryPath() {
-        logger.log(Level.ALL, "Unimplemented SettingsRepository.obtainExportDirectoryPath() method functionality");
-        return "";
+        String exportDirectoryPath = DEFAULT_EXPORT_DIRECTORY_PATH;
+
+        try (PreparedStatement preparedStatement = readStatements.prepareStatement(SELECT_EXPORT_DIRECTORY_PATH_SENTENCE)) {
+            ResultSet resultSet = preparedStatement.executeQuery();
+            String savedPath = resultSet.getString(1);
+            if (savedPath != null) {
+                exportDirectoryPath = savedPath;
+            } else {
+                logger.log(Level.ALL, "No saved export directory found in database, using default value {}"
+                        , exportDirectoryPath);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.ERROR, "Could not retrieve export directory value from database with following query {}"
+                    , SELECT_EXPORT_DIRECTORY_PATH_SENTENCE);
+            logger.log(Level.ERROR, e);
+        }
+
+        return exportDirectoryPath;
     }
 
     public void saveInitialStageLocation(StageLocation newInitialStageLocation) {
-        PreparedStatement preparedStatement = null;
+        DatabaseExecutor.runWrite(() -> {
+            PreparedStatement preparedStatement = null;
 
-        try {
-            logger.log(Level.ALL, "Saving Initial Stage Location value ({}) in database with script {}"
-                    , newInitialStageLocation.name(), UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
-            preparedStatement = connection.prepareStatement(UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
-            preparedStatement.setString(1, newInitialStageLocation.name());
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count"
-                    , modifiedRows);
+            try {
+                logger.log(Level.ALL, "Saving Initial Stage Location value ({}) in database with script {}"
+                        , newInitialStageLocation.name(), UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
+                preparedStatement = statements.prepareStatement(UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
+                preparedStatement.setString(1, newInitialStageLocation.name());
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count"
+                        , modifiedRows);
 
 
-        } catch (SQLException e) {
-            logger.log(Level.ERROR, "Could not save Initial Stage Location value ({}) in database following query {}"
-                    ,newInitialStageLocation, UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
-            logger.log(Level.ERROR, e);
-        } finally {
-            if (preparedStatement != null) {
-                try {
-                    preparedStatement.close();
-                } catch (SQLException ex) {
-                    logger.log(Level.ERROR, "Could not close PrepareStament on {} method. Exception msg: {}"
-                            , "SettingsService.SettingsRepository.saveInitialStageLocation()", ex.getMessage());
+            } catch (SQLException e) {
+                logger.log(Level.ERROR, "Could not save Initial Stage Location value ({}) in database following query {}"
+                        ,newInitialStageLocation, UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
+                logger.log(Level.ERROR, e);
+            } finally {
+                if (preparedStatement != null) {
+                    try {
+                        preparedStatement.close();
+                    } catch (SQLException ex) {
+                        logger.log(Level.ERROR, "Could not close PrepareStament on {} method. Exception msg: {}"
+                                , "SettingsService.SettingsRepository.saveInitialStageLocation()", ex.getMessage());
+                    }
                 }
             }
-        }
+        });
     }
 
     public void saveShowOnTopValue(boolean newShowOnTopValue) {
-        PreparedStatement preparedStatement = null;
-        try {
-            logger.log(Level.ALL, "Saving show on top value ({}) in database with script {}"
-                    , newShowOnTopValue, UPDATE_SHOW_ON_TOP_SENTENCE);
-            preparedStatement = connection.prepareStatement(UPDATE_SHOW_ON_TOP_SENTENCE);
-            preparedStatement.setBoolean(1, newShowOnTopValue);
-            int modifiedRows = preparedStatement.executeUpdate();
-            logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count"
-                    , modifiedRows);
-        } catch (SQLException e) {
-            logger.log(Level.ERROR, "Could not save Show on top value ({}) in database following query {}", UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
-            logger.log(Level.ERROR, e);
-        } finally {
-            if (preparedStatement != null) {
-                try {
-                    preparedStatement.close();
-                } catch (SQLException ex) {
-                    logger.log(Level.ERROR, "Could not close PrepareStament on {} method", "SettingsService.SettingsRepository.saveShowOnTopValue()");
-                    logger.log(Level.ERROR, ex);
+        DatabaseExecutor.runWrite(() -> {
+            PreparedStatement preparedStatement = null;
+            try {
+                logger.log(Level.ALL, "Saving show on top value ({}) in database with script {}"
+                        , newShowOnTopValue, UPDATE_SHOW_ON_TOP_SENTENCE);
+                preparedStatement = statements.prepareStatement(UPDATE_SHOW_ON_TOP_SENTENCE);
+                preparedStatement.setBoolean(1, newShowOnTopValue);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count"
+                        , modifiedRows);
+            } catch (SQLException e) {
+                logger.log(Level.ERROR, "Could not save Show on top value ({}) in database following query {}", UPDATE_INITIAL_STAGE_LOCATION_SENTENCE);
+                logger.log(Level.ERROR, e);
+            } finally {
+                if (preparedStatement != null) {
+                    try {
+                        preparedStatement.close();
+                    } catch (SQLException ex) {
+                        logger.log(Level.ERROR, "Could not close PrepareStament on {} method", "SettingsService.SettingsRepository.saveShowOnTopValue()");
+                        logger.log(Level.ERROR, ex);
 
+                    }
                 }
             }
-        }
+        });
     }
 
 
+    /**
+     * Saves the directory where the recordings archives are exported
+     *
+     * @param newPath the directory path
+     */
     public void saveExportDirectoryPath(String newPath) {
-        logger.log(Level.ALL, "Unimplemented SettingsRepository.saveExportDirectoryPath(String) method functionality");
+        DatabaseExecutor.runWrite(() -> {
+            try (PreparedStatement preparedStatement = statements.prepareStatement(UPDATE_EXPORT_DIRECTORY_PATH_SENTENCE)) {
+                logger.log(Level.ALL, "Saving export directory value ({}) in database with script {}"
+                        , newPath, UPDATE_EXPORT_DIRECTORY_PATH_SENTENCE);
+                preparedStatement.setString(1, newPath);
+                int modifiedRows = preparedStatement.executeUpdate();
+                logger.log(Level.ALL, "Succesfully execute script with a {} modified rows count"
+                        , modifiedRows);
+            } catch (SQLException e) {
+                logger.log(Level.ERROR, "Could not save export directory value ({}) in database following query {}"
+                        , newPath, UPDATE_EXPORT_DIRECTORY_PATH_SENTENCE);
+                logger.log(Level.ERROR, e);
+            }
+        });
     }
 
 }
@@ -17,20 +17,30 @@
 package com.brnd.action_recorder.views.settings_view;
 
 import com.brnd.action_recorder.views.main_view.Main;
+import com.brnd.action_recorder.views.recording.recording_saving_view.RecordingsArchive;
 import com.brnd.action_recorder.views.utils.StageLocation;
+import com.brnd.action_recorder.views.utils.StagePositioner;
 import com.brnd.action_recorder.views.utils.ViewController;
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceBox;
-import javafx.scene.control.TextField;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
 import org.apache.logging.log4j.Level;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static com.brnd.action_recorder.views.main_view.Main.logger;
 
@@ -39,6 +49,9 @@ import static com.brnd.action_recorder.views.main_view.Main.logger;
  */
 public class SettingsViewController implements ViewController, Initializable {
 
+    private static final String ARCHIVE_ALERT_HEADER = "Copia de las grabaciones - Grabadora de Acciones";
+    private static final String DEFAULT_ARCHIVE_NAME = "grabaciones" + RecordingsArchive.ARCHIVE_EXTENSION;
+    private final RecordingsArchive recordingsArchive = new RecordingsArchive();
     private Settings currentSettings;
     @FXML
     Button browseButton;
@@ -49,6 +62,10 @@ public class SettingsViewController implements ViewController, Initializable {
     @FXML
     Button closeButton;
     @FXML
+    Button exportRecordingsButton;
+    @FXML
+    Button importRecordingsButton;
+    @FXML
     CheckBox alwaysOnTopCheckBox;
     @FXML
     ChoiceBox<String> positionChoiceBox;
@@ -130,6 +147,81 @@ public class SettingsViewController implements ViewController, Initializable {
         logger.log(Level.INFO, "Successfully load settings ({}) from database", this.currentSettings.toString() );
 
     }
+    /**
+     * Exports every recording to an archive chosen by the user, the chosen directory is remembered for the next export
+     *
+     * @param event the button event
+     */
+    @FXML
+    public void exportRecordings(Event event) {
+        Stage currentStage = StagePositioner.getStageFromEvent(event);
+        var fileChooser = createArchiveChooser("Exportar grabaciones");
+        fileChooser.setInitialFileName(DEFAULT_ARCHIVE_NAME);
+        File archive = fileChooser.showSaveDialog(currentStage);
+        if (archive == null) {
+            return;
+        }
+        Main.settingsRepository.saveExportDirectoryPath(archive.getParent());
+        // the export reads from its own connection, so it doesn't need a database thread
+        runArchiveTask(currentStage, () -> recordingsArchive.exportRecordings(archive.toPath()),
+                "Grabaciones exportadas: %d", "No se pudieron exportar las grabaciones. Intente de nuevo");
+    }
+
+    /**
+     * Imports the recordings of an archive chosen by the user
+     *
+     * @param event the button event
+     */
+    @FXML
+    public void importRecordings(Event event) {
+        Stage currentStage = StagePositioner.getStageFromEvent(event);
+        File archive = createArchiveChooser("Importar grabaciones").showOpenDialog(currentStage);
+        if (archive == null) {
+            return;
+        }
+        runArchiveTask(currentStage, () -> recordingsArchive.importRecordings(archive.toPath()),
+                "Grabaciones importadas: %d", "No se pudieron importar las grabaciones del archivo seleccionado");
+    }
+
+    private FileChooser createArchiveChooser(String title) {
+        var fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Grabaciones", "*" + RecordingsArchive.ARCHIVE_EXTENSION)
+        );
+        File exportDirectory = Path.of(Main.settingsRepository.obtainExportDirectoryPath()).toFile();
+        if (exportDirectory.isDirectory()) {
+            fileChooser.setInitialDirectory(exportDirectory);
+        }
+        return fileChooser;
+    }
+
+    /**
+     * Runs an export or import in the background, the archive buttons are disabled until it finishes
+     *
+     * @param currentStage   the stage where the result is shown
+     * @param archiveTask    the task, returning the number of archived recordings or -1 if it failed
+     * @param successMessage the message shown on success, formatted with the number of recordings
+     * @param errorMessage   the message shown on failure
+     */
+    private void runArchiveTask(Stage currentStage, Supplier<Integer> archiveTask, String successMessage, String errorMessage) {
+        exportRecordingsButton.setDisable(true);
+        importRecordingsButton.setDisable(true);
+        CompletableFuture.supplyAsync(archiveTask).whenComplete((recordings, exception) -> Platform.runLater(() -> {
+            exportRecordingsButton.setDisable(false);
+            importRecordingsButton.setDisable(false);
+            if (exception == null && recordings >= 0) {
+                ViewController.createCustomAlert(
+                        Alert.AlertType.INFORMATION, String.format(successMessage, recordings), ARCHIVE_ALERT_HEADER, currentStage, ButtonType.OK
+                ).show();
+            } else {
+                ViewController.createCustomAlert(
+                        Alert.AlertType.ERROR, errorMessage, ARCHIVE_ALERT_HEADER, currentStage, ButtonType.OK
+                ).show();
+            }
+        }));
+    }
+
     @FXML
     public void browseDirectories() {
         logger.log(Level.ALL, "Unimplemented functionality" );
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2023 Brandon Velazquez & contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.brnd.action_recorder.data.events;
+
+import com.brnd.action_recorder.data.DataUtils;
+import com.brnd.action_recorder.views.recording.CapturedEventType;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.KeyboardAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseButtonAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.MouseMotionAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ReplayableAction;
+import com.brnd.action_recorder.views.replay.replay_start_view.actions.ScrollAction;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.github.kwhat.jnativehook.mouse.NativeMouseEvent;
+import com.github.kwhat.jnativehook.mouse.NativeMouseWheelEvent;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputEventsCodecTest {
+
+    /**
+     * Events of every type, with execution times multiple of the delta time quantum so every encoding keeps them
+     */
+    private static List<ReplayableAction> mixedEvents() {
+        var events = new ArrayList<ReplayableAction>();
+        long time = 0L;
+        for (int i = 0; i < 50; i++) {
+            time += 8_000_000L + (i % 5) * 1_000L;
+            events.add(new MouseMotionAction(100 + i * 3, 200 - i * 7, time));
+        }
+        events.add(new MouseButtonAction(1, true, 250, -150, time += 1_000L));
+        events.add(new MouseButtonAction(1, false, 250, -150, time += 90_000_000L));
+        events.add(new MouseMotionAction(-20, 5, time += 1_000L));
+        events.add(new ScrollAction(ScrollAction.ScrollDirection.VERTICAL_NEGATIVE, -3, -20, 5, time += 2_000L));
+        events.add(new ScrollAction(ScrollAction.ScrollDirection.HORIZONTAL_POSITIVE, 2, -20, 5, time += 2_000L));
+        events.add(new KeyboardAction(NativeKeyEvent.VC_A, true, time += 40_000_000L));
+        events.add(new KeyboardAction(NativeKeyEvent.VC_A, false, time)); // same execution time
+        events.add(new MouseMotionAction(0, 0, time += 1_000L));
+        return events;
+    }
+
+    @Test
+    void decodesEncodedEvents() throws IOException, ClassNotFoundException {
+        for (var encoding : InputEventsCodec.Encoding.values()) {
+            var events = mixedEvents();
+
+            var decodedEvents = InputEventsCodec.decode(InputEventsCodec.encode(events, encoding));
+
+            assertEquals(describe(events), describe(decodedEvents));
+        }
+    }
+
+    @Test
+    void visitsEncodedEventsFields() throws IOException {
+        for (var encoding : InputEventsCodec.Encoding.values()) {
+            var events = mixedEvents();
+            var visitedFields = new ArrayList<String>();
+
+            InputEventsCodec.decode(InputEventsCodec.encode(events, encoding),
+                    (type, time, x, y) -> visitedFields.add(type + " " + time + " " + x + " " + y));
+
+            assertEquals(events.stream().map(InputEventsCodecTest::describeFields).toList(), visitedFields);
+        }
+    }
+
+    @Test
+    void decodesEmptyEvents() throws IOException, ClassNotFoundException {
+        for (var encoding : InputEventsCodec.Encoding.values()) {
+            byte[] payload = InputEventsCodec.encode(List.of(), encoding);
+
+            assertTrue(InputEventsCodec.decode(payload).isEmpty());
+            InputEventsCodec.decode(payload, (type, time, x, y) -> {
+                throw new AssertionError("No event expected");
+            });
+        }
+    }
+
+    @Test
+    void keepsExtremeValues() throws IOException, ClassNotFoundException {
+        for (var encoding : InputEventsCodec.Encoding.values()) {
+            long largeTime = (1L << 52) * InputEventsCodec.DELTA_TIME_QUANTUM_NANOS;
+            var events = List.of(
+                    new MouseMotionAction(Integer.MAX_VALUE, Integer.MIN_VALUE, 0L),
+                    // coordinates deltas overflow the int range
+                    new MouseMotionAction(Integer.MIN_VALUE, Integer.MAX_VALUE, 1_000L),
+                    new MouseButtonAction(Integer.MIN_VALUE, true, -1, 1, largeTime),
+                    new ScrollAction(ScrollAction.ScrollDirection.VERTICAL_POSITIVE, Integer.MAX_VALUE, 0, 0, largeTime),
+                    // time delta goes back from the largest time to the smallest one
+                    new MouseMotionAction(Integer.MAX_VALUE, Integer.MAX_VALUE, 2_000L),
+                    new KeyboardAction(NativeKeyEvent.VC_UNDEFINED, true, largeTime * 2)
+            );
+
+            var decodedEvents = InputEventsCodec.decode(InputEventsCodec.encode(events, encoding));
+
+            assertEquals(describe(events), describe(decodedEvents));
+        }
+    }
+
+    @Test
+    void quantizesDeltaEncodingsTimes() throws IOException, ClassNotFoundException {
+        var events = List.of(new MouseMotionAction(1, 1, 1_999L), new MouseMotionAction(2, 2, 5_000_001L));
+
+        for (var encoding : List.of(InputEventsCodec.Encoding.DELTA_OF_DELTA, InputEventsCodec.Encoding.COLUMNAR)) {
+            var decodedEvents = InputEventsCodec.decode(InputEventsCodec.encode(events, encoding));
+            assertEquals(1_000L, decodedEvents.get(0).getRelativeExecutionTime());
+            assertEquals(5_000_000L, decodedEvents.get(1).getRelativeExecutionTime());
+        }
+        var plainEvents = InputEventsCodec.decode(InputEventsCodec.encode(events, InputEventsCodec.Encoding.PLAIN));
+        assertEquals(describe(events), describe(plainEvents));
+    }
+
+    @Test
+    void decodesLegacySerializedEvents() throws IOException, ClassNotFoundException {
+        // stored by previous versions of the program as a java serialized LinkedList of actions
+        var events = new LinkedList<ReplayableAction>();
+        events.add(new MouseMotionAction(new NativeMouseEvent(NativeMouseEvent.NATIVE_MOUSE_MOVED, 0, 640, 480, 0), 1_500L));
+        events.add(new MouseButtonAction(new NativeMouseEvent(NativeMouseEvent.NATIVE_MOUSE_PRESSED, 0, 640, 480, 1, NativeMouseEvent.BUTTON1), 2_500L));
+        events.add(new MouseButtonAction(new NativeMouseEvent(NativeMouseEvent.NATIVE_MOUSE_RELEASED, 0, 640, 480, 1, NativeMouseEvent.BUTTON1), 3_500L));
+        events.add(new ScrollAction(new NativeMouseWheelEvent(NativeMouseWheelEvent.NATIVE_MOUSE_WHEEL, 0, 10, 20, 1,
+                NativeMouseWheelEvent.WHEEL_UNIT_SCROLL, 3, -1, NativeMouseWheelEvent.WHEEL_VERTICAL_DIRECTION), 4_500L));
+        events.add(new KeyboardAction(new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, 0, 0, NativeKeyEvent.VC_B, 'b'), 5_500L));
+        byte[] legacyPayload = DataUtils.toBytes(events);
+
+        assertTrue(InputEventsCodec.isLegacyPayload(legacyPayload));
+        assertEquals(describe(events), describe(InputEventsCodec.decode(legacyPayload)));
+        assertThrows(StreamCorruptedException.class, () -> InputEventsCodec.decode(legacyPayload, (type, time, x, y) -> {
+        }));
+    }
+
+    @Test
+    void decodesNullPayloadAsEmptyEvents() throws IOException, ClassNotFoundException {
+        assertTrue(InputEventsCodec.decode(null).isEmpty());
+    }
+
+    @Test
+    void rejectsTruncatedPayloads() {
+        for (var encoding : InputEventsCodec.Encoding.values()) {
+            byte[] payload = InputEventsCodec.encode(mixedEvents(), encoding);
+
+            for (int length = 0; length < payload.length; length++) {
+                byte[] truncatedPayload = Arrays.copyOf(payload, length);
+                assertThrows(IOException.class, () -> InputEventsCodec.decode(truncatedPayload), "Length " + length);
+                assertThrows(IOException.class, () -> InputEventsCodec.decode(truncatedPayload, (type, time, x, y) -> {
+                }), "Length " + length);
+            }
+        }
+    }
+
+    @Test
+    void rejectsUnknownMagicAndVersion() {
+        byte[] payload = InputEventsCodec.encode(mixedEvents(), InputEventsCodec.Encoding.PLAIN);
+        byte[] wrongMagic = payload.clone();
+        wrongMagic[0] = 'X';
+        byte[] wrongVersion = payload.clone();
+        wrongVersion[InputEventsCodec.MAGIC.length] = 99;
+
+        assertRejected(StreamCorruptedException.class, wrongMagic);
+        assertRejected(StreamCorruptedException.class, wrongVersion);
+    }
+
+    @Test
+    void rejectsUnknownTags() {
+        var plain = header(InputEventsCodec.Encoding.PLAIN);
+        plain.writeVarLong(1); // events count
+        plain.writeByte(42);
+        plain.writeSignedVarLong(0);
+        plain.writeSignedVarLong(0);
+        plain.writeSignedVarLong(0);
+        plain.writeSignedVarLong(0);
+
+        var delta = header(InputEventsCodec.Encoding.DELTA_OF_DELTA);
+        delta.writeVarLong(InputEventsCodec.DELTA_TIME_QUANTUM_NANOS);
+        delta.writeVarLong(1);
+        delta.writeByte(42);
+        delta.writeSignedVarLong(0);
+
+        var columnar = columnarPayload(new byte[]{42, 1}, new byte[]{0}, new byte[]{0}, new byte[]{0}, new byte[0]);
+
+        assertRejected(StreamCorruptedException.class, plain.toByteArray());
+        assertRejected(StreamCorruptedException.class, delta.toByteArray());
+        assertRejected(StreamCorruptedException.class, columnar);
+    }
+
+    @Test
+    void rejectsUnknownScrollDirection() {
+        var plain = header(InputEventsCodec.Encoding.PLAIN);
+        plain.writeVarLong(1);
+        plain.writeByte(InputEventsCodec.SCROLL_TAG);
+        plain.writeSignedVarLong(0);
+        plain.writeSignedVarLong(0);
+        plain.writeSignedVarLong(0);
+        plain.writeByte(ScrollAction.ScrollDirection.values().length);
+        plain.writeSignedVarLong(1);
+
+        assertRejected(StreamCorruptedException.class, plain.toByteArray());
+    }
+
+    @Test
+    void rejectsInvalidTimeQuantum() {
+        var delta = header(InputEventsCodec.Encoding.DELTA_OF_DELTA);
+        delta.writeVarLong(0);
+        delta.writeVarLong(0);
+
+        assertRejected(StreamCorruptedException.class, delta.toByteArray());
+    }
+
+    @Test
+    void rejectsColumnsExceedingThePayload() {
+        byte[] payload = InputEventsCodec.encode(List.of(new MouseMotionAction(1, 2, 1_000L)), InputEventsCodec.Encoding.COLUMNAR);
+        for (int length : new int[]{-1, Integer.MAX_VALUE, payload.length}) {
+            var writer = header(InputEventsCodec.Encoding.COLUMNAR);
+            writer.writeVarLong(InputEventsCodec.DELTA_TIME_QUANTUM_NANOS);
+            writer.writeVarLong(1);
+            writer.writeVarLong(2);
+            writer.writeVarLong(length & 0xFFFFFFFFL); // read back as an int
+            writer.writeVarLong(1);
+            writer.writeVarLong(1);
+            writer.writeVarLong(0);
+            writer.writeBytes(new byte[]{(byte) InputEventsCodec.MOTION_TAG, 1, 0, 2, 4});
+
+            assertRejected(StreamCorruptedException.class, writer.toByteArray());
+        }
+    }
+
+    @Test
+    void rejectsColumnsWithLessEventsThanTheCount() {
+        // the tags column declares a single event while the count declares two of them
+        byte[] payload = columnarPayload(new byte[]{InputEventsCodec.MOTION_TAG, 1}, new byte[]{2}, new byte[]{2},
+                new byte[]{4}, new byte[0], 2);
+
+        assertRejected(EOFException.class, payload);
+    }
+
+    @Test
+    void rejectsMalformedVarints() {
+        var writer = header(InputEventsCodec.Encoding.PLAIN);
+        writer.writeBytes(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01});
+
+        assertRejected(StreamCorruptedException.class, writer.toByteArray());
+    }
+
+    @Test
+    void mapsVarintsAndZigZagValues() throws IOException {
+        long[] values = {0L, 1L, -1L, 63L, -64L, 64L, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        var writer = new EventsByteWriter(1);
+        for (long value : values) {
+            writer.writeSignedVarLong(value);
+            writer.writeVarLong(value);
+        }
+
+        var reader = new EventsByteReader(writer.toByteArray());
+        for (long value : values) {
+            assertEquals(value, reader.readSignedVarLong());
+            assertEquals(value, reader.readVarLong());
+        }
+        assertFalse(reader.hasRemaining());
+        assertVarint(new byte[]{0x00}, 0L);
+        assertVarint(new byte[]{0x01}, -1L);
+        assertVarint(new byte[]{0x02}, 1L);
+        assertVarint(new byte[]{0x7F}, -64L);
+        assertVarint(new byte[]{(byte) 0x80, 0x01}, 64L);
+        assertEquals(10, signedVarint(Long.MIN_VALUE).length);
+        assertEquals(10, signedVarint(Long.MAX_VALUE).length);
+    }
+
+    private static void assertVarint(byte[] expected, long value) {
+        assertArrayEquals(expected, signedVarint(value));
+    }
+
+    private static byte[] signedVarint(long value) {
+        var writer = new EventsByteWriter(1);
+        writer.writeSignedVarLong(value);
+        return writer.toByteArray();
+    }
+
+    private static void assertRejected(Class<? extends IOException> exceptionType, byte[] payload) {
+        assertThrows(exceptionType, () -> InputEventsCodec.decode(payload));
+        assertThrows(exceptionType, () -> InputEventsCodec.decode(payload, (type, time, x, y) -> {
+        }));
+    }
+
+    private static EventsByteWriter header(InputEventsCodec.Encoding encoding) {
+        var writer = new EventsByteWriter(16);
+        writer.writeBytes(InputEventsCodec.MAGIC);
+        writer.writeByte(encoding.getVersion());
+        return writer;
+    }
+
+    private static byte[] columnarPayload(byte[] tags, byte[] times, byte[] xs, byte[] ys, byte[] values) {
+        return columnarPayload(tags, times, xs, ys, values, 1);
+    }
+
+    private static byte[] columnarPayload(byte[] tags, byte[] times, byte[] xs, byte[] ys, byte[] values, int eventsCount) {
+        var writer = header(InputEventsCodec.Encoding.COLUMNAR);
+        writer.writeVarLong(InputEventsCodec.DELTA_TIME_QUANTUM_NANOS);
+        writer.writeVarLong(eventsCount);
+        byte[][] columns = {tags, times, xs, ys, values};
+        for (byte[] column : columns) {
+            writer.writeVarLong(column.length);
+        }
+        for (byte[] column : columns) {
+            writer.writeBytes(column);
+        }
+        return writer.toByteArray();
+    }
+
+    private static List<String> describe(List<? extends ReplayableAction> events) {
+        return events.stream().map(InputEventsCodecTest::describe).toList();
+    }
+
+    /**
+     * Describes the stored values of the given action, actions don't implement equals
+     */
+    private static String describe(ReplayableAction action) {
+        var description = new StringBuilder(action.getClass().getSimpleName())
+                .append(' ').append(action.getRelativeExecutionTime());
+        if (action instanceof MouseAction mouseAction) {
+            description.append(' ').append(mouseAction.getMouseX()).append(' ').append(mouseAction.getMouseY());
+        }
+        if (action instanceof MouseButtonAction buttonAction) {
+            description.append(' ').append(buttonAction.getButtonId()).append(' ').append(buttonAction.isButtonPress());
+        } else if (action instanceof ScrollAction scrollAction) {
+            description.append(' ').append(scrollAction.getScrollDirection()).append(' ').append(scrollAction.getWheelScroll());
+        } else if (action instanceof KeyboardAction keyboardAction) {
+            description.append(' ').append(keyboardAction.getNativeKeyCode()).append(' ').append(keyboardAction.isKeyPress());
+        }
+        return description.toString();
+    }
+
+    private static String describeFields(ReplayableAction action) {
+        CapturedEventType type;
+        int x = 0;
+        int y = 0;
+        if (action instanceof MouseAction mouseAction) {
+            x = mouseAction.getMouseX();
+            y = mouseAction.getMouseY();
+        }
+        if (action instanceof MouseMotionAction) {
+            type = CapturedEventType.MOUSE_MOTION;
+        } else if (action instanceof MouseButtonAction buttonAction) {
+            type = buttonAction.isButtonPress() ? CapturedEventType.MOUSE_PRESS : CapturedEventType.MOUSE_RELEASE;
+        } else if (action instanceof ScrollAction) {
+            type = CapturedEventType.SCROLL;
+        } else {
+            type = ((KeyboardAction) action).isKeyPress() ? CapturedEventType.KEY_PRESS : CapturedEventType.KEY_RELEASE;
+        }
+        return type + " " + action.getRelativeExecutionTime() + " " + x + " " + y;
+    }
+}